@@ -1,6 +1,8 @@
 package com.insurai.config;
 
+import com.insurai.security.StompAuthChannelInterceptor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -10,6 +12,12 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+    }
+
     @Override
     public void configureMessageBroker(@org.springframework.lang.NonNull MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic", "/queue");
@@ -22,4 +30,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*") // Allow all origins for dev
                 .withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(@org.springframework.lang.NonNull ChannelRegistration registration) {
+        // Authenticates CONNECT and guards subscriptions to /topic/fraud/**
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
 }
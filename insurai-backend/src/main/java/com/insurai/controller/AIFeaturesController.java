@@ -6,10 +6,14 @@ import com.insurai.repository.PolicyRepository;
 import com.insurai.repository.UserRepository;
 import com.insurai.service.AIAssistantService;
 import com.insurai.service.AIRecommendationEngine;
+import com.insurai.service.CampaignRecommendationService;
+import com.insurai.service.FraudHeatmapSnapshots;
 import com.insurai.service.FraudRiskService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -28,23 +32,30 @@ public class AIFeaturesController {
         private final FraudRiskService fraudRiskService;
         private final UserRepository userRepository;
         private final PolicyRepository policyRepository;
+        private final CampaignRecommendationService campaignRecommendationService;
+        private final FraudHeatmapSnapshots fraudHeatmapSnapshots;
 
         public AIFeaturesController(
                         AIRecommendationEngine recommendationEngine,
                         AIAssistantService assistantService,
                         FraudRiskService fraudRiskService,
                         UserRepository userRepository,
-                        PolicyRepository policyRepository) {
+                        PolicyRepository policyRepository,
+                        CampaignRecommendationService campaignRecommendationService,
+                        FraudHeatmapSnapshots fraudHeatmapSnapshots) {
                 this.recommendationEngine = recommendationEngine;
                 this.assistantService = assistantService;
                 this.fraudRiskService = fraudRiskService;
                 this.userRepository = userRepository;
                 this.policyRepository = policyRepository;
+                this.campaignRecommendationService = campaignRecommendationService;
+                this.fraudHeatmapSnapshots = fraudHeatmapSnapshots;
         }
 
         /**
          * Get AI policy recommendations with explanations
          * POST /api/ai/recommendations
+         * Set "scoresOnly": true to skip reasons, concerns and comparison text
          */
         @PostMapping("/recommendations")
         @PreAuthorize("hasRole('USER')")
@@ -63,6 +74,8 @@ public class AIFeaturesController {
                 int limit = request.get("limit") != null
                                 ? Integer.parseInt(request.get("limit").toString())
                                 : 3;
+                boolean scoresOnly = request.get("scoresOnly") != null
+                                && Boolean.parseBoolean(request.get("scoresOnly").toString());
 
                 User user = userRepository.findById(java.util.Objects.requireNonNull(userId))
                                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -74,30 +87,60 @@ public class AIFeaturesController {
                 }
 
                 List<AIRecommendationEngine.PolicyRecommendation> recommendations = recommendationEngine
-                                .getRecommendations(user, rejectedPolicy, limit);
+                                .getRecommendations(user, rejectedPolicy, limit, scoresOnly);
 
                 return ResponseEntity.ok(recommendations);
         }
 
         /**
          * Get personalized recommendations for user
-         * GET /api/ai/recommendations/{userId}
+         * GET /api/ai/recommendations/{userId}?scoresOnly=true skips explanation text
          */
         @GetMapping("/recommendations/{userId}")
         @PreAuthorize("hasAnyRole('USER', 'AGENT')")
         public ResponseEntity<List<AIRecommendationEngine.PolicyRecommendation>> getUserRecommendations(
                         @PathVariable Long userId,
-                        @RequestParam(defaultValue = "5") int limit) {
+                        @RequestParam(defaultValue = "5") int limit,
+                        @RequestParam(defaultValue = "false") boolean scoresOnly) {
 
                 User user = userRepository.findById(java.util.Objects.requireNonNull(userId))
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 List<AIRecommendationEngine.PolicyRecommendation> recommendations = recommendationEngine
-                                .getRecommendations(user, null, limit);
+                                .getRecommendations(user, null, limit, scoresOnly);
 
                 return ResponseEntity.ok(recommendations);
         }
 
+        /**
+         * Bulk recommendations for a user cohort (campaigns), streamed as NDJSON
+         * POST /api/ai/recommendations/batch
+         * Body: { "companyId", "role", "minAge", "maxAge", "limit" } - all optional
+         */
+        @PostMapping(value = "/recommendations/batch", produces = "application/x-ndjson")
+        @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'COMPANY_ADMIN')")
+        public ResponseEntity<StreamingResponseBody> getBatchRecommendations(
+                        @RequestBody(required = false) CampaignRecommendationService.Cohort cohort,
+                        org.springframework.security.core.Authentication auth) {
+                CampaignRecommendationService.Cohort selection = cohort != null ? cohort
+                                : new CampaignRecommendationService.Cohort();
+
+                // Company admins can only target their own company's users
+                User requester = userRepository.findByEmail(auth.getName()).orElse(null);
+                if (requester != null && "COMPANY_ADMIN".equals(requester.getRole())) {
+                        if (requester.getCompany() == null) {
+                                throw new org.springframework.web.server.ResponseStatusException(
+                                                org.springframework.http.HttpStatus.FORBIDDEN, "No company assigned");
+                        }
+                        selection.setCompanyId(requester.getCompany().getId());
+                }
+
+                StreamingResponseBody body = out -> campaignRecommendationService.streamCohort(selection, out);
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                                .body(body);
+        }
+
         /**
          * Chat with AI Assistant
          * POST /api/ai/assistant/chat
@@ -130,27 +173,30 @@ public class AIFeaturesController {
         /**
          * Get fraud risk heatmap (Admin only)
          * GET /api/ai/fraud/heatmap
+         * Served from the materialized snapshot; risk level changes are pushed to
+         * /topic/fraud/{companyId} (or /topic/fraud/all for super admins)
          */
         @GetMapping("/fraud/heatmap")
         @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'COMPANY_ADMIN')")
         public ResponseEntity<FraudRiskService.FraudHeatmap> getFraudHeatmap(
                         org.springframework.security.core.Authentication auth) {
                 Long companyId = getCompanyIdFromEmail(auth.getName());
-                FraudRiskService.FraudHeatmap heatmap = fraudRiskService.getFraudHeatmap(companyId);
+                FraudRiskService.FraudHeatmap heatmap = fraudHeatmapSnapshots.get(companyId);
                 return ResponseEntity.ok(heatmap);
         }
 
         /**
-         * Get high-risk users (Admin only)
-         * GET /api/ai/fraud/high-risk
+         * Get high-risk users (Admin only), highest risk first
+         * GET /api/ai/fraud/high-risk?page=0&size=20
          */
         @GetMapping("/fraud/high-risk")
         @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'COMPANY_ADMIN')")
-        public ResponseEntity<List<FraudRiskService.UserRiskScore>> getHighRiskUsers(
+        public ResponseEntity<FraudRiskService.HighRiskPage> getHighRiskUsers(
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
                         org.springframework.security.core.Authentication auth) {
                 Long companyId = getCompanyIdFromEmail(auth.getName());
-                List<FraudRiskService.UserRiskScore> highRiskUsers = fraudRiskService.getHighRiskUsers(companyId);
-                return ResponseEntity.ok(highRiskUsers);
+                return ResponseEntity.ok(fraudRiskService.getHighRiskUsers(companyId, page, size));
         }
 
         private Long getCompanyIdFromEmail(String email) {
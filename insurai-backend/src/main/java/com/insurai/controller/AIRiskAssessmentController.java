@@ -31,6 +31,18 @@ public class AIRiskAssessmentController {
         return ResponseEntity.ok(assessment);
     }
 
+    /**
+     * Risk assessments for one user against several policies in one call
+     * POST /api/ai/risk-assessment/batch
+     * Body: { "userId": 1, "policyIds": [..] } or { "userId": 1, "filter": {..}, "page": 0, "size": 20 }
+     */
+    @PostMapping("/risk-assessment/batch")
+    @PreAuthorize("hasAnyRole('USER', 'AGENT', 'SUPER_ADMIN', 'COMPANY_ADMIN')")
+    public ResponseEntity<java.util.List<RiskAssessmentDTO>> getRiskAssessments(
+            @RequestBody com.insurai.dto.RiskAssessmentBatchRequest request) {
+        return ResponseEntity.ok(aiRiskAssessmentService.assessRiskBatch(request));
+    }
+
     /**
      * Get general risk profile for a user
      */
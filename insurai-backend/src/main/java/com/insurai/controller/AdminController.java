@@ -19,6 +19,11 @@ public class AdminController {
     private final com.insurai.repository.PolicyRepository policyRepo;
     private final com.insurai.repository.AuditLogRepository auditRepo;
     private final com.insurai.repository.UserCompanyMapRepository userCompanyMapRepo;
+    private final com.insurai.service.PolicyCatalog policyCatalog;
+    private final com.insurai.repository.DashboardRollupRepository rollupRepo;
+    private final com.insurai.service.DashboardCache dashboardCache;
+    private final com.insurai.service.AgentRankingIndex rankingIndex;
+    private final com.insurai.repository.BookingRepository bookingRepo;
 
     public AdminController(UserRepository userRepo,
             com.insurai.service.BookingService bookingService,
@@ -26,13 +31,23 @@ public class AdminController {
 
             com.insurai.repository.PolicyRepository policyRepo,
             com.insurai.repository.AuditLogRepository auditRepo,
-            com.insurai.repository.UserCompanyMapRepository userCompanyMapRepo) {
+            com.insurai.repository.UserCompanyMapRepository userCompanyMapRepo,
+            com.insurai.service.PolicyCatalog policyCatalog,
+            com.insurai.repository.DashboardRollupRepository rollupRepo,
+            com.insurai.service.DashboardCache dashboardCache,
+            com.insurai.service.AgentRankingIndex rankingIndex,
+            com.insurai.repository.BookingRepository bookingRepo) {
         this.userRepo = userRepo;
         this.bookingService = bookingService;
         this.claimService = claimService;
         this.policyRepo = policyRepo;
         this.auditRepo = auditRepo;
         this.userCompanyMapRepo = userCompanyMapRepo;
+        this.policyCatalog = policyCatalog;
+        this.rollupRepo = rollupRepo;
+        this.dashboardCache = dashboardCache;
+        this.rankingIndex = rankingIndex;
+        this.bookingRepo = bookingRepo;
     }
 
     private com.insurai.model.User getCurrentUser() {
@@ -120,7 +135,9 @@ public class AdminController {
 
     @PostMapping("/policies")
     public com.insurai.model.Policy createPolicy(@RequestBody com.insurai.model.Policy policy) {
-        return policyRepo.save(java.util.Objects.requireNonNull(policy));
+        com.insurai.model.Policy saved = policyRepo.save(java.util.Objects.requireNonNull(policy));
+        policyCatalog.policyAddedAfterCommit(saved.getId());
+        return saved;
     }
 
     @GetMapping("/audit-logs")
@@ -138,6 +155,17 @@ public class AdminController {
 
     @GetMapping("/dashboard-stats")
     public com.insurai.dto.AdminDashboardDTO getDashboardStats() {
+        com.insurai.model.User currentUser = getCurrentUser();
+        // Same scoping as BookingService.getAllBookings: company admins see their company
+        Long companyId = currentUser != null && currentUser.getCompany() != null
+                && ("COMPANY_ADMIN".equals(currentUser.getRole()) || "COMPANY".equals(currentUser.getRole()))
+                        ? currentUser.getCompany().getId()
+                        : null;
+        return dashboardCache.get("admin-dashboard:" + (companyId != null ? companyId : "all"), companyId,
+                () -> buildDashboardStats(companyId));
+    }
+
+    private com.insurai.dto.AdminDashboardDTO buildDashboardStats(Long companyId) {
         com.insurai.dto.AdminDashboardDTO dashboard = new com.insurai.dto.AdminDashboardDTO();
 
         // 1. Claim Risk Distribution
@@ -146,107 +174,74 @@ public class AdminController {
         riskDist.put("Medium", 0);
         riskDist.put("High", 0);
 
-        java.util.List<com.insurai.model.Claim> claims = claimService.getAllClaims();
-        for (com.insurai.model.Claim c : claims) {
-            Double score = c.getFraudScore();
-            if (score == null)
-                score = 0.0;
-
-            if (score <= 0.3)
-                riskDist.put("Low", riskDist.get("Low") + 1);
-            else if (score <= 0.7)
-                riskDist.put("Medium", riskDist.get("Medium") + 1);
-            else
-                riskDist.put("High", riskDist.get("High") + 1);
+        // Read from the claim rollups, bucketed by fraud score band
+        long fraudAlerts = 0;
+        for (com.insurai.repository.DashboardRollupRepository.RollupSum row : rollupRepo
+                .sumByStatusAndBucket(com.insurai.model.DashboardRollup.CLAIM, null)) {
+            int count = row.getTotal().intValue();
+            if ("LOW".equals(row.getBucket()))
+                riskDist.put("Low", riskDist.get("Low") + count);
+            else if ("MEDIUM".equals(row.getBucket()))
+                riskDist.put("Medium", riskDist.get("Medium") + count);
+            else {
+                riskDist.put("High", riskDist.get("High") + count);
+                if (!"REJECTED".equals(row.getStatus()) && !"APPROVED".equals(row.getStatus()))
+                    fraudAlerts += count;
+            }
         }
         dashboard.setClaimRiskDistribution(riskDist);
 
-        // 2. Agent Leaderboard
-        com.insurai.model.User currentUser = getCurrentUser();
-        java.util.List<com.insurai.model.Booking> bookings = bookingService.getAllBookings(currentUser); // Context
-                                                                                                         // aware
-        Map<com.insurai.model.User, java.util.List<com.insurai.model.Booking>> agentBookings = bookings.stream()
-                .filter(b -> b.getAgent() != null)
-                .collect(java.util.stream.Collectors.groupingBy(com.insurai.model.Booking::getAgent));
+        // 2. Agent Leaderboard (from the ranking index, already in approval rate order)
+        com.insurai.service.AgentRankingIndex.Entry[] ranked = rankingIndex.leaderboard(companyId,
+                Integer.MAX_VALUE);
+        java.util.List<Long> agentIds = new java.util.ArrayList<>(ranked.length);
+        for (com.insurai.service.AgentRankingIndex.Entry e : ranked) {
+            agentIds.add(e.getAgentId());
+        }
+        Map<Long, com.insurai.model.User> agents = new HashMap<>();
+        userRepo.findAllById(agentIds).forEach(a -> agents.put(a.getId(), a));
 
         java.util.List<com.insurai.dto.AgentPerformanceDTO> leaderboard = new java.util.ArrayList<>();
-
-        for (Map.Entry<com.insurai.model.User, java.util.List<com.insurai.model.Booking>> entry : agentBookings
-                .entrySet()) {
-            com.insurai.model.User agent = entry.getKey();
-            java.util.List<com.insurai.model.Booking> abs = entry.getValue();
-
-            int total = abs.size();
-            long approved = abs.stream()
-                    .filter(b -> "APPROVED".equals(b.getStatus()) || "COMPLETED".equals(b.getStatus())).count();
-
-            // Calc Avg Response Time (minutes)
-            double totalMins = 0;
-            int countTime = 0;
-            for (com.insurai.model.Booking b : abs) {
-                if (b.getCreatedAt() != null) {
-                    java.time.LocalDateTime end = b.getRespondedAt();
-                    if (end == null)
-                        end = b.getReviewedAt();
-                    if (end == null)
-                        end = b.getCompletedAt();
-
-                    if (end != null) {
-                        long mins = java.time.Duration.between(b.getCreatedAt(), end).toMinutes();
-                        if (mins >= 0) {
-                            totalMins += mins;
-                            countTime++;
-                        }
-                    }
-                }
-            }
-            double avgTime = countTime > 0 ? totalMins / countTime : 0;
-
+        for (com.insurai.service.AgentRankingIndex.Entry e : ranked) {
+            com.insurai.model.User agent = agents.get(e.getAgentId());
+            if (agent == null)
+                continue;
             com.insurai.dto.AgentPerformanceDTO dto = new com.insurai.dto.AgentPerformanceDTO();
             dto.setAgentId(agent.getId());
             dto.setAgentName(agent.getName());
-            dto.setTotalConsultations(total);
-            dto.setApprovalRate(total > 0 ? ((double) approved / total) * 100 : 0);
-            dto.setAverageResponseTime(avgTime);
-
+            dto.setTotalConsultations(e.getTotalConsultations());
+            dto.setApprovalRate(e.getApprovalRate());
+            dto.setAverageResponseTime(e.getAverageResponseMinutes());
             leaderboard.add(dto);
         }
+        dashboard.setAgentLeaderboard(leaderboard);
 
-        // Ensure at least empty list
-        if (leaderboard.isEmpty())
-            dashboard.setAgentLeaderboard(new java.util.ArrayList<>());
-        else {
-            leaderboard.sort((a, b) -> Double.compare(ifNull(b.getApprovalRate()), ifNull(a.getApprovalRate())));
-            dashboard.setAgentLeaderboard(leaderboard);
-        }
-
-        // 3. SLA Metrics
+        // 3. SLA Metrics (24h response SLA on open requests)
         com.insurai.dto.AdminDashboardDTO.SLAMetricsDTO sla = new com.insurai.dto.AdminDashboardDTO.SLAMetricsDTO();
         java.util.List<com.insurai.dto.AdminDashboardDTO.SLATaskDTO> urgent = new java.util.ArrayList<>();
-        int onTrack = 0, atRisk = 0, breached = 0;
+        int atRisk = 0, breached = 0;
 
         java.time.LocalDateTime now = java.time.LocalDateTime.now();
 
-        for (com.insurai.model.Booking b : bookings) {
-            if ("PENDING".equals(b.getStatus()) || "CONFIRMED".equals(b.getStatus())) {
-                java.time.LocalDateTime deadline = b.getCreatedAt().plusHours(24);
-                long hoursLeft = java.time.Duration.between(now, deadline).toHours();
-
-                if (hoursLeft < 0) {
-                    breached++;
-                    urgent.add(new com.insurai.dto.AdminDashboardDTO.SLATaskDTO(
-                            "B-" + b.getId(), "Consultation", deadline.toString(), "HIGH",
-                            b.getAgent() != null ? b.getAgent().getName() : "Unassigned"));
-                } else if (hoursLeft < 4) {
-                    atRisk++;
-                    urgent.add(new com.insurai.dto.AdminDashboardDTO.SLATaskDTO(
-                            "B-" + b.getId(), "Consultation", deadline.toString(), "MEDIUM",
-                            b.getAgent() != null ? b.getAgent().getName() : "Unassigned"));
-                } else {
-                    onTrack++;
-                }
+        // Only requests with under 4 hours left (created over 20h ago) need listing; the rest are counted
+        for (com.insurai.repository.BookingRepository.SlaCandidate b : bookingRepo.findOpenCreatedBefore(companyId,
+                now.minusHours(20))) {
+            java.time.LocalDateTime deadline = b.getCreatedAt().plusHours(24);
+            long hoursLeft = java.time.Duration.between(now, deadline).toHours();
+
+            if (hoursLeft < 0) {
+                breached++;
+                urgent.add(new com.insurai.dto.AdminDashboardDTO.SLATaskDTO(
+                        "B-" + b.getId(), "Consultation", deadline.toString(), "HIGH",
+                        b.getAgentName() != null ? b.getAgentName() : "Unassigned"));
+            } else if (hoursLeft < 4) {
+                atRisk++;
+                urgent.add(new com.insurai.dto.AdminDashboardDTO.SLATaskDTO(
+                        "B-" + b.getId(), "Consultation", deadline.toString(), "MEDIUM",
+                        b.getAgentName() != null ? b.getAgentName() : "Unassigned"));
             }
         }
+        int onTrack = (int) Math.max(0, bookingRepo.countOpenForSla(companyId) - atRisk - breached);
 
         sla.setOnTrack(onTrack);
         sla.setAtRisk(atRisk);
@@ -259,17 +254,9 @@ public class AdminController {
 
         dashboard.setSlaMetrics(sla);
 
-        // 4. Fraud Alerts (Active/Unresolved) - MATCHES SuperAdmin Logic
-        long fraudAlerts = claimService.getAllClaims().stream()
-                .filter(c -> c.getFraudScore() != null && c.getFraudScore() > 0.7)
-                .filter(c -> !"REJECTED".equals(c.getStatus()) && !"APPROVED".equals(c.getStatus()))
-                .count();
+        // 4. Fraud Alerts (Active/Unresolved) - MATCHES SuperAdmin Logic; high band claims still open
         dashboard.setFraudAlerts((int) fraudAlerts);
 
         return dashboard;
     }
-
-    private double ifNull(Double d) {
-        return d == null ? 0.0 : d;
-    }
 }
@@ -32,12 +32,14 @@ public class AgentController {
     private final com.insurai.service.AgentConsultationService agentConsultationService;
     private final com.insurai.service.GoogleCalendarService calendarService;
     private final com.insurai.service.AIService aiService;
+    private final com.insurai.service.BookingDecisionService bookingDecisionService;
 
     public AgentController(UserRepository userRepo, BookingRepository bookingRepo, UserPolicyRepository userPolicyRepo,
             PolicyRepository policyRepo, NotificationService notificationService,
             com.insurai.service.AgentConsultationService agentConsultationService,
             com.insurai.service.GoogleCalendarService calendarService,
-            com.insurai.service.AIService aiService) {
+            com.insurai.service.AIService aiService,
+            com.insurai.service.BookingDecisionService bookingDecisionService) {
         this.userRepo = userRepo;
         this.bookingRepo = bookingRepo;
         this.userPolicyRepo = userPolicyRepo;
@@ -46,6 +48,7 @@ public class AgentController {
         this.agentConsultationService = agentConsultationService;
         this.calendarService = calendarService;
         this.aiService = aiService;
+        this.bookingDecisionService = bookingDecisionService;
     }
 
     // Public/User: Find agents
@@ -232,6 +235,17 @@ public class AgentController {
         return bookingRepo.save(booking);
     }
 
+    // Approve or reject up to 500 bookings at once; per-booking results, partial success allowed
+    @PostMapping("/appointments/decisions")
+    @PreAuthorize("hasAnyRole('AGENT', 'COMPANY_ADMIN', 'SUPER_ADMIN')")
+    public com.insurai.dto.BulkBookingDecisionResponse decideAppointments(
+            @RequestBody com.insurai.dto.BulkBookingDecisionRequest request, Authentication auth) {
+        User actor = userRepo.findByEmail(auth.getName())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        return bookingDecisionService.decide(actor, request.getBookingIds(), request.getStatus(),
+                request.getReason());
+    }
+
     @PostMapping("/recommendations")
     @PreAuthorize("hasRole('AGENT')")
     public UserPolicy recommendPolicy(@RequestBody Map<String, Object> payload, Authentication auth) {
@@ -126,4 +126,17 @@ public class BookingController {
     public List<String> getAvailability(@RequestParam String date, @RequestParam Long agentId) {
         return bookingService.getAvailableSlots(date, agentId);
     }
+
+    // Next free slots across a company's agents (or the given agents) in a time range
+    @GetMapping("/availability/search")
+    public List<com.insurai.dto.AvailableSlotDTO> searchAvailability(
+            @RequestParam(required = false) Long companyId,
+            @RequestParam(required = false) List<Long> agentIds,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "60") int durationMinutes,
+            @RequestParam(defaultValue = "60") int stepMinutes,
+            @RequestParam(defaultValue = "10") int limit) {
+        return bookingService.searchAvailability(companyId, agentIds, from, to, durationMinutes, stepMinutes, limit);
+    }
 }
@@ -13,10 +13,13 @@ public class ClaimController {
 
     private final ClaimService claimService;
     private final com.insurai.repository.UserRepository userRepo;
+    private final com.insurai.service.ClaimRescoringService claimRescoringService;
 
-    public ClaimController(ClaimService claimService, com.insurai.repository.UserRepository userRepo) {
+    public ClaimController(ClaimService claimService, com.insurai.repository.UserRepository userRepo,
+            com.insurai.service.ClaimRescoringService claimRescoringService) {
         this.claimService = claimService;
         this.userRepo = userRepo;
+        this.claimRescoringService = claimRescoringService;
     }
 
     // User: File a claim
@@ -56,6 +59,24 @@ public class ClaimController {
         return claimService.updateStatus(java.util.Objects.requireNonNull(id), status);
     }
 
+    // Admin: Re-score historical claims with the current fraud rules
+    // Company admins are limited to their own company's claims
+    @PostMapping("/rescore")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('SUPER_ADMIN', 'COMPANY_ADMIN')")
+    public com.insurai.service.ClaimRescoringService.RescoreResult rescore(
+            @RequestParam(required = false) Long companyId,
+            org.springframework.security.core.Authentication auth) {
+        com.insurai.model.User requester = userRepo.findByEmail(auth.getName()).orElse(null);
+        if (requester != null && "COMPANY_ADMIN".equals(requester.getRole())) {
+            if (requester.getCompany() == null) {
+                throw new org.springframework.web.server.ResponseStatusException(
+                        org.springframework.http.HttpStatus.FORBIDDEN, "No company assigned");
+            }
+            companyId = requester.getCompany().getId();
+        }
+        return claimRescoringService.rescore(companyId);
+    }
+
     // User: Upload document to claim
     @PostMapping("/{id}/upload")
     public Claim uploadDoc(@PathVariable Long id,
@@ -13,6 +13,8 @@ import com.insurai.repository.UserCompanyMapRepository;
 
 import com.insurai.repository.CompanyRepository;
 import com.insurai.repository.AgentReviewRepository;
+import com.insurai.repository.DashboardRollupRepository;
+import com.insurai.model.DashboardRollup;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -59,6 +61,9 @@ public class CompanyController {
     @Autowired
     private AgentReviewRepository agentReviewRepository;
 
+    @Autowired
+    private DashboardRollupRepository rollupRepository;
+
     @Autowired
     private com.insurai.service.NotificationService notificationService;
 
@@ -226,28 +231,29 @@ public class CompanyController {
         // Get total unique users who have purchased policies from this company
         long totalCompanyUsers = userCompanyMapRepository.countActiveUsersByCompany(companyId);
 
-        List<com.insurai.model.UserPolicy> soldPolicies = userPolicyRepository.findByPolicyCompanyId(companyId);
-        long policiesSold = soldPolicies.size();
-        double revenue = soldPolicies.stream()
-                .mapToDouble(up -> up.getPremium() != null ? up.getPremium() : 0.0)
-                .sum();
+        // Sales, bookings and monthly sales come from the dashboard rollups
+        long policiesSold = 0;
+        double revenue = 0;
+        for (DashboardRollupRepository.RollupSum row : rollupRepository.sumByStatus(DashboardRollup.USER_POLICY,
+                companyId)) {
+            policiesSold += row.getTotal();
+            revenue += row.getAmount();
+        }
 
         // Calculate Conversion Rate: Policies Sold / Total Bookings * 100
-        List<com.insurai.model.Booking> bookings = bookingRepository.findByPolicyCompanyId(companyId);
-        long totalBookings = bookings.size();
+        long totalBookings = rollupRepository.sumByStatus(DashboardRollup.BOOKING, companyId).stream()
+                .mapToLong(DashboardRollupRepository.RollupSum::getTotal)
+                .sum();
         double conversionRate = totalBookings > 0 ? (double) policiesSold / totalBookings * 100 : 0;
 
         // Sales Data (Last 6 Months)
         Map<java.time.Month, Double> monthlySales = new java.util.TreeMap<>();
-        java.time.LocalDateTime sixMonthsAgo = java.time.LocalDateTime.now().minusMonths(6);
+        java.time.LocalDate sixMonthsAgo = java.time.LocalDate.now().minusMonths(6);
 
-        soldPolicies.stream()
-                .filter(up -> up.getCreatedAt() != null && up.getCreatedAt().isAfter(sixMonthsAgo))
-                .forEach(up -> {
-                    java.time.Month month = up.getCreatedAt().getMonth();
-                    monthlySales.put(month,
-                            monthlySales.getOrDefault(month, 0.0) + (up.getPremium() != null ? up.getPremium() : 0));
-                });
+        for (DashboardRollupRepository.RollupSum row : rollupRepository.sumByDaySince(DashboardRollup.USER_POLICY,
+                companyId, sixMonthsAgo)) {
+            monthlySales.merge(row.getDay().getMonth(), row.getAmount(), Double::sum);
+        }
 
         List<Map<String, Object>> salesData = monthlySales.entrySet().stream()
                 .map(e -> {
@@ -272,25 +278,17 @@ public class CompanyController {
         }
 
         // Insight 2: Top Selling Policy
-        if (!soldPolicies.isEmpty()) {
-            Map<String, Long> policyCounts = soldPolicies.stream()
-                    .filter(up -> up.getPolicy() != null)
-                    .collect(java.util.stream.Collectors.groupingBy(up -> up.getPolicy().getName(),
-                            java.util.stream.Collectors.counting()));
-
-            policyCounts.entrySet().stream().max(Map.Entry.comparingByValue()).ifPresent(best -> {
+        if (policiesSold > 0) {
+            userPolicyRepository.countSoldByPolicyName(companyId).stream().findFirst().ifPresent(best -> {
                 aiInsights.add(Map.of("type", "suggestion", "title", "Top Performer", "text",
-                        best.getKey() + " is your best seller with " + best.getValue() + " units sold."));
+                        best.getLabel() + " is your best seller with " + best.getTotal() + " units sold."));
             });
         } else {
             aiInsights.add(Map.of("type", "suggestion", "title", "No Sales Yet", "text",
                     "Promote your policies to attract customers."));
         }
 
-        long totalAgents = userRepository.findAll().stream()
-                .filter(u -> "AGENT".equals(u.getRole()) && u.getCompany() != null
-                        && u.getCompany().getId().equals(companyId))
-                .count();
+        long totalAgents = userRepository.countByCompanyIdAndRole(companyId, "AGENT");
 
         // Fraud Alerts: count ExceptionCase entities for this company
         long fraudAlerts = exceptionCaseRepository.countByCompanyId(companyId);
@@ -4,6 +4,7 @@ import com.insurai.dto.DashboardStats;
 import com.insurai.repository.UserRepository;
 import com.insurai.repository.BookingRepository;
 import com.insurai.repository.UserPolicyRepository;
+import com.insurai.service.DashboardCache;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -18,16 +19,23 @@ public class DashboardController {
     private final UserRepository userRepo;
     private final BookingRepository bookingRepo;
     private final UserPolicyRepository userPolicyRepo;
+    private final DashboardCache dashboardCache;
 
     public DashboardController(UserRepository userRepo, BookingRepository bookingRepo,
-            UserPolicyRepository userPolicyRepo) {
+            UserPolicyRepository userPolicyRepo, DashboardCache dashboardCache) {
         this.userRepo = userRepo;
         this.bookingRepo = bookingRepo;
         this.userPolicyRepo = userPolicyRepo;
+        this.dashboardCache = dashboardCache;
     }
 
     @GetMapping("/stats")
     public DashboardStats stats(@RequestParam(required = false) Long userId) {
+        return dashboardCache.get("dashboard-stats:" + (userId != null ? userId : "all"), null,
+                () -> buildStats(userId));
+    }
+
+    private DashboardStats buildStats(Long userId) {
 
         DashboardStats s = new DashboardStats();
 
@@ -1,8 +1,11 @@
 package com.insurai.controller;
 
 import com.insurai.dto.DashboardStats;
+import com.insurai.model.DashboardRollup;
 import com.insurai.model.User;
 import com.insurai.repository.*;
+import com.insurai.service.DashboardCache;
+import com.insurai.service.DashboardRollupService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +26,12 @@ public class EnterpriseDashboardController {
     @org.springframework.beans.factory.annotation.Autowired
     private CompanyRepository companyRepository;
 
+    @org.springframework.beans.factory.annotation.Autowired
+    private DashboardRollupService rollupService;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    private DashboardCache dashboardCache;
+
     public EnterpriseDashboardController(UserRepository userRepo, BookingRepository bookingRepo,
             PolicyRepository policyRepo, UserPolicyRepository userPolicyRepo,
             UserCompanyMapRepository userCompanyMapRepo) {
@@ -37,14 +46,19 @@ public class EnterpriseDashboardController {
     @GetMapping("/super-admin/dashboard")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
     public DashboardStats getSuperAdminStats() {
+        return dashboardCache.get("super-admin-dashboard", null, this::buildSuperAdminStats);
+    }
+
+    private DashboardStats buildSuperAdminStats() {
         DashboardStats stats = new DashboardStats();
 
         // Global Funnel
         stats.totalUsers = (int) userRepo.countByRole("USER");
         stats.funnelUsers = stats.totalUsers;
-        stats.funnelAppointments = (int) bookingRepo.count();
-        stats.funnelConsulted = (int) bookingRepo.countByStatus("COMPLETED"); // or COMPLETED + CONFIRMED?
-        stats.funnelApproved = (int) bookingRepo.countByStatus("APPROVED");
+        java.util.Map<String, Long> bookings = rollupService.countByStatus(DashboardRollup.BOOKING, null);
+        stats.funnelAppointments = (int) DashboardRollupService.total(bookings);
+        stats.funnelConsulted = (int) DashboardRollupService.total(bookings, "COMPLETED"); // or COMPLETED + CONFIRMED?
+        stats.funnelApproved = (int) DashboardRollupService.total(bookings, "APPROVED");
         stats.funnelIssued = (int) policyRepo.count();
         stats.totalPolicies = stats.funnelIssued;
 
@@ -69,6 +83,11 @@ public class EnterpriseDashboardController {
         }
 
         Long companyId = admin.getCompany().getId();
+        return dashboardCache.get("company-admin-dashboard:" + companyId, companyId,
+                () -> buildCompanyAdminStats(companyId));
+    }
+
+    private DashboardStats buildCompanyAdminStats(Long companyId) {
         DashboardStats stats = new DashboardStats();
 
         // Scope: Company Only
@@ -78,9 +97,10 @@ public class EnterpriseDashboardController {
 
         // Company Funnel
         stats.funnelUsers = stats.totalUsers;
-        stats.funnelAppointments = (int) bookingRepo.countByAgentCompanyId(companyId);
-        stats.funnelConsulted = (int) bookingRepo.countByAgentCompanyIdAndStatus(companyId, "COMPLETED");
-        stats.funnelApproved = (int) bookingRepo.countByAgentCompanyIdAndStatus(companyId, "APPROVED");
+        java.util.Map<String, Long> bookings = rollupService.countByStatus(DashboardRollup.BOOKING, companyId);
+        stats.funnelAppointments = (int) DashboardRollupService.total(bookings);
+        stats.funnelConsulted = (int) DashboardRollupService.total(bookings, "COMPLETED");
+        stats.funnelApproved = (int) DashboardRollupService.total(bookings, "APPROVED");
         stats.funnelIssued = stats.totalPolicies;
 
         // Company Fraud Alerts
@@ -125,4 +125,15 @@ public class PolicyController {
             @RequestBody com.insurai.dto.PolicyFilterRequest filter) {
         return policyService.getFilteredPolicies(userId, filter);
     }
+
+    // Paged faceted search for the plans page
+    @PostMapping("/search/{userId}")
+    public com.insurai.dto.PolicySearchResultDTO searchPolicies(
+            @PathVariable long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestBody(required = false) com.insurai.dto.PolicyFilterRequest filter) {
+        return policyService.searchPolicies(userId,
+                filter != null ? filter : new com.insurai.dto.PolicyFilterRequest(), page, size);
+    }
 }
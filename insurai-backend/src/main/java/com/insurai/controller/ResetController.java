@@ -34,6 +34,7 @@ public class ResetController {
     private final UserRepository userRepo;
     private final CompanyRepository companyRepo;
     private final DataSeeder dataSeeder;
+    private final com.insurai.service.PolicyCatalog policyCatalog;
 
     public ResetController(
             AuditLogRepository auditLogRepo,
@@ -45,7 +46,8 @@ public class ResetController {
             PolicyRepository policyRepo,
             UserRepository userRepo,
             CompanyRepository companyRepo,
-            DataSeeder dataSeeder) {
+            DataSeeder dataSeeder,
+            com.insurai.service.PolicyCatalog policyCatalog) {
         this.auditLogRepo = auditLogRepo;
         this.feedbackRepo = feedbackRepo;
         this.claimRepo = claimRepo;
@@ -56,6 +58,7 @@ public class ResetController {
         this.userRepo = userRepo;
         this.companyRepo = companyRepo;
         this.dataSeeder = dataSeeder;
+        this.policyCatalog = policyCatalog;
     }
 
     /**
@@ -94,6 +97,7 @@ public class ResetController {
 
             // Re-seed
             dataSeeder.run();
+            policyCatalog.refreshAfterCommit();
 
             result.put("success", true);
             result.put("message", "Database reset and reseeded successfully.");
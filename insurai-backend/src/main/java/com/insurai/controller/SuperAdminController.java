@@ -36,6 +36,9 @@ public class SuperAdminController {
     @Autowired
     private org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private com.insurai.service.PolicyCatalog policyCatalog;
+
     /**
      * Create a new company and its admin
      */
@@ -126,6 +129,7 @@ public class SuperAdminController {
         policy.setStatus("SUSPENDED");
         // Log reason if audit log exists
         policyRepository.save(policy);
+        policyCatalog.policyStatusChangedAfterCommit(policy.getId());
         return ResponseEntity.ok(Map.of("message", "Policy suspended", "policy", policy));
     }
 
@@ -139,6 +143,7 @@ public class SuperAdminController {
 
         policy.setStatus("ACTIVE");
         policyRepository.save(policy);
+        policyCatalog.policyStatusChangedAfterCommit(policy.getId());
         return ResponseEntity.ok(Map.of("message", "Policy enabled", "policy", policy));
     }
 
@@ -338,6 +343,18 @@ public class SuperAdminController {
     @Autowired
     private com.insurai.repository.ExceptionCaseRepository exceptionCaseRepository;
 
+    @Autowired
+    private com.insurai.service.DashboardRollupService rollupService;
+
+    @Autowired
+    private com.insurai.repository.DashboardRollupRepository rollupRepository;
+
+    @Autowired
+    private com.insurai.service.DashboardCache dashboardCache;
+
+    @Autowired
+    private com.insurai.service.DomainEventBus eventBus;
+
     @GetMapping("/dashboard-stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         List<Company> allCompanies = companyService.getAllCompanies();
@@ -349,23 +366,28 @@ public class SuperAdminController {
         long suspendedCompanies = allCompanies.stream().filter(c -> "SUSPENDED".equals(c.getStatus())).count();
 
         // 2. User & Agent Metrics (Global — only real end-user roles)
-        long totalUsers = userRepository.findByRole("USER").size();
-        long totalAgents = userRepository.findByRole("AGENT").size();
+        long totalUsers = userRepository.countByRole("USER");
+        long totalAgents = userRepository.countByRole("AGENT");
         long totalFeedback = feedbackRepository.count();
 
         // 3. Exception Cases & Fraud (Global)
-        long fraudAlerts = exceptionCaseRepository.count();
+        Map<String, Long> exceptionCases = rollupService
+                .countByStatus(com.insurai.model.DashboardRollup.EXCEPTION_CASE, null);
+        long fraudAlerts = com.insurai.service.DashboardRollupService.total(exceptionCases);
 
         // 4. Funnel Metrics (Global)
-        long totalBookings = bookingRepository.count();
-        long consulted = bookingRepository.findAll().stream()
-                .filter(b -> "COMPLETED".equals(b.getStatus()) || "APPROVED".equals(b.getStatus())
-                        || "REJECTED".equals(b.getStatus()))
-                .count();
-        long approved = bookingRepository.findAll().stream()
-                .filter(b -> "APPROVED".equals(b.getStatus()) || "COMPLETED".equals(b.getStatus())).count();
-        // Global Policies Issued (Count all UserPolicies)
-        long policiesIssued = userPolicyRepository.count();
+        Map<String, Long> bookings = rollupService.countByStatus(com.insurai.model.DashboardRollup.BOOKING, null);
+        long totalBookings = com.insurai.service.DashboardRollupService.total(bookings);
+        long consulted = com.insurai.service.DashboardRollupService.total(bookings, "COMPLETED", "APPROVED",
+                "REJECTED");
+        long approved = com.insurai.service.DashboardRollupService.total(bookings, "APPROVED", "COMPLETED");
+        // Global Policies Issued (Count all UserPolicies), per company for the governance panel
+        Map<Long, Long> policiesByCompany = new java.util.HashMap<>();
+        for (com.insurai.repository.DashboardRollupRepository.RollupSum row : rollupRepository
+                .sumByCompany(com.insurai.model.DashboardRollup.USER_POLICY)) {
+            policiesByCompany.put(row.getCompanyId(), row.getTotal());
+        }
+        long policiesIssued = policiesByCompany.values().stream().mapToLong(Long::longValue).sum();
 
         Map<String, Object> response = new java.util.HashMap<>();
 
@@ -391,7 +413,7 @@ public class SuperAdminController {
             cMap.put("status", c.getStatus());
 
             // Calculate specific counts
-            long cPolicies = userPolicyRepository.findByPolicyCompanyId(c.getId()).size();
+            long cPolicies = policiesByCompany.getOrDefault(c.getId(), 0L);
             long cAgents = userRepository.countByCompanyIdAndRole(c.getId(), "AGENT"); // Assuming method exists or
                                                                                        // stream filter if not
             // Fallback for missing repo method:
@@ -436,30 +458,38 @@ public class SuperAdminController {
                 "dbLoad", "Normal",
                 "uptime", 99.8));
 
-        // Agent Leaderboard — derived from real bookings
-        List<com.insurai.model.Booking> allBookings = bookingRepository.findAll();
-        java.util.Map<com.insurai.model.User, java.util.List<com.insurai.model.Booking>> byAgent = allBookings.stream()
-                .filter(b -> b.getAgent() != null)
-                .collect(java.util.stream.Collectors.groupingBy(com.insurai.model.Booking::getAgent));
-
-        List<Map<String, Object>> leaderboard = byAgent.entrySet().stream()
-                .map(entry -> {
-                    com.insurai.model.User agent = entry.getKey();
-                    java.util.List<com.insurai.model.Booking> bList = entry.getValue();
-                    long approvals = bList.stream()
-                            .filter(b -> "APPROVED".equals(b.getStatus()) || "COMPLETED".equals(b.getStatus())).count();
-                    int approvalPct = bList.isEmpty() ? 0 : (int) ((approvals * 100) / bList.size());
-                    Map<String, Object> m = new java.util.HashMap<>();
-                    m.put("name", agent.getName());
-                    m.put("company", agent.getCompany() != null ? agent.getCompany().getName() : "—");
-                    m.put("approval", approvalPct);
-                    m.put("avgTime", "15 mins");
-                    m.put("total", bList.size());
-                    return m;
-                })
-                .sorted((a, b) -> Integer.compare((int) b.get("approval"), (int) a.get("approval")))
+        // Agent Leaderboard — derived from the per-agent booking rollups
+        Map<Long, long[]> byAgent = new java.util.HashMap<>(); // agentId -> {total, approvals}
+        for (com.insurai.repository.DashboardRollupRepository.RollupSum row : rollupRepository
+                .sumByAgentAndStatus(com.insurai.model.DashboardRollup.BOOKING, null)) {
+            long[] counts = byAgent.computeIfAbsent(row.getAgentId(), id -> new long[2]);
+            counts[0] += row.getTotal();
+            if ("APPROVED".equals(row.getStatus()) || "COMPLETED".equals(row.getStatus()))
+                counts[1] += row.getTotal();
+        }
+        List<Map.Entry<Long, long[]>> top = byAgent.entrySet().stream()
+                .filter(e -> e.getValue()[0] > 0)
+                .sorted((a, b) -> Long.compare(b.getValue()[1] * 100 / b.getValue()[0],
+                        a.getValue()[1] * 100 / a.getValue()[0]))
                 .limit(5)
                 .collect(java.util.stream.Collectors.toList());
+        Map<Long, User> agents = userRepository.findAllById(top.stream().map(Map.Entry::getKey).toList())
+                .stream().collect(java.util.stream.Collectors.toMap(User::getId, u -> u));
+
+        List<Map<String, Object>> leaderboard = new java.util.ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : top) {
+            User agent = agents.get(entry.getKey());
+            if (agent == null)
+                continue;
+            long total = entry.getValue()[0];
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("name", agent.getName());
+            m.put("company", agent.getCompany() != null ? agent.getCompany().getName() : "—");
+            m.put("approval", (int) ((entry.getValue()[1] * 100) / total));
+            m.put("avgTime", "15 mins");
+            m.put("total", total);
+            leaderboard.add(m);
+        }
 
         // Add rank field
         for (int i = 0; i < leaderboard.size(); i++) {
@@ -470,6 +500,40 @@ public class SuperAdminController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Recompute the dashboard rollups from the raw tables (backfill / repair)
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        int rows = rollupService.rebuild();
+        return ResponseEntity.ok(Map.of("rollupRows", rows));
+    }
+
+    /**
+     * Dashboard cache hit/miss/coalesce counters
+     */
+    @GetMapping("/dashboard-cache")
+    public ResponseEntity<Map<String, Object>> getDashboardCacheStats() {
+        return ResponseEntity.ok(dashboardCache.stats());
+    }
+
+    /**
+     * Drop all cached dashboard responses
+     */
+    @DeleteMapping("/dashboard-cache")
+    public ResponseEntity<Map<String, Object>> clearDashboardCache() {
+        dashboardCache.invalidateAll();
+        return ResponseEntity.ok(dashboardCache.stats());
+    }
+
+    /**
+     * Domain event counters and handler queue depths
+     */
+    @GetMapping("/event-bus")
+    public ResponseEntity<Map<String, Object>> getEventBusStats() {
+        return ResponseEntity.ok(eventBus.stats());
+    }
+
     /**
      * Get system-wide statistics (Legacy)
      */
@@ -12,10 +12,16 @@ public class UserController {
 
     private final UserRepository userRepo;
     private final com.insurai.repository.CompanyRepository companyRepo;
+    private final com.insurai.service.RecommendationCache recommendationCache;
+    private final com.insurai.service.FraudFeatureStore fraudFeatureStore;
 
-    public UserController(UserRepository userRepo, com.insurai.repository.CompanyRepository companyRepo) {
+    public UserController(UserRepository userRepo, com.insurai.repository.CompanyRepository companyRepo,
+            com.insurai.service.RecommendationCache recommendationCache,
+            com.insurai.service.FraudFeatureStore fraudFeatureStore) {
         this.userRepo = userRepo;
         this.companyRepo = companyRepo;
+        this.recommendationCache = recommendationCache;
+        this.fraudFeatureStore = fraudFeatureStore;
     }
 
     @GetMapping
@@ -47,7 +53,15 @@ public class UserController {
             if (updates.getBio() != null)
                 user.setBio(updates.getBio());
 
-            return ResponseEntity.ok(userRepo.save(java.util.Objects.requireNonNull(user)));
+            User saved = userRepo.save(java.util.Objects.requireNonNull(user));
+            fraudFeatureStore.onProfileUpdated(saved);
+
+            // Age, income, dependents and health feed recommendation scoring
+            if (updates.getAge() != null || updates.getIncome() != null
+                    || updates.getDependents() != null || updates.getHealthInfo() != null) {
+                recommendationCache.invalidateUser(saved.getId());
+            }
+            return ResponseEntity.ok(saved);
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -82,7 +96,9 @@ public class UserController {
                 user.setPhone(updates.getPhone());
             // ... can add others if needed
 
-            return ResponseEntity.ok(userRepo.save(java.util.Objects.requireNonNull(user)));
+            User saved = userRepo.save(java.util.Objects.requireNonNull(user));
+            fraudFeatureStore.onProfileUpdated(saved);
+            return ResponseEntity.ok(saved);
         }).orElse(ResponseEntity.notFound().build());
     }
 
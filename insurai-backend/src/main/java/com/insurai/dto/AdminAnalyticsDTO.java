@@ -23,6 +23,10 @@ public class AdminAnalyticsDTO {
     // Drop-off Analysis
     private DropOffAnalysis dropOffAnalysis;
 
+    // Set when some sections missed their deadline or failed; those sections are null
+    private boolean partial;
+    private java.util.List<String> unavailableSections = new java.util.ArrayList<>();
+
     // ----- Nested Classes -----
 
     public static class FunnelMetrics {
@@ -460,4 +464,20 @@ public class AdminAnalyticsDTO {
     public void setDropOffAnalysis(DropOffAnalysis dropOffAnalysis) {
         this.dropOffAnalysis = dropOffAnalysis;
     }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    public java.util.List<String> getUnavailableSections() {
+        return unavailableSections;
+    }
+
+    public void setUnavailableSections(java.util.List<String> unavailableSections) {
+        this.unavailableSections = unavailableSections;
+    }
 }
@@ -0,0 +1,56 @@
+package com.insurai.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bookable slot returned by the availability search
+ */
+public class AvailableSlotDTO {
+
+    private Long agentId;
+    private String agentName;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    public AvailableSlotDTO() {
+    }
+
+    public AvailableSlotDTO(Long agentId, String agentName, LocalDateTime start, LocalDateTime end) {
+        this.agentId = agentId;
+        this.agentName = agentName;
+        this.start = start;
+        this.end = end;
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(Long agentId) {
+        this.agentId = agentId;
+    }
+
+    public String getAgentName() {
+        return agentName;
+    }
+
+    public void setAgentName(String agentName) {
+        this.agentName = agentName;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public void setEnd(LocalDateTime end) {
+        this.end = end;
+    }
+}
@@ -0,0 +1,37 @@
+package com.insurai.dto;
+
+import java.util.List;
+
+/**
+ * Request DTO for deciding many bookings at once
+ */
+public class BulkBookingDecisionRequest {
+    private List<Long> bookingIds;
+    private String status; // APPROVED or REJECTED
+    private String reason; // Required for REJECTED, applied to every booking
+
+    // Getters and Setters
+    public List<Long> getBookingIds() {
+        return bookingIds;
+    }
+
+    public void setBookingIds(List<Long> bookingIds) {
+        this.bookingIds = bookingIds;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,107 @@
+package com.insurai.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response DTO for bulk booking decisions: one result per requested booking
+ */
+public class BulkBookingDecisionResponse {
+    private String status;
+    private int requested;
+    private int applied;
+    private int failed;
+    private List<Item> results = new ArrayList<>();
+
+    // Nested class for per-booking outcome
+    public static class Item {
+        private Long bookingId;
+        private boolean success;
+        private String status; // Booking status after the request
+        private String error;
+
+        public Item() {
+        }
+
+        public Item(Long bookingId, boolean success, String status, String error) {
+            this.bookingId = bookingId;
+            this.success = success;
+            this.status = status;
+            this.error = error;
+        }
+
+        // Getters and Setters
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        public void setBookingId(Long bookingId) {
+            this.bookingId = bookingId;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results;
+    }
+}
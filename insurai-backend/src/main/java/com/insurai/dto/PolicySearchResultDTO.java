@@ -0,0 +1,75 @@
+package com.insurai.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Policy Search Result DTO
+ * One page of filtered policies plus facet counts for the plans page
+ */
+public class PolicySearchResultDTO {
+    private List<PolicyRecommendationDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private Map<String, Long> typeFacets;
+    private Map<String, Long> categoryFacets;
+
+    // Getters and Setters
+    public List<PolicyRecommendationDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<PolicyRecommendationDTO> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public Map<String, Long> getTypeFacets() {
+        return typeFacets;
+    }
+
+    public void setTypeFacets(Map<String, Long> typeFacets) {
+        this.typeFacets = typeFacets;
+    }
+
+    public Map<String, Long> getCategoryFacets() {
+        return categoryFacets;
+    }
+
+    public void setCategoryFacets(Map<String, Long> categoryFacets) {
+        this.categoryFacets = categoryFacets;
+    }
+}
@@ -0,0 +1,57 @@
+package com.insurai.dto;
+
+import java.util.List;
+
+/**
+ * Risk Assessment Batch Request DTO
+ * Either an explicit list of policy ids, or a filter plus page that selects
+ * the same policies the plans page shows
+ */
+public class RiskAssessmentBatchRequest {
+    private Long userId;
+    private List<Long> policyIds;
+    private PolicyFilterRequest filter;
+    private Integer page;
+    private Integer size;
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public List<Long> getPolicyIds() {
+        return policyIds;
+    }
+
+    public void setPolicyIds(List<Long> policyIds) {
+        this.policyIds = policyIds;
+    }
+
+    public PolicyFilterRequest getFilter() {
+        return filter;
+    }
+
+    public void setFilter(PolicyFilterRequest filter) {
+        this.filter = filter;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,66 @@
+package com.insurai.event;
+
+import com.insurai.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Domain Events
+ * Facts about completed writes, published after the transaction commits and
+ * handled off the request thread (audit, in-app notifications, email).
+ * Events carry what the handlers need so they never reload the entity.
+ */
+public sealed interface DomainEvent {
+
+    record BookingCreated(Long bookingId, User user, User agent, String bookingType, LocalDateTime startTime,
+            String reason) implements DomainEvent {
+    }
+
+    record BookingRescheduled(Long bookingId, User user, User agent, LocalDateTime startTime)
+            implements DomainEvent {
+    }
+
+    /** Status set directly by an agent or admin (BookingService.updateStatus) */
+    record BookingStatusChanged(Long bookingId, User user, User agent, String status, String meetingLink)
+            implements DomainEvent {
+    }
+
+    record BookingConfirmed(Long bookingId, User user, User agent, LocalDateTime appointmentTime)
+            implements DomainEvent {
+    }
+
+    record BookingCompleted(Long bookingId, User user) implements DomainEvent {
+    }
+
+    record BookingPolicyIssued(Long bookingId, User user) implements DomainEvent {
+    }
+
+    record BookingRejected(Long bookingId, User user, String rejectionReason) implements DomainEvent {
+    }
+
+    record BookingCancelled(Long bookingId, User agent, Long cancelledBy) implements DomainEvent {
+    }
+
+    /** Many bookings moved to one status in a single request (bulk decision API) */
+    record BookingsDecided(User actor, String status, String reason, List<Decided> bookings)
+            implements DomainEvent {
+
+        public record Decided(Long bookingId, User user, String previousStatus) {
+        }
+    }
+
+    /** Deadline passed without the booking moving on (BookingExpiryScheduler) */
+    record BookingExpired(Long bookingId, User user, User agent, String previousStatus, boolean slaBreached)
+            implements DomainEvent {
+    }
+
+    record SlotBlocked(Long bookingId, Long agentId) implements DomainEvent {
+    }
+
+    record ClaimFiled(Long claimId, Long userId) implements DomainEvent {
+    }
+
+    record ClaimStatusChanged(Long claimId, User user, String status) implements DomainEvent {
+    }
+}
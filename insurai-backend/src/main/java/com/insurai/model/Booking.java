@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "booking") // 👈 REQUIRED
+@Table(name = "booking", indexes = {
+        @Index(name = "idx_booking_status_start", columnList = "status, start_time"),
+        @Index(name = "idx_booking_status_created", columnList = "status, created_at") }) // 👈 REQUIRED
 public class Booking {
 
     @Id
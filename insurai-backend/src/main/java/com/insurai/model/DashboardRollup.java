@@ -0,0 +1,122 @@
+package com.insurai.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Dashboard Rollup Entity
+ * Pre-aggregated row count and amount per creation day, company, agent and
+ * status for one kind of record, so dashboards read a few hundred rollup rows
+ * instead of the raw history
+ */
+@Entity
+@Table(name = "dashboard_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_dashboard_rollup", columnNames = {
+        "metric", "day", "company_id", "agent_id", "status", "bucket" }))
+public class DashboardRollup {
+
+    public static final String BOOKING = "BOOKING";
+    public static final String USER_POLICY = "USER_POLICY";
+    public static final String CLAIM = "CLAIM";
+    public static final String EXCEPTION_CASE = "EXCEPTION_CASE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String metric; // BOOKING, USER_POLICY, CLAIM, EXCEPTION_CASE
+
+    @Column(nullable = false)
+    private LocalDate day; // Day the record was created
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId; // 0 = no company
+
+    @Column(name = "agent_id", nullable = false)
+    private Long agentId; // 0 = no agent
+
+    @Column(nullable = false, length = 64)
+    private String status;
+
+    @Column(nullable = false, length = 64)
+    private String bucket; // Workflow status, claim risk band or case priority
+
+    @Column(nullable = false)
+    private Long total;
+
+    @Column(nullable = false)
+    private Double amount; // Premium or claim amount
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public Long getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(Long companyId) {
+        this.companyId = companyId;
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(Long agentId) {
+        this.agentId = agentId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(String bucket) {
+        this.bucket = bucket;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,70 @@
+package com.insurai.model;
+
+/**
+ * Health Condition Flags
+ * Bitmask of conditions found in a user's free-text health info, parsed once
+ * when the profile is written so risk paths never scan the text on read
+ */
+public final class HealthFlags {
+
+    public static final int DIABETES = 1;
+    public static final int HEART = 1 << 1;
+    public static final int CANCER = 1 << 2;
+    public static final int SMOKER = 1 << 3;
+    public static final int CHRONIC = 1 << 4;
+    public static final int DISEASE = 1 << 5;
+
+    /** Conditions treated as pre-existing for eligibility */
+    public static final int PRE_EXISTING = DIABETES | HEART | CANCER;
+
+    private HealthFlags() {
+    }
+
+    /**
+     * Flags for a health info text (keyword match, case-insensitive)
+     */
+    public static int parse(String healthInfo) {
+        if (healthInfo == null || healthInfo.isEmpty()) {
+            return 0;
+        }
+        String text = healthInfo.toLowerCase();
+        int flags = 0;
+        if (text.contains("diabetes"))
+            flags |= DIABETES;
+        if (text.contains("heart"))
+            flags |= HEART;
+        if (text.contains("cancer"))
+            flags |= CANCER;
+        if (text.contains("smoker"))
+            flags |= SMOKER;
+        if (text.contains("chronic"))
+            flags |= CHRONIC;
+        if (text.contains("disease"))
+            flags |= DISEASE;
+        return flags;
+    }
+
+    /**
+     * Policy-independent health component of the risk assessment score
+     */
+    public static int riskScore(int flags) {
+        int score = 0;
+        if (has(flags, DIABETES))
+            score += 25;
+        if (has(flags, HEART))
+            score += 30;
+        if (has(flags, CANCER))
+            score += 35;
+        if (has(flags, SMOKER))
+            score += 20;
+        return score;
+    }
+
+    public static boolean has(int flags, int flag) {
+        return (flags & flag) != 0;
+    }
+
+    public static boolean hasAny(int flags, int mask) {
+        return (flags & mask) != 0;
+    }
+}
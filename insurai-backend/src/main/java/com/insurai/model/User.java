@@ -33,6 +33,12 @@ public class User {
     private String healthInfo;
     private String address;
 
+    // Derived from healthInfo whenever it is set, see HealthFlags
+    @com.fasterxml.jackson.annotation.JsonProperty(access = com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY)
+    private Integer healthFlags;
+    @com.fasterxml.jackson.annotation.JsonProperty(access = com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY)
+    private Integer healthRiskScore;
+
     // Agent Specific Fields
     private Double rating = 4.5; // Default 4.5 stars
     private String specialization; // Health, Life, Motor
@@ -40,9 +46,11 @@ public class User {
 
     // Agent Governance Fields
     @ElementCollection
+    @org.hibernate.annotations.BatchSize(size = 100) // Governance lists load these for many agents at once
     private java.util.List<String> assignedRegions = new java.util.ArrayList<>(); // Regions agent can serve
 
     @ElementCollection
+    @org.hibernate.annotations.BatchSize(size = 100)
     private java.util.List<String> assignedPolicyTypes = new java.util.ArrayList<>(); // Policy types agent can handle
 
     private String deactivationReason; // Reason for deactivation (if isActive = false)
@@ -194,6 +202,17 @@ public class User {
 
     public void setHealthInfo(String healthInfo) {
         this.healthInfo = healthInfo;
+        this.healthFlags = HealthFlags.parse(healthInfo);
+        this.healthRiskScore = HealthFlags.riskScore(healthFlags);
+    }
+
+    public int getHealthFlags() {
+        // Rows saved before the column existed are parsed until their next write
+        return healthFlags != null ? healthFlags : HealthFlags.parse(healthInfo);
+    }
+
+    public int getHealthRiskScore() {
+        return healthRiskScore != null ? healthRiskScore : HealthFlags.riskScore(getHealthFlags());
     }
 
     public String getAddress() {
@@ -2,7 +2,6 @@ package com.insurai.repository;
 
 import com.insurai.model.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -24,6 +23,38 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end);
 
+    // Agent schedule index: an agent's bookings that still occupy time, as bare intervals
+    @Query("""
+                SELECT b.id AS id, b.startTime AS startTime, b.endTime AS endTime
+                FROM Booking b
+                WHERE b.agent.id = :agentId
+                AND b.endTime > :since
+                AND b.startTime IS NOT NULL
+                AND b.status NOT IN ('CANCELLED', 'REJECTED', 'EXPIRED')
+            """)
+    List<BookingInterval> findScheduleIntervals(@Param("agentId") Long agentId, @Param("since") LocalDateTime since);
+
+    interface BookingInterval {
+        Long getId();
+
+        LocalDateTime getStartTime();
+
+        LocalDateTime getEndTime();
+    }
+
+    // Bulk decisions: lock the bookings in id order (no deadlocks between overlapping batches), then load them
+    @Query(value = "SELECT b.id FROM booking b WHERE b.id IN (:ids) ORDER BY b.id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIds(@Param("ids") java.util.Collection<Long> ids);
+
+    @Query("""
+                SELECT b FROM Booking b
+                LEFT JOIN FETCH b.user
+                LEFT JOIN FETCH b.agent
+                LEFT JOIN FETCH b.policy
+                WHERE b.id IN :ids
+            """)
+    List<Booking> findAllWithPartiesByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
     List<Booking> findByUserId(Long id);
 
     List<Booking> findByAgentId(Long id);
@@ -50,23 +81,65 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end);
 
-    @Modifying
+    // Booking expiry: every open booking with the fields its deadline depends on (status index)
     @Query("""
-            UPDATE Booking b
-            SET b.status = 'EXPIRED'
-            WHERE b.status = 'PENDING'
-            AND b.startTime < :now
+                SELECT b.id AS id, b.status AS status, b.createdAt AS createdAt,
+                       b.startTime AS startTime, b.endTime AS endTime
+                FROM Booking b
+                WHERE b.status IN ('PENDING', 'APPROVED', 'CONFIRMED')
             """)
-    int expirePending(@Param("now") LocalDateTime now);
+    List<ExpiryCandidate> findExpiryCandidates();
 
-    @Modifying
+    // Booking expiry safety net: open bookings already past their deadline
     @Query("""
-            UPDATE Booking b
-            SET b.status = 'EXPIRED'
-            WHERE b.status = 'APPROVED'
-            AND b.endTime < :now
+                SELECT b.id FROM Booking b
+                WHERE (b.status = 'PENDING' AND (b.startTime < :now OR b.createdAt < :pendingCreatedBefore))
+                OR (b.status = 'APPROVED' AND b.endTime < :now)
+                OR (b.status = 'CONFIRMED' AND b.startTime < :confirmedStartBefore)
             """)
-    int expireUnattended(@Param("now") LocalDateTime now);
+    List<Long> findOverdueIds(@Param("now") LocalDateTime now,
+            @Param("pendingCreatedBefore") LocalDateTime pendingCreatedBefore,
+            @Param("confirmedStartBefore") LocalDateTime confirmedStartBefore);
+
+    interface ExpiryCandidate {
+        Long getId();
+
+        String getStatus();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getStartTime();
+
+        LocalDateTime getEndTime();
+    }
+
+    // Admin SLA panel: open requests (optionally for one agent company) and the ones near or past the 24h SLA
+    @Query("""
+                SELECT COUNT(b) FROM Booking b
+                WHERE b.status IN ('PENDING', 'CONFIRMED')
+                AND (:companyId IS NULL OR b.agent.company.id = :companyId)
+            """)
+    long countOpenForSla(@Param("companyId") Long companyId);
+
+    @Query("""
+                SELECT b.id AS id, b.createdAt AS createdAt, a.name AS agentName
+                FROM Booking b
+                LEFT JOIN b.agent a
+                WHERE b.status IN ('PENDING', 'CONFIRMED')
+                AND b.createdAt < :createdBefore
+                AND (:companyId IS NULL OR a.company.id = :companyId)
+                ORDER BY b.createdAt
+            """)
+    List<SlaCandidate> findOpenCreatedBefore(@Param("companyId") Long companyId,
+            @Param("createdBefore") LocalDateTime createdBefore);
+
+    interface SlaCandidate {
+        Long getId();
+
+        LocalDateTime getCreatedAt();
+
+        String getAgentName();
+    }
 
     @Query("SELECT b FROM Booking b WHERE b.status = 'APPROVED' AND b.startTime BETWEEN :start AND :end")
     List<Booking> findApprovedBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
@@ -83,4 +156,147 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     long countByCompletedAtIsNotNull();
 
     long countByAgentCompanyIdAndCompletedAtIsNotNull(Long companyId);
+
+    // Fraud feature extraction: one row per user instead of per-user lookups
+    @Query("""
+            SELECT b.user.id AS userId,
+                   COUNT(b) AS total,
+                   SUM(CASE WHEN b.createdAt > :recentSince THEN 1 ELSE 0 END) AS recent,
+                   SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END) AS rejected,
+                   SUM(CASE WHEN b.status = 'CANCELLED' THEN 1 ELSE 0 END) AS cancelled
+            FROM Booking b
+            WHERE b.user IS NOT NULL
+            GROUP BY b.user.id
+            """)
+    List<UserBookingStats> aggregateBookingStatsByUser(@Param("recentSince") LocalDateTime recentSince);
+
+    // Smallest gap in minutes between consecutive bookings (id order), per user with 2+ bookings
+    @Query(value = """
+            SELECT g.user_id AS userId,
+                   MIN(TIMESTAMPDIFF(MINUTE, g.prev_created_at, g.created_at)) AS minGapMinutes
+            FROM (
+                SELECT user_id, created_at,
+                       LAG(created_at) OVER (PARTITION BY user_id ORDER BY id) AS prev_created_at
+                FROM booking
+                WHERE user_id IS NOT NULL
+            ) g
+            WHERE g.prev_created_at IS NOT NULL AND g.created_at IS NOT NULL
+            GROUP BY g.user_id
+            """, nativeQuery = true)
+    List<UserBookingGap> findMinBookingGapByUser();
+
+    @Query("SELECT DISTINCT b.user.id FROM Booking b WHERE b.agent.company.id = :companyId AND b.user IS NOT NULL")
+    List<Long> findUserIdsByAgentCompanyId(@Param("companyId") Long companyId);
+
+    interface UserBookingStats {
+        Long getUserId();
+
+        Long getTotal();
+
+        Long getRecent();
+
+        Long getRejected();
+
+        Long getCancelled();
+    }
+
+    interface UserBookingGap {
+        Long getUserId();
+
+        Long getMinGapMinutes();
+    }
+
+    // Admin analytics: bookings handled by one company's agents, or all bookings when companyId is null
+    @Query("""
+            SELECT COUNT(b)
+            FROM Booking b
+            LEFT JOIN b.agent a
+            WHERE b.slaBreached = true
+            AND (:companyId IS NULL OR a.company.id = :companyId)
+            """)
+    long countSlaBreaches(@Param("companyId") Long companyId);
+
+    @Query("""
+            SELECT a.id AS agentId, COUNT(b) AS total
+            FROM Booking b
+            JOIN b.agent a
+            WHERE b.slaBreached = true
+            AND a.role = 'AGENT'
+            AND (:companyId IS NULL OR a.company.id = :companyId)
+            GROUP BY a.id
+            """)
+    List<AgentCount> countSlaBreachesByAgent(@Param("companyId") Long companyId);
+
+    // Whole hours from creation to first response, truncated like ChronoUnit.HOURS.between
+    @Query(value = """
+            SELECT AVG(TIMESTAMPDIFF(HOUR, b.created_at, b.responded_at))
+            FROM booking b
+            LEFT JOIN users a ON a.id = b.agent_id
+            WHERE b.responded_at IS NOT NULL
+            AND (:companyId IS NULL OR a.company_id = :companyId)
+            """, nativeQuery = true)
+    Double averageResponseHours(@Param("companyId") Long companyId);
+
+    // Agent ranking index seed: per-agent booking counts and response minutes, same rules as the leaderboard
+    @Query(value = """
+            SELECT b.agent_id AS agentId,
+                   a.company_id AS companyId,
+                   COUNT(*) AS total,
+                   SUM(CASE WHEN b.status = 'COMPLETED' THEN 1 ELSE 0 END) AS completed,
+                   SUM(CASE WHEN b.status IN ('APPROVED', 'COMPLETED') THEN 1 ELSE 0 END) AS approved,
+                   SUM(CASE WHEN b.created_at <= COALESCE(b.responded_at, b.reviewed_at, b.completed_at)
+                       THEN TIMESTAMPDIFF(MINUTE, b.created_at, COALESCE(b.responded_at, b.reviewed_at, b.completed_at))
+                       ELSE 0 END) AS responseMinutes,
+                   SUM(CASE WHEN b.created_at <= COALESCE(b.responded_at, b.reviewed_at, b.completed_at)
+                       THEN 1 ELSE 0 END) AS responses
+            FROM booking b
+            JOIN users a ON a.id = b.agent_id
+            WHERE a.role = 'AGENT'
+            GROUP BY b.agent_id, a.company_id
+            """, nativeQuery = true)
+    List<AgentRankingRow> aggregateAgentRankingRows();
+
+    // Agent governance: booking counts for a batch of agents in one pass
+    @Query("""
+            SELECT b.agent.id AS agentId,
+                   COUNT(b) AS total,
+                   SUM(CASE WHEN b.status = 'PENDING' THEN 1 ELSE 0 END) AS pending,
+                   SUM(CASE WHEN b.slaBreached = true THEN 1 ELSE 0 END) AS slaBreaches
+            FROM Booking b
+            WHERE b.agent.id IN :agentIds
+            GROUP BY b.agent.id
+            """)
+    List<AgentBookingCounts> countGovernanceByAgentIds(@Param("agentIds") java.util.Collection<Long> agentIds);
+
+    interface AgentBookingCounts {
+        Long getAgentId();
+
+        Long getTotal();
+
+        Long getPending();
+
+        Long getSlaBreaches();
+    }
+
+    interface AgentRankingRow {
+        Long getAgentId();
+
+        Long getCompanyId();
+
+        Long getTotal();
+
+        Long getCompleted();
+
+        Long getApproved();
+
+        Long getResponseMinutes();
+
+        Long getResponses();
+    }
+
+    interface AgentCount {
+        Long getAgentId();
+
+        Long getTotal();
+    }
 }
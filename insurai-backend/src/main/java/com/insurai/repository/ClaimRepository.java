@@ -4,6 +4,11 @@ import com.insurai.model.Claim;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
 import java.util.List;
 
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
@@ -18,4 +23,47 @@ public interface ClaimRepository extends JpaRepository<Claim, Long> {
     List<Claim> findByPolicyCompanyId(Long companyId);
 
     List<Claim> findByPolicyNameIn(List<String> policyNames);
+
+    // Fraud feature extraction: claim counts for every user in one grouped query
+    @Query("SELECT c.user.id AS userId, COUNT(c) AS total FROM Claim c WHERE c.user IS NOT NULL GROUP BY c.user.id")
+    List<UserClaimCount> countClaimsByUser();
+
+    interface UserClaimCount {
+        Long getUserId();
+
+        Long getTotal();
+    }
+
+    // Keyset-paged claim fields needed for fraud re-scoring, optionally for one company
+    @Query("""
+            SELECT c.id AS id, c.amount AS amount, c.description AS description, c.status AS status,
+                   c.fraudScore AS fraudScore, c.successProbability AS successProbability,
+                   c.nextAction AS nextAction, c.docsUploadedAt AS docsUploadedAt
+            FROM Claim c
+            LEFT JOIN c.policy p
+            LEFT JOIN p.company co
+            WHERE c.id > :afterId
+            AND (:companyId IS NULL OR co.id = :companyId)
+            ORDER BY c.id
+            """)
+    List<ClaimScoringRow> findScoringRowsAfter(@Param("afterId") Long afterId, @Param("companyId") Long companyId,
+            Pageable pageable);
+
+    interface ClaimScoringRow {
+        Long getId();
+
+        Double getAmount();
+
+        String getDescription();
+
+        String getStatus();
+
+        Double getFraudScore();
+
+        Integer getSuccessProbability();
+
+        String getNextAction();
+
+        LocalDateTime getDocsUploadedAt();
+    }
 }
@@ -0,0 +1,77 @@
+package com.insurai.repository;
+
+import com.insurai.model.DashboardRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DashboardRollupRepository extends JpaRepository<DashboardRollup, Long> {
+
+    // All reads take an optional company (null = platform-wide)
+
+    @Query("""
+            SELECT r.status AS status, SUM(r.total) AS total, SUM(r.amount) AS amount
+            FROM DashboardRollup r
+            WHERE r.metric = :metric
+            AND (:companyId IS NULL OR r.companyId = :companyId)
+            GROUP BY r.status
+            """)
+    List<RollupSum> sumByStatus(@Param("metric") String metric, @Param("companyId") Long companyId);
+
+    @Query("""
+            SELECT r.status AS status, r.bucket AS bucket, SUM(r.total) AS total, SUM(r.amount) AS amount
+            FROM DashboardRollup r
+            WHERE r.metric = :metric
+            AND (:companyId IS NULL OR r.companyId = :companyId)
+            GROUP BY r.status, r.bucket
+            """)
+    List<RollupSum> sumByStatusAndBucket(@Param("metric") String metric, @Param("companyId") Long companyId);
+
+    @Query("""
+            SELECT r.companyId AS companyId, SUM(r.total) AS total, SUM(r.amount) AS amount
+            FROM DashboardRollup r
+            WHERE r.metric = :metric
+            GROUP BY r.companyId
+            """)
+    List<RollupSum> sumByCompany(@Param("metric") String metric);
+
+    @Query("""
+            SELECT r.agentId AS agentId, r.status AS status, SUM(r.total) AS total
+            FROM DashboardRollup r
+            WHERE r.metric = :metric
+            AND r.agentId <> 0
+            AND (:companyId IS NULL OR r.companyId = :companyId)
+            GROUP BY r.agentId, r.status
+            """)
+    List<RollupSum> sumByAgentAndStatus(@Param("metric") String metric, @Param("companyId") Long companyId);
+
+    @Query("""
+            SELECT r.day AS day, SUM(r.total) AS total, SUM(r.amount) AS amount
+            FROM DashboardRollup r
+            WHERE r.metric = :metric
+            AND r.day >= :since
+            AND (:companyId IS NULL OR r.companyId = :companyId)
+            GROUP BY r.day
+            """)
+    List<RollupSum> sumByDaySince(@Param("metric") String metric, @Param("companyId") Long companyId,
+            @Param("since") LocalDate since);
+
+    interface RollupSum {
+        String getStatus();
+
+        String getBucket();
+
+        Long getCompanyId();
+
+        Long getAgentId();
+
+        LocalDate getDay();
+
+        Long getTotal();
+
+        Double getAmount();
+    }
+}
@@ -46,4 +46,22 @@ public interface ExceptionCaseRepository extends JpaRepository<ExceptionCase, Lo
         List<ExceptionCase> findByCaseTypeAndCompanyId(
                         @org.springframework.data.repository.query.Param("caseType") String caseType,
                         @org.springframework.data.repository.query.Param("companyId") Long companyId);
+
+        // Agent governance: case counts per agent and type for a batch of agents
+        @org.springframework.data.jpa.repository.Query("""
+                        SELECT ec.agent.id AS agentId, ec.caseType AS caseType, COUNT(ec) AS total
+                        FROM ExceptionCase ec
+                        WHERE ec.agent.id IN :agentIds
+                        GROUP BY ec.agent.id, ec.caseType
+                        """)
+        List<AgentCaseCount> countByAgentIdsAndCaseType(
+                        @org.springframework.data.repository.query.Param("agentIds") java.util.Collection<Long> agentIds);
+
+        interface AgentCaseCount {
+                Long getAgentId();
+
+                String getCaseType();
+
+                Long getTotal();
+        }
 }
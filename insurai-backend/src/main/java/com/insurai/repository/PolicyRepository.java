@@ -2,6 +2,8 @@ package com.insurai.repository;
 
 import com.insurai.model.Policy;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PolicyRepository extends JpaRepository<Policy, Long> {
     java.util.List<Policy> findByStatusAndCompany_Status(String status, String companyStatus);
@@ -9,4 +11,27 @@ public interface PolicyRepository extends JpaRepository<Policy, Long> {
     java.util.List<Policy> findByCompanyId(Long companyId);
 
     long countByCompanyId(Long companyId);
+
+    // Admin analytics: catalog counts grouped by type and by category, optionally for one company
+    @Query("""
+            SELECT p.type AS label, COUNT(p) AS total
+            FROM Policy p
+            WHERE (:companyId IS NULL OR p.company.id = :companyId)
+            GROUP BY p.type
+            """)
+    java.util.List<LabelCount> countByType(@Param("companyId") Long companyId);
+
+    @Query("""
+            SELECT p.category AS label, COUNT(p) AS total
+            FROM Policy p
+            WHERE (:companyId IS NULL OR p.company.id = :companyId)
+            GROUP BY p.category
+            """)
+    java.util.List<LabelCount> countByCategory(@Param("companyId") Long companyId);
+
+    interface LabelCount {
+        String getLabel();
+
+        Long getTotal();
+    }
 }
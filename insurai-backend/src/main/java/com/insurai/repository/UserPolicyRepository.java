@@ -4,6 +4,10 @@ import com.insurai.model.UserPolicy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UserPolicyRepository extends JpaRepository<UserPolicy, Long> {
@@ -30,4 +34,132 @@ public interface UserPolicyRepository extends JpaRepository<UserPolicy, Long> {
     long countByPolicyCompanyIdAndStatus(Long companyId, String status);
 
     long countByPolicyCompanyIdAndWorkflowStatus(Long companyId, String workflowStatus);
+
+    // Fraud feature extraction: policy counts for every user in one grouped query
+    @Query("""
+            SELECT up.user.id AS userId,
+                   COUNT(up) AS total,
+                   SUM(CASE WHEN up.purchasedAt > :recentSince THEN 1 ELSE 0 END) AS recent
+            FROM UserPolicy up
+            WHERE up.user IS NOT NULL
+            GROUP BY up.user.id
+            """)
+    List<UserPolicyStats> aggregatePolicyStatsByUser(@Param("recentSince") LocalDateTime recentSince);
+
+    @Query("SELECT DISTINCT up.user.id FROM UserPolicy up WHERE up.policy.company.id = :companyId AND up.user IS NOT NULL")
+    List<Long> findUserIdsByPolicyCompanyId(@Param("companyId") Long companyId);
+
+    interface UserPolicyStats {
+        Long getUserId();
+
+        Long getTotal();
+
+        Long getRecent();
+    }
+
+    // Admin analytics: one row per (status, workflowStatus) pair, optionally for one company
+    @Query("""
+            SELECT up.status AS status, up.workflowStatus AS workflowStatus, COUNT(up) AS total
+            FROM UserPolicy up
+            LEFT JOIN up.policy p
+            WHERE (:companyId IS NULL OR p.company.id = :companyId)
+            GROUP BY up.status, up.workflowStatus
+            """)
+    List<StatusCount> countByStatusAndWorkflowStatus(@Param("companyId") Long companyId);
+
+    @Query("""
+            SELECT COUNT(up) AS total,
+                   SUM(p.premium) AS premium,
+                   SUM(p.coverage) AS coverage,
+                   SUM(CASE WHEN up.createdAt > :since THEN p.premium ELSE 0.0 END) AS premiumSince
+            FROM UserPolicy up
+            JOIN up.policy p
+            WHERE up.status = 'ACTIVE'
+            AND (:companyId IS NULL OR p.company.id = :companyId)
+            """)
+    ActiveRevenue aggregateActiveRevenue(@Param("companyId") Long companyId,
+            @Param("since") LocalDateTime since);
+
+    @Query("""
+            SELECT COUNT(DISTINCT u.id)
+            FROM UserPolicy up
+            JOIN up.policy p
+            JOIN up.user u
+            WHERE up.status = 'ACTIVE'
+            AND u.role = 'USER'
+            AND (:companyId IS NULL OR p.company.id = :companyId)
+            """)
+    long countUsersWithActivePolicy(@Param("companyId") Long companyId);
+
+    // Company dashboard: units sold per policy name, best seller first
+    @Query("""
+            SELECT p.name AS label, COUNT(up) AS total
+            FROM UserPolicy up
+            JOIN up.policy p
+            WHERE p.company.id = :companyId
+            GROUP BY p.name
+            ORDER BY COUNT(up) DESC
+            """)
+    List<PolicyRepository.LabelCount> countSoldByPolicyName(@Param("companyId") Long companyId);
+
+    // Agent performance: policies of users who booked with the agent (semi-join, one row per policy)
+    @Query("""
+            SELECT up.user.id AS userId, up.status AS status, up.rejectionReason AS rejectionReason,
+                   SIZE(up.alternativePolicyIds) AS alternatives
+            FROM UserPolicy up
+            WHERE up.user.id IN (SELECT b.user.id FROM Booking b WHERE b.agent.id = :agentId)
+            """)
+    List<CustomerPolicyRow> findCustomerPolicyRowsByAgentId(@Param("agentId") Long agentId);
+
+    // Agent governance: per agent, policies held by users who booked with that agent (each policy once per agent)
+    @Query(value = """
+            SELECT ab.agent_id AS agentId,
+                   COUNT(*) AS total,
+                   SUM(CASE WHEN up.workflow_status = 'APPROVED' THEN 1 ELSE 0 END) AS approved,
+                   SUM(CASE WHEN up.status = 'ACTIVE' THEN 1 ELSE 0 END) AS active
+            FROM (SELECT DISTINCT b.agent_id, b.user_id
+                  FROM booking b
+                  WHERE b.agent_id IN (:agentIds) AND b.user_id IS NOT NULL) ab
+            JOIN user_policy up ON up.user_id = ab.user_id
+            GROUP BY ab.agent_id
+            """, nativeQuery = true)
+    List<AgentPolicyCounts> countCustomerPoliciesByAgentIds(@Param("agentIds") java.util.Collection<Long> agentIds);
+
+    interface AgentPolicyCounts {
+        Long getAgentId();
+
+        Long getTotal();
+
+        Long getApproved();
+
+        Long getActive();
+    }
+
+    interface CustomerPolicyRow {
+        Long getUserId();
+
+        String getStatus();
+
+        String getRejectionReason();
+
+        Integer getAlternatives();
+    }
+
+    interface StatusCount {
+        String getStatus();
+
+        String getWorkflowStatus();
+
+        Long getTotal();
+    }
+
+    interface ActiveRevenue {
+        Long getTotal();
+
+        Double getPremium();
+
+        Double getCoverage();
+
+        Double getPremiumSince();
+    }
 }
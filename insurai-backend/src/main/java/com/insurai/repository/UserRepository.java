@@ -1,8 +1,14 @@
 package com.insurai.repository;
 
 import com.insurai.model.User;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +17,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByResetToken(String resetToken);
 
+    // Booking admission guard: row lock on the agent, held until the booking transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> lockById(@Param("id") Long id);
+
     List<User> findByRole(String role);
 
     List<User> findByRoleAndAvailable(String role, Boolean available);
@@ -26,4 +37,85 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByCompanyIdAndRole(Long companyId, String role);
 
     long countByCompanyIdAndRole(Long companyId, String role);
+
+    // Keyset-paged cohort scan for batch scoring; returns profile columns only
+    @Query("""
+            SELECT u.id AS id, u.age AS age, u.income AS income, u.dependents AS dependents
+            FROM User u
+            WHERE u.id > :afterId
+            AND (:role IS NULL OR u.role = :role)
+            AND (:minAge IS NULL OR u.age >= :minAge)
+            AND (:maxAge IS NULL OR u.age <= :maxAge)
+            AND (:companyId IS NULL
+                 OR u.company.id = :companyId
+                 OR EXISTS (SELECT 1 FROM UserCompanyMap m WHERE m.user = u AND m.company.id = :companyId))
+            ORDER BY u.id
+            """)
+    List<ScoringProfile> findCohortAfter(
+            @Param("afterId") Long afterId,
+            @Param("companyId") Long companyId,
+            @Param("role") String role,
+            @Param("minAge") Integer minAge,
+            @Param("maxAge") Integer maxAge,
+            Pageable pageable);
+
+    interface ScoringProfile {
+        Long getId();
+
+        Integer getAge();
+
+        Double getIncome();
+
+        Integer getDependents();
+    }
+
+    // Keyset-paged profile fields needed for fraud scoring, without loading entities
+    @Query("""
+            SELECT u.id AS id, u.email AS email, u.phone AS phone, u.age AS age,
+                   u.income AS income, u.address AS address
+            FROM User u
+            WHERE u.id > :afterId
+            ORDER BY u.id
+            """)
+    List<RiskProfile> findRiskProfilesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Same fields for a known set of users, e.g. one chunk of a company's linked users
+    @Query("""
+            SELECT u.id AS id, u.email AS email, u.phone AS phone, u.age AS age,
+                   u.income AS income, u.address AS address
+            FROM User u
+            WHERE u.id IN :ids
+            ORDER BY u.id
+            """)
+    List<RiskProfile> findRiskProfilesByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface RiskProfile {
+        Long getId();
+
+        String getEmail();
+
+        String getPhone();
+
+        Integer getAge();
+
+        Double getIncome();
+
+        String getAddress();
+    }
+
+    // Admin analytics: agent head count and how many are active, optionally for one company
+    @Query("""
+            SELECT COUNT(u) AS total,
+                   SUM(CASE WHEN u.isActive = true THEN 1 ELSE 0 END) AS active
+            FROM User u
+            WHERE u.role = 'AGENT'
+            AND (:companyId IS NULL OR u.company.id = :companyId)
+            """)
+    AgentTotals countAgents(@Param("companyId") Long companyId);
+
+    interface AgentTotals {
+        Long getTotal();
+
+        Long getActive();
+    }
 }
@@ -0,0 +1,87 @@
+package com.insurai.security;
+
+import com.insurai.model.User;
+import com.insurai.repository.UserRepository;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Collections;
+
+/**
+ * STOMP Authorization
+ * The /ws handshake is open, so the JWT travels in the CONNECT frame's
+ * Authorization header instead. Subscriptions to /topic/fraud/** carry user
+ * risk profiles and get the same rules as GET /api/ai/fraud/heatmap:
+ * /topic/fraud/all is for super admins, /topic/fraud/{companyId} for super
+ * admins and that company's admins.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String FRAUD_TOPIC_PREFIX = "/topic/fraud/";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserRepository userRepository;
+
+    public StompAuthChannelInterceptor(JwtTokenProvider jwtTokenProvider, UserRepository userRepository) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Message<?> preSend(@org.springframework.lang.NonNull Message<?> message,
+            @org.springframework.lang.NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String authHeader = accessor.getFirstNativeHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+                if (jwtTokenProvider.validateToken(token)) {
+                    String email = jwtTokenProvider.extractUsername(token);
+                    String role = jwtTokenProvider.extractRole(token);
+                    accessor.setUser(new UsernamePasswordAuthenticationToken(
+                            email, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))));
+                }
+            }
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith(FRAUD_TOPIC_PREFIX)
+                    && !canWatchFraud(accessor.getUser(), destination.substring(FRAUD_TOPIC_PREFIX.length()))) {
+                throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+            }
+        }
+        return message;
+    }
+
+    private boolean canWatchFraud(Principal principal, String scope) {
+        if (!(principal instanceof UsernamePasswordAuthenticationToken auth)) {
+            return false;
+        }
+        if (hasRole(auth, "ROLE_SUPER_ADMIN")) {
+            return true;
+        }
+        if (!hasRole(auth, "ROLE_COMPANY_ADMIN") || "all".equals(scope)) {
+            return false;
+        }
+        User admin = userRepository.findByEmail(auth.getName()).orElse(null);
+        return admin != null && admin.getCompany() != null
+                && String.valueOf(admin.getCompany().getId()).equals(scope);
+    }
+
+    private static boolean hasRole(UsernamePasswordAuthenticationToken auth, String role) {
+        return auth.getAuthorities().stream().anyMatch(a -> role.equals(a.getAuthority()));
+    }
+}
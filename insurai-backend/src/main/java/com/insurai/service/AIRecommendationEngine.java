@@ -2,13 +2,12 @@ package com.insurai.service;
 
 import com.insurai.model.Policy;
 import com.insurai.model.User;
-import com.insurai.repository.PolicyRepository;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * AI Policy Recommendation Engine
@@ -17,56 +16,188 @@ import java.util.stream.Collectors;
 @Service
 public class AIRecommendationEngine {
 
-    private final PolicyRepository policyRepository;
+    private final PolicyCatalog policyCatalog;
+    private final RecommendationCache recommendationCache;
 
-    public AIRecommendationEngine(PolicyRepository policyRepository) {
-        this.policyRepository = policyRepository;
+    public AIRecommendationEngine(PolicyCatalog policyCatalog, RecommendationCache recommendationCache) {
+        this.policyCatalog = policyCatalog;
+        this.recommendationCache = recommendationCache;
     }
 
     /**
      * Get personalized policy recommendations with explanations
      */
     public List<PolicyRecommendation> getRecommendations(User user, Policy rejectedPolicy, int limit) {
-        List<Policy> allPolicies = policyRepository.findAll();
-        List<PolicyRecommendation> recommendations = new ArrayList<>();
+        return getRecommendations(user, rejectedPolicy, limit, false);
+    }
 
-        for (Policy policy : allPolicies) {
+    /**
+     * Get personalized policy recommendations
+     * Every catalog entry is scored allocation-free; reasons, concerns and the
+     * comparison with the rejected policy are built only for the returned top
+     * {@code limit}, and skipped entirely when {@code scoresOnly} is set.
+     */
+    public List<PolicyRecommendation> getRecommendations(User user, Policy rejectedPolicy, int requestedLimit,
+            boolean scoresOnly) {
+        if (requestedLimit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        // Never more results than policies, so the top-K buffers and cache keys stay bounded
+        PolicyCatalog.Snapshot snapshot = policyCatalog.snapshot();
+        int limit = Math.min(requestedLimit, Math.max(1, snapshot.size()));
+        if (user.getId() == null) {
+            return computeRecommendations(snapshot, user, rejectedPolicy, limit, scoresOnly);
+        }
+        String variant = "engine:" + limit + ":" + (rejectedPolicy != null ? rejectedPolicy.getId() : "-")
+                + ":" + scoresOnly;
+        return recommendationCache.get(user, variant,
+                catalog -> computeRecommendations(catalog, user, rejectedPolicy, limit, scoresOnly),
+                (current, delta) -> mergeRecommendations(current, delta, user, rejectedPolicy, limit, scoresOnly));
+    }
+
+    private List<PolicyRecommendation> computeRecommendations(PolicyCatalog.Snapshot catalog, User user,
+            Policy rejectedPolicy, int limit, boolean scoresOnly) {
+        double income = userIncome(user);
+        int age = userAge(user);
+        int rejectedIdx = rejectedPolicy != null && rejectedPolicy.getId() != null
+                ? catalog.indexOf(rejectedPolicy.getId())
+                : -1;
+
+        TopKHeap heap = new TopKHeap(Math.min(limit, catalog.size()));
+        for (int i = 0; i < catalog.size(); i++) {
             // Skip the rejected policy itself
-            if (rejectedPolicy != null && policy.getId().equals(rejectedPolicy.getId())) {
+            if (i == rejectedIdx) {
                 continue;
             }
+            heap.offer(i, calculateConfidenceScore(catalog, i, income, age));
+        }
 
-            // Calculate recommendation score
-            PolicyRecommendation rec = calculateRecommendation(user, policy, rejectedPolicy);
-            recommendations.add(rec);
+        int[] top = new int[heap.size()];
+        double[] scores = new double[heap.size()];
+        int n = heap.drainDescending(top, scores);
+
+        List<PolicyRecommendation> recommendations = new ArrayList<>(n);
+        for (int r = 0; r < n; r++) {
+            recommendations.add(scoresOnly
+                    ? scoredRecommendation(catalog.policy(top[r]), scores[r])
+                    : explainRecommendation(user, catalog, top[r], rejectedPolicy));
+        }
+        return List.copyOf(recommendations);
+    }
+
+    /**
+     * Fold a single-policy catalog change into a cached top-K list.
+     * A new policy is scored on its own and inserted only if it beats the current K-th entry.
+     */
+    private List<PolicyRecommendation> mergeRecommendations(List<PolicyRecommendation> current,
+            PolicyCatalog.Delta delta, User user, Policy rejectedPolicy, int limit, boolean scoresOnly) {
+        PolicyCatalog.Snapshot catalog = delta.getSnapshot();
+        int i = delta.getIndex();
+        Policy changed = catalog.policy(i);
+
+        if (delta.getKind() == PolicyCatalog.ChangeKind.STATUS_CHANGED) {
+            // Status does not enter the score, so only the policy reference needs refreshing
+            List<PolicyRecommendation> merged = new ArrayList<>(current.size());
+            for (PolicyRecommendation rec : current) {
+                merged.add(rec.getPolicy().getId().equals(changed.getId()) ? rec.withPolicy(changed) : rec);
+            }
+            return List.copyOf(merged);
         }
 
-        // Sort by confidence score (descending) and return top N
-        return recommendations.stream()
-                .sorted(Comparator.comparingDouble(PolicyRecommendation::getConfidenceScore).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        if (limit <= 0 || (rejectedPolicy != null && changed.getId().equals(rejectedPolicy.getId()))) {
+            return current;
+        }
+        for (PolicyRecommendation rec : current) {
+            if (rec.getPolicy().getId().equals(changed.getId())) {
+                return null; // Not actually new, recompute
+            }
+        }
+        double score = calculateConfidenceScore(catalog, i, userIncome(user), userAge(user));
+        if (current.size() >= limit && !(score > current.get(current.size() - 1).getConfidenceScore())) {
+            return current;
+        }
+
+        List<PolicyRecommendation> merged = new ArrayList<>(current);
+        int pos = 0;
+        while (pos < merged.size() && merged.get(pos).getConfidenceScore() >= score) {
+            pos++;
+        }
+        merged.add(pos, scoresOnly
+                ? scoredRecommendation(changed, score)
+                : explainRecommendation(user, catalog, i, rejectedPolicy));
+        if (merged.size() > limit) {
+            merged.remove(merged.size() - 1);
+        }
+        return List.copyOf(merged);
+    }
+
+    private static double userIncome(User user) {
+        return user.getIncome() != null ? user.getIncome() : 0;
+    }
+
+    private static int userAge(User user) {
+        return user.getAge() != null ? user.getAge() : 30;
     }
 
     /**
-     * Calculate recommendation with explainable factors
+     * Confidence score (0-1) of one catalog entry for a user, without building an explanation
      */
-    private PolicyRecommendation calculateRecommendation(User user, Policy policy, Policy rejectedPolicy) {
-        PolicyRecommendation rec = new PolicyRecommendation();
-        rec.setPolicy(policy);
+    double calculateConfidenceScore(User user, PolicyCatalog.Snapshot catalog, int i) {
+        return calculateConfidenceScore(catalog, i, userIncome(user), userAge(user));
+    }
 
-        // Calculate individual factor scores
-        double affordabilityScore = calculateAffordabilityScore(user, policy);
-        double ageMatchScore = calculateAgeMatchScore(user, policy);
-        double coverageScore = calculateCoverageScore(user, policy);
-        double riskProfileScore = calculateRiskProfileScore(user, policy);
+    /**
+     * Weighted overall confidence score (0-1), computed from catalog columns only
+     */
+    private double calculateConfidenceScore(PolicyCatalog.Snapshot catalog, int i, double income, int age) {
+        return weightedConfidence(
+                calculateAffordabilityScore(income, catalog.premium(i)),
+                calculateAgeMatchScore(age, catalog.type(i)),
+                calculateCoverageScore(income, catalog.coverage(i), catalog.type(i)),
+                calculateRiskProfileScore(age));
+    }
 
-        // Weighted overall confidence score
-        double confidenceScore = (affordabilityScore * 0.35) + // 35% weight on affordability
+    private static double weightedConfidence(double affordabilityScore, double ageMatchScore,
+            double coverageScore, double riskProfileScore) {
+        return (affordabilityScore * 0.35) + // 35% weight on affordability
                 (ageMatchScore * 0.25) + // 25% weight on age match
                 (coverageScore * 0.25) + // 25% weight on coverage
                 (riskProfileScore * 0.15); // 15% weight on risk profile
+    }
 
+    /**
+     * Score-only recommendation, no explanation text
+     */
+    private PolicyRecommendation scoredRecommendation(Policy policy, double confidenceScore) {
+        PolicyRecommendation rec = new PolicyRecommendation();
+        rec.setPolicy(policy);
+        rec.setConfidenceScore(confidenceScore);
+        rec.setMatchScore(confidenceScore);
+        rec.setReasons(List.of());
+        rec.setConcerns(List.of());
+        return rec;
+    }
+
+    /**
+     * Build the explainable recommendation for a selected policy
+     */
+    private PolicyRecommendation explainRecommendation(User user, PolicyCatalog.Snapshot catalog, int i,
+            Policy rejectedPolicy) {
+        Policy policy = catalog.policy(i);
+        PolicyRecommendation rec = new PolicyRecommendation();
+        rec.setPolicy(policy);
+
+        double income = userIncome(user);
+        int age = userAge(user);
+
+        // Calculate individual factor scores
+        double affordabilityScore = calculateAffordabilityScore(income, catalog.premium(i));
+        double ageMatchScore = calculateAgeMatchScore(age, catalog.type(i));
+        double coverageScore = calculateCoverageScore(income, catalog.coverage(i), catalog.type(i));
+        double riskProfileScore = calculateRiskProfileScore(age);
+
+        double confidenceScore = weightedConfidence(affordabilityScore, ageMatchScore, coverageScore,
+                riskProfileScore);
         rec.setConfidenceScore(confidenceScore);
 
         // Generate explanation
@@ -117,12 +248,12 @@ public class AIRecommendationEngine {
      * Calculate affordability score (0-1)
      * Premium should be <= 20% of annual income for optimal score
      */
-    private double calculateAffordabilityScore(User user, Policy policy) {
-        if (user.getIncome() == null || user.getIncome() <= 0) {
+    private double calculateAffordabilityScore(double income, double premium) {
+        if (income <= 0) {
             return 0.5; // Neutral if income unknown
         }
 
-        double premiumToIncomeRatio = policy.getPremium() / user.getIncome();
+        double premiumToIncomeRatio = premium / income;
 
         if (premiumToIncomeRatio <= 0.10)
             return 1.0; // <= 10% - Excellent
@@ -141,12 +272,9 @@ public class AIRecommendationEngine {
      * Calculate age match score (0-1)
      * Different policies suit different age groups
      */
-    private double calculateAgeMatchScore(User user, Policy policy) {
-        int age = user.getAge() != null ? user.getAge() : 30;
-        String policyType = policy.getType();
-
+    private double calculateAgeMatchScore(int age, byte policyType) {
         // Term Life Insurance - best for 25-50
-        if ("Life".equalsIgnoreCase(policyType)) {
+        if (policyType == PolicyCatalog.TYPE_LIFE) {
             if (age >= 25 && age <= 40)
                 return 1.0;
             if (age >= 18 && age <= 50)
@@ -157,7 +285,7 @@ public class AIRecommendationEngine {
         }
 
         // Health Insurance - important for all ages
-        if ("Health".equalsIgnoreCase(policyType)) {
+        if (policyType == PolicyCatalog.TYPE_HEALTH) {
             if (age >= 30 && age <= 60)
                 return 1.0;
             if (age >= 18 && age <= 70)
@@ -166,7 +294,7 @@ public class AIRecommendationEngine {
         }
 
         // Auto Insurance - best for 25-65
-        if ("Auto".equalsIgnoreCase(policyType)) {
+        if (policyType == PolicyCatalog.TYPE_AUTO) {
             if (age >= 25 && age <= 50)
                 return 1.0;
             if (age >= 18 && age <= 65)
@@ -181,15 +309,15 @@ public class AIRecommendationEngine {
      * Calculate coverage adequacy score (0-1)
      * Coverage should be 5-10x annual income for life insurance
      */
-    private double calculateCoverageScore(User user, Policy policy) {
-        if (user.getIncome() == null || user.getIncome() <= 0) {
+    private double calculateCoverageScore(double income, double coverage, byte policyType) {
+        if (income <= 0) {
             return 0.7; // Neutral if income unknown
         }
 
-        double coverageToIncomeRatio = policy.getCoverage() / user.getIncome();
+        double coverageToIncomeRatio = coverage / income;
 
         // For Life Insurance
-        if ("Life".equalsIgnoreCase(policy.getType())) {
+        if (policyType == PolicyCatalog.TYPE_LIFE) {
             if (coverageToIncomeRatio >= 8 && coverageToIncomeRatio <= 12)
                 return 1.0; // Optimal
             if (coverageToIncomeRatio >= 5 && coverageToIncomeRatio <= 15)
@@ -200,7 +328,7 @@ public class AIRecommendationEngine {
         }
 
         // For Health Insurance
-        if ("Health".equalsIgnoreCase(policy.getType())) {
+        if (policyType == PolicyCatalog.TYPE_HEALTH) {
             if (coverageToIncomeRatio >= 3 && coverageToIncomeRatio <= 8)
                 return 1.0;
             if (coverageToIncomeRatio >= 2 && coverageToIncomeRatio <= 10)
@@ -215,12 +343,10 @@ public class AIRecommendationEngine {
      * Calculate risk profile match score (0-1)
      * Based on health status and lifestyle
      */
-    private double calculateRiskProfileScore(User user, Policy policy) {
+    private double calculateRiskProfileScore(int age) {
         // Simplified risk scoring
         // In production, this would use medical history, lifestyle factors, etc.
 
-        int age = user.getAge() != null ? user.getAge() : 30;
-
         // Younger = lower risk
         if (age < 30)
             return 0.95;
@@ -346,6 +472,20 @@ public class AIRecommendationEngine {
         public void setComparisonWithRejected(PolicyComparison comparisonWithRejected) {
             this.comparisonWithRejected = comparisonWithRejected;
         }
+
+        /**
+         * Copy of this recommendation pointing at a fresher instance of the same policy
+         */
+        PolicyRecommendation withPolicy(Policy updated) {
+            PolicyRecommendation copy = new PolicyRecommendation();
+            copy.setPolicy(updated);
+            copy.setConfidenceScore(confidenceScore);
+            copy.setMatchScore(matchScore);
+            copy.setReasons(reasons);
+            copy.setConcerns(concerns);
+            copy.setComparisonWithRejected(comparisonWithRejected);
+            return copy;
+        }
     }
 
     /**
@@ -1,16 +1,21 @@
 package com.insurai.service;
 
 import com.insurai.dto.RiskAssessmentDTO;
+import com.insurai.model.HealthFlags;
 import com.insurai.model.Policy;
 import com.insurai.model.User;
 import com.insurai.repository.PolicyRepository;
 import com.insurai.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * AI-Driven Risk Assessment Service
@@ -25,6 +30,14 @@ public class AIRiskAssessmentService {
     @Autowired
     private PolicyRepository policyRepository;
 
+    @Autowired
+    private PolicyCatalog policyCatalog;
+
+    @Autowired
+    private PolicyService policyService;
+
+    private static final int MAX_BATCH_SIZE = 100;
+
     /**
      * Assess risk for a user applying for a specific policy
      */
@@ -35,9 +48,72 @@ public class AIRiskAssessmentService {
         Policy policy = policyRepository.findById(java.util.Objects.requireNonNull(policyId))
                 .orElseThrow(() -> new RuntimeException("Policy not found"));
 
+        return assess(user, policy, new AlternativeFinder(policyCatalog.snapshot()));
+    }
+
+    /**
+     * Assess risk for one user against many policies in a single pass.
+     * The user is loaded once, policies come from the in-memory catalog and the
+     * alternative-policy search is shared by every policy in the batch.
+     * Policies are taken from policyIds, or else from the given filter page as
+     * shown on the plans page. Unknown policy ids are skipped.
+     */
+    public List<RiskAssessmentDTO> assessRiskBatch(com.insurai.dto.RiskAssessmentBatchRequest request) {
+        if (request.getUserId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "userId is required");
+        }
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        List<Long> policyIds;
+        if (request.getPolicyIds() != null && !request.getPolicyIds().isEmpty()) {
+            policyIds = request.getPolicyIds();
+        } else if (request.getFilter() != null) {
+            int page = request.getPage() != null ? request.getPage() : 0;
+            int size = request.getSize() != null ? request.getSize() : 20;
+            policyIds = policyService.searchPolicies(user.getId(), request.getFilter(), page, size)
+                    .getContent().stream()
+                    .map(com.insurai.dto.PolicyRecommendationDTO::getPolicyId)
+                    .toList();
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "policyIds or filter is required");
+        }
+        if (policyIds.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_SIZE + " policies can be assessed at once");
+        }
+
+        PolicyCatalog.Snapshot catalog = policyCatalog.snapshot();
+        Map<Long, Policy> policies = new HashMap<>();
+        List<Long> notInCatalog = new ArrayList<>();
+        for (Long policyId : policyIds) {
+            int idx = policyId != null ? catalog.indexOf(policyId) : -1;
+            if (idx >= 0) {
+                policies.put(policyId, catalog.policy(idx));
+            } else if (policyId != null) {
+                notInCatalog.add(policyId);
+            }
+        }
+        if (!notInCatalog.isEmpty()) {
+            // Written after the snapshot was taken; one query covers them all
+            policyRepository.findAllById(notInCatalog).forEach(p -> policies.put(p.getId(), p));
+        }
+
+        AlternativeFinder alternatives = new AlternativeFinder(catalog);
+        List<RiskAssessmentDTO> results = new ArrayList<>(policyIds.size());
+        for (Long policyId : policyIds) {
+            Policy policy = policies.get(policyId);
+            if (policy != null) {
+                results.add(assess(user, policy, alternatives));
+            }
+        }
+        return results;
+    }
+
+    private RiskAssessmentDTO assess(User user, Policy policy, AlternativeFinder alternatives) {
         RiskAssessmentDTO assessment = new RiskAssessmentDTO();
-        assessment.setUserId(userId);
-        assessment.setPolicyId(policyId);
+        assessment.setUserId(user.getId());
+        assessment.setPolicyId(policy.getId());
 
         // Calculate risk score
         int riskScore = calculateRiskScore(user, policy);
@@ -58,7 +134,7 @@ public class AIRiskAssessmentService {
 
         // Suggest alternatives if high risk
         if (riskScore > 70) {
-            assessment.setAlternativePolicyIds(findAlternativePolicies(user, policy));
+            assessment.setAlternativePolicyIds(alternatives.find(policy));
             assessment.setAlternativeReason("Your risk profile suggests these alternatives may be more suitable");
         }
 
@@ -89,21 +165,19 @@ public class AIRiskAssessmentService {
         }
 
         // Health Logic
-        String healthInfo = user.getHealthInfo();
+        int healthFlags = user.getHealthFlags();
         String healthStatus = "Good";
-        if (healthInfo != null && !healthInfo.isEmpty()) {
-            if (healthInfo.toLowerCase().contains("diabetes")) {
-                riskScore += 20;
-                healthStatus = "Moderate";
-            }
-            if (healthInfo.toLowerCase().contains("heart")) {
-                riskScore += 25;
-                healthStatus = "At Risk";
-            }
-            if (healthInfo.toLowerCase().contains("smoker")) {
-                riskScore += 15;
-                healthStatus = "At Risk";
-            }
+        if (HealthFlags.has(healthFlags, HealthFlags.DIABETES)) {
+            riskScore += 20;
+            healthStatus = "Moderate";
+        }
+        if (HealthFlags.has(healthFlags, HealthFlags.HEART)) {
+            riskScore += 25;
+            healthStatus = "At Risk";
+        }
+        if (HealthFlags.has(healthFlags, HealthFlags.SMOKER)) {
+            riskScore += 15;
+            healthStatus = "At Risk";
         }
 
         // Income Logic (Financial Stability reduces risk)
@@ -163,18 +237,8 @@ public class AIRiskAssessmentService {
             }
         }
 
-        // Health info risk
-        String healthInfo = user.getHealthInfo();
-        if (healthInfo != null && !healthInfo.isEmpty()) {
-            if (healthInfo.toLowerCase().contains("diabetes"))
-                score += 25;
-            if (healthInfo.toLowerCase().contains("heart"))
-                score += 30;
-            if (healthInfo.toLowerCase().contains("cancer"))
-                score += 35;
-            if (healthInfo.toLowerCase().contains("smoker"))
-                score += 20;
-        }
+        // Health info risk, parsed when the profile was saved
+        score += user.getHealthRiskScore();
 
         // Income vs Premium risk
         Double income = user.getIncome();
@@ -258,17 +322,12 @@ public class AIRiskAssessmentService {
         }
 
         // Health conditions
-        String healthInfo = user.getHealthInfo();
-        if (healthInfo != null && !healthInfo.isEmpty()) {
-            if (healthInfo.toLowerCase().contains("diabetes") ||
-                    healthInfo.toLowerCase().contains("heart") ||
-                    healthInfo.toLowerCase().contains("cancer")) {
-                factors.add(new RiskAssessmentDTO.RiskFactor(
-                        "Pre-existing Conditions",
-                        "HIGH",
-                        35,
-                        "Pre-existing medical conditions may affect eligibility"));
-            }
+        if (HealthFlags.hasAny(user.getHealthFlags(), HealthFlags.PRE_EXISTING)) {
+            factors.add(new RiskAssessmentDTO.RiskFactor(
+                    "Pre-existing Conditions",
+                    "HIGH",
+                    35,
+                    "Pre-existing medical conditions may affect eligibility"));
         }
 
         // Affordability
@@ -324,16 +383,48 @@ public class AIRiskAssessmentService {
         return documents;
     }
 
-    private List<Long> findAlternativePolicies(User user, Policy policy) {
-        // Find policies of same type but with lower coverage/premium
-        List<Policy> alternatives = policyRepository.findAll().stream()
-                .filter(p -> p.getType().equals(policy.getType()))
-                .filter(p -> p.getPremium() != null && policy.getPremium() != null)
-                .filter(p -> p.getPremium() < policy.getPremium())
-                .limit(3)
-                .toList();
+    /**
+     * Cheaper policies of the same type, first three in id order.
+     * Same-type candidates are indexed once per type and reused for every
+     * policy assessed with this finder.
+     */
+    private static final class AlternativeFinder {
+        private final PolicyCatalog.Snapshot catalog;
+        private final Map<String, int[]> byType = new HashMap<>();
+
+        private AlternativeFinder(PolicyCatalog.Snapshot catalog) {
+            this.catalog = catalog;
+        }
+
+        private List<Long> find(Policy policy) {
+            if (policy.getType() == null || policy.getPremium() == null) {
+                return List.of();
+            }
+            int[] sameType = byType.computeIfAbsent(policy.getType(), this::indexType);
+            double premium = policy.getPremium();
+            List<Long> ids = new ArrayList<>(3);
+            for (int i : sameType) {
+                // NaN (no premium) never compares below
+                if (catalog.premium(i) < premium) {
+                    ids.add(catalog.id(i));
+                    if (ids.size() == 3) {
+                        break;
+                    }
+                }
+            }
+            return ids;
+        }
 
-        return alternatives.stream().map(Policy::getId).toList();
+        private int[] indexType(String type) {
+            int[] matches = new int[catalog.size()];
+            int n = 0;
+            for (int i = 0; i < catalog.size(); i++) {
+                if (type.equals(catalog.policy(i).getType())) {
+                    matches[n++] = i;
+                }
+            }
+            return Arrays.copyOf(matches, n);
+        }
     }
 
     private RiskAssessmentDTO.ClaimReadiness calculateClaimReadiness(User user, Policy policy) {
@@ -3,13 +3,27 @@ package com.insurai.service;
 import com.insurai.dto.*;
 import com.insurai.model.*;
 import com.insurai.repository.*;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
@@ -41,33 +55,112 @@ public class AdminGovernanceService {
         @Autowired
         private NotificationService notificationService;
 
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        private static final Logger logger = LoggerFactory.getLogger(AdminGovernanceService.class);
+
+        // Dedicated pool for analytics sections: one request's five sections run side by side,
+        // and the bounded queue turns overload into partial results instead of a pile-up
+        private final ThreadPoolExecutor analyticsExecutor = new ThreadPoolExecutor(5, 5, 60, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(50), runnable -> {
+                                Thread thread = new Thread(runnable, "admin-analytics");
+                                thread.setDaemon(true);
+                                return thread;
+                        });
+
         // ===== FULL LIFECYCLE VISIBILITY =====
 
         /**
-         * Get comprehensive admin analytics with funnel metrics and drop-off analysis
+         * Get comprehensive admin analytics with funnel metrics and drop-off analysis.
+         * Sections are computed concurrently, each in its own read-only transaction
+         * with its own deadline; sections that miss it are left out and listed in
+         * unavailableSections.
          */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED) // don't hold a connection while waiting
         public AdminAnalyticsDTO getAdminAnalytics(String email) {
                 Long companyId = getCompanyIdFromEmail(email);
                 AdminAnalyticsDTO analytics = new AdminAnalyticsDTO();
 
+                Section<AdminAnalyticsDTO.FunnelMetrics> funnel = submit("funnelMetrics", 3000,
+                                () -> calculateFunnelMetrics(companyId));
+                Section<AdminAnalyticsDTO.AgentPerformanceSummary> agents = submit("agentPerformance", 5000,
+                                () -> calculateAgentPerformanceSummary(companyId));
+                Section<AdminAnalyticsDTO.PolicyMetrics> policies = submit("policyMetrics", 5000,
+                                () -> calculatePolicyMetrics(companyId));
+                Section<AdminAnalyticsDTO.FinancialMetrics> financial = submit("financialMetrics", 5000,
+                                () -> calculateFinancialMetrics(companyId));
+                Section<AdminAnalyticsDTO.DropOffAnalysis> dropOff = submit("dropOffAnalysis", 3000,
+                                () -> calculateDropOffAnalysis(companyId));
+
                 // Funnel Metrics
-                analytics.setFunnelMetrics(calculateFunnelMetrics(companyId));
+                analytics.setFunnelMetrics(await(funnel, analytics));
 
                 // Agent Performance Summary
-                analytics.setAgentPerformance(calculateAgentPerformanceSummary(companyId));
+                analytics.setAgentPerformance(await(agents, analytics));
 
                 // Policy Metrics
-                analytics.setPolicyMetrics(calculatePolicyMetrics(companyId));
+                analytics.setPolicyMetrics(await(policies, analytics));
 
                 // Financial Metrics
-                analytics.setFinancialMetrics(calculateFinancialMetrics(companyId));
+                analytics.setFinancialMetrics(await(financial, analytics));
 
                 // Drop-off Analysis
-                analytics.setDropOffAnalysis(calculateDropOffAnalysis(companyId));
+                analytics.setDropOffAnalysis(await(dropOff, analytics));
 
+                analytics.setPartial(!analytics.getUnavailableSections().isEmpty());
                 return analytics;
         }
 
+        private <T> Section<T> submit(String name, long deadlineMillis, java.util.function.Supplier<T> compute) {
+                TransactionTemplate tx = new TransactionTemplate(transactionManager);
+                tx.setReadOnly(true);
+                // Also bounds the section's queries on the database side
+                tx.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(deadlineMillis)));
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+                try {
+                        return new Section<>(name, deadline,
+                                        analyticsExecutor.submit(() -> tx.execute(status -> compute.get())));
+                } catch (RejectedExecutionException e) {
+                        return new Section<>(name, deadline, CompletableFuture.failedFuture(e));
+                }
+        }
+
+        private <T> T await(Section<T> section, AdminAnalyticsDTO analytics) {
+                try {
+                        return section.future.get(Math.max(0, section.deadline - System.nanoTime()),
+                                        TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                        section.future.cancel(true);
+                        logger.warn("Admin analytics section {} missed its deadline", section.name);
+                } catch (ExecutionException e) {
+                        logger.error("Admin analytics section {} failed", section.name, e.getCause());
+                } catch (InterruptedException e) {
+                        section.future.cancel(true);
+                        Thread.currentThread().interrupt();
+                }
+                analytics.getUnavailableSections().add(section.name);
+                return null;
+        }
+
+        @PreDestroy
+        public void shutdownAnalyticsExecutor() {
+                analyticsExecutor.shutdownNow();
+        }
+
+        private static final class Section<T> {
+                private final String name;
+                private final long deadline; // System.nanoTime()
+                private final Future<T> future;
+
+                private Section(String name, long deadline, Future<T> future) {
+                        this.name = name;
+                        this.deadline = deadline;
+                        this.future = future;
+                }
+        }
+
         private AdminAnalyticsDTO.FunnelMetrics calculateFunnelMetrics(Long companyId) {
                 AdminAnalyticsDTO.FunnelMetrics funnel = new AdminAnalyticsDTO.FunnelMetrics();
 
@@ -124,51 +217,36 @@ public class AdminGovernanceService {
         private AdminAnalyticsDTO.AgentPerformanceSummary calculateAgentPerformanceSummary(Long companyId) {
                 AdminAnalyticsDTO.AgentPerformanceSummary summary = new AdminAnalyticsDTO.AgentPerformanceSummary();
 
-                List<User> agents = companyId != null ? userRepository.findByCompanyIdAndRole(companyId, "AGENT")
-                                : userRepository.findByRole("AGENT");
-                summary.setTotalAgents(agents.size());
-                summary.setActiveAgents((int) agents.stream().filter(User::getIsActive).count());
-                summary.setInactiveAgents((int) agents.stream().filter(a -> !a.getIsActive()).count());
-
-                // Calculate average metrics across agents
-                List<Booking> allBookings = companyId != null ? bookingRepository.findByAgentCompanyId(companyId)
-                                : bookingRepository.findAll();
+                UserRepository.AgentTotals agents = userRepository.countAgents(companyId);
+                int totalAgents = toInt(agents.getTotal());
+                int activeAgents = toInt(agents.getActive());
+                summary.setTotalAgents(totalAgents);
+                summary.setActiveAgents(activeAgents);
+                summary.setInactiveAgents(totalAgents - activeAgents);
 
                 // Average response time
-                double avgResponseTime = allBookings.stream()
-                                .filter(b -> b.getRespondedAt() != null)
-                                .mapToDouble(b -> ChronoUnit.HOURS.between(b.getCreatedAt(), b.getRespondedAt()))
-                                .average()
-                                .orElse(0.0);
-                summary.setAverageResponseTime(avgResponseTime);
+                Double avgResponseTime = bookingRepository.averageResponseHours(companyId);
+                summary.setAverageResponseTime(avgResponseTime != null ? avgResponseTime : 0.0);
 
                 // SLA breaches
-                int slaBreaches = (int) allBookings.stream()
-                                .filter(b -> Boolean.TRUE.equals(b.getSlaBreached()))
-                                .count();
-                summary.setTotalSLABreaches(slaBreaches);
-
-                int agentsWithBreaches = (int) agents.stream()
-                                .filter(agent -> allBookings.stream()
-                                                .anyMatch(b -> b.getAgent() != null &&
-                                                                b.getAgent().getId().equals(agent.getId()) &&
-                                                                Boolean.TRUE.equals(b.getSlaBreached())))
-                                .count();
-                summary.setAgentsWithSLABreaches(agentsWithBreaches);
+                summary.setTotalSLABreaches(toInt(bookingRepository.countSlaBreaches(companyId)));
+                summary.setAgentsWithSLABreaches(bookingRepository.countSlaBreachesByAgent(companyId).size());
 
                 // Average approval and conversion rates
-                List<UserPolicy> allPolicies = companyId != null ? userPolicyRepository.findByPolicyCompanyId(companyId)
-                                : userPolicyRepository.findAll();
-                if (!allPolicies.isEmpty()) {
-                        double approvalRate = (double) allPolicies.stream()
-                                        .filter(up -> "APPROVED".equals(up.getWorkflowStatus()))
-                                        .count() / allPolicies.size() * 100;
-                        summary.setAverageApprovalRate(approvalRate);
-
-                        double conversionRate = (double) allPolicies.stream()
-                                        .filter(up -> "ACTIVE".equals(up.getStatus()))
-                                        .count() / allPolicies.size() * 100;
-                        summary.setAverageConversionRate(conversionRate);
+                long total = 0;
+                long approved = 0;
+                long active = 0;
+                for (UserPolicyRepository.StatusCount row : userPolicyRepository
+                                .countByStatusAndWorkflowStatus(companyId)) {
+                        total += row.getTotal();
+                        if ("APPROVED".equals(row.getWorkflowStatus()))
+                                approved += row.getTotal();
+                        if ("ACTIVE".equals(row.getStatus()))
+                                active += row.getTotal();
+                }
+                if (total > 0) {
+                        summary.setAverageApprovalRate((double) approved / total * 100);
+                        summary.setAverageConversionRate((double) active / total * 100);
                 }
 
                 return summary;
@@ -177,36 +255,30 @@ public class AdminGovernanceService {
         private AdminAnalyticsDTO.PolicyMetrics calculatePolicyMetrics(Long companyId) {
                 AdminAnalyticsDTO.PolicyMetrics metrics = new AdminAnalyticsDTO.PolicyMetrics();
 
-                List<Policy> allPolicies = companyId != null ? policyRepository.findByCompanyId(companyId)
-                                : policyRepository.findAll();
-                metrics.setTotalPolicies(allPolicies.size());
-
-                List<UserPolicy> userPolicies = companyId != null
-                                ? userPolicyRepository.findByPolicyCompanyId(companyId)
-                                : userPolicyRepository.findAll();
-                metrics.setActivePolicies((int) userPolicies.stream()
-                                .filter(up -> "ACTIVE".equals(up.getStatus()))
-                                .count());
-                metrics.setQuotedPolicies((int) userPolicies.stream()
-                                .filter(up -> "QUOTED".equals(up.getStatus()))
-                                .count());
-                metrics.setRejectedPolicies((int) userPolicies.stream()
-                                .filter(up -> "REJECTED".equals(up.getWorkflowStatus()))
-                                .count());
+                metrics.setTotalPolicies(toInt(companyId != null ? policyRepository.countByCompanyId(companyId)
+                                : policyRepository.count()));
+
+                long active = 0;
+                long quoted = 0;
+                long rejected = 0;
+                for (UserPolicyRepository.StatusCount row : userPolicyRepository
+                                .countByStatusAndWorkflowStatus(companyId)) {
+                        if ("ACTIVE".equals(row.getStatus()))
+                                active += row.getTotal();
+                        if ("QUOTED".equals(row.getStatus()))
+                                quoted += row.getTotal();
+                        if ("REJECTED".equals(row.getWorkflowStatus()))
+                                rejected += row.getTotal();
+                }
+                metrics.setActivePolicies(toInt(active));
+                metrics.setQuotedPolicies(toInt(quoted));
+                metrics.setRejectedPolicies(toInt(rejected));
 
                 // Policies by type
-                Map<String, Integer> byType = allPolicies.stream()
-                                .collect(Collectors.groupingBy(
-                                                p -> p.getType() != null ? p.getType() : "Unknown",
-                                                Collectors.collectingAndThen(Collectors.counting(), Long::intValue)));
-                metrics.setPoliciesByType(byType);
+                metrics.setPoliciesByType(toLabelMap(policyRepository.countByType(companyId)));
 
                 // Policies by category
-                Map<String, Integer> byCategory = allPolicies.stream()
-                                .collect(Collectors.groupingBy(
-                                                p -> p.getCategory() != null ? p.getCategory() : "Unknown",
-                                                Collectors.collectingAndThen(Collectors.counting(), Long::intValue)));
-                metrics.setPoliciesByCategory(byCategory);
+                metrics.setPoliciesByCategory(toLabelMap(policyRepository.countByCategory(companyId)));
 
                 return metrics;
         }
@@ -214,52 +286,45 @@ public class AdminGovernanceService {
         private AdminAnalyticsDTO.FinancialMetrics calculateFinancialMetrics(Long companyId) {
                 AdminAnalyticsDTO.FinancialMetrics metrics = new AdminAnalyticsDTO.FinancialMetrics();
 
-                List<UserPolicy> activePolicies = (companyId != null
-                                ? userPolicyRepository.findByPolicyCompanyId(companyId)
-                                : userPolicyRepository.findAll())
-                                .stream()
-                                .filter(up -> "ACTIVE".equals(up.getStatus()))
-                                .collect(Collectors.toList());
+                // Monthly revenue counts policies purchased this month
+                LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0);
+                UserPolicyRepository.ActiveRevenue revenue = userPolicyRepository.aggregateActiveRevenue(companyId,
+                                monthStart);
 
-                double totalRevenue = activePolicies.stream()
-                                .mapToDouble(up -> up.getPolicy().getPremium() != null ? up.getPolicy().getPremium()
-                                                : 0.0)
-                                .sum();
+                double totalRevenue = revenue.getPremium() != null ? revenue.getPremium() : 0.0;
                 metrics.setTotalRevenue(totalRevenue);
-
-                // Monthly revenue (policies purchased this month)
-                LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0);
-                double monthlyRevenue = activePolicies.stream()
-                                .filter(up -> up.getCreatedAt() != null && up.getCreatedAt().isAfter(monthStart))
-                                .mapToDouble(up -> up.getPolicy().getPremium() != null ? up.getPolicy().getPremium()
-                                                : 0.0)
-                                .sum();
-                metrics.setMonthlyRevenue(monthlyRevenue);
+                metrics.setMonthlyRevenue(revenue.getPremiumSince() != null ? revenue.getPremiumSince() : 0.0);
 
                 // Average premium
-                if (!activePolicies.isEmpty()) {
-                        metrics.setAveragePremium(totalRevenue / activePolicies.size());
+                long activeCount = revenue.getTotal() != null ? revenue.getTotal() : 0;
+                if (activeCount > 0) {
+                        metrics.setAveragePremium(totalRevenue / activeCount);
                 }
 
                 // Total coverage issued
-                double totalCoverage = activePolicies.stream()
-                                .mapToDouble(up -> up.getPolicy().getCoverage() != null ? up.getPolicy().getCoverage()
-                                                : 0.0)
-                                .sum();
-                metrics.setTotalCoverageIssued(totalCoverage);
+                metrics.setTotalCoverageIssued(revenue.getCoverage() != null ? revenue.getCoverage() : 0.0);
 
                 // User metrics (simplified to all users for platform context, or could be
                 // linked to purchases)
-                List<User> users = userRepository.findByRole("USER");
-                metrics.setTotalUsers(users.size());
-                metrics.setActiveUsers((int) users.stream()
-                                .filter(u -> activePolicies.stream()
-                                                .anyMatch(up -> up.getUser().getId().equals(u.getId())))
-                                .count());
+                metrics.setTotalUsers(toInt(userRepository.countByRole("USER")));
+                metrics.setActiveUsers(toInt(userPolicyRepository.countUsersWithActivePolicy(companyId)));
 
                 return metrics;
         }
 
+        private static Map<String, Integer> toLabelMap(List<PolicyRepository.LabelCount> rows) {
+                Map<String, Integer> counts = new HashMap<>();
+                for (PolicyRepository.LabelCount row : rows) {
+                        String label = row.getLabel() != null ? row.getLabel() : "Unknown";
+                        counts.merge(label, toInt(row.getTotal()), Integer::sum);
+                }
+                return counts;
+        }
+
+        private static int toInt(Long value) {
+                return value != null ? value.intValue() : 0;
+        }
+
         private AdminAnalyticsDTO.DropOffAnalysis calculateDropOffAnalysis(Long companyId) {
                 AdminAnalyticsDTO.DropOffAnalysis analysis = new AdminAnalyticsDTO.DropOffAnalysis();
 
@@ -342,9 +407,7 @@ public class AdminGovernanceService {
                 List<User> agents = companyId != null ? userRepository.findByCompanyIdAndRole(companyId, "AGENT")
                                 : userRepository.findByRole("AGENT");
 
-                return agents.stream()
-                                .map(this::mapToAgentGovernanceDTO)
-                                .collect(Collectors.toList());
+                return buildAgentGovernance(agents);
         }
 
         /**
@@ -358,10 +421,45 @@ public class AdminGovernanceService {
                         throw new RuntimeException("User is not an agent");
                 }
 
-                return mapToAgentGovernanceDTO(agent);
+                return buildAgentGovernance(List.of(agent)).get(0);
         }
 
-        private AgentGovernanceDTO mapToAgentGovernanceDTO(User agent) {
+        /**
+         * Governance details for a batch of agents: bookings, customer policies and
+         * exception cases are counted with one grouped query each, however many agents
+         */
+        private List<AgentGovernanceDTO> buildAgentGovernance(List<User> agents) {
+                if (agents.isEmpty()) {
+                        return new ArrayList<>();
+                }
+                List<Long> agentIds = agents.stream().map(User::getId).collect(Collectors.toList());
+
+                Map<Long, BookingRepository.AgentBookingCounts> bookingCounts = new HashMap<>();
+                for (BookingRepository.AgentBookingCounts row : bookingRepository.countGovernanceByAgentIds(agentIds)) {
+                        bookingCounts.put(row.getAgentId(), row);
+                }
+                Map<Long, UserPolicyRepository.AgentPolicyCounts> policyCounts = new HashMap<>();
+                for (UserPolicyRepository.AgentPolicyCounts row : userPolicyRepository
+                                .countCustomerPoliciesByAgentIds(agentIds)) {
+                        policyCounts.put(row.getAgentId(), row);
+                }
+                Map<Long, Map<String, Long>> caseCounts = new HashMap<>();
+                for (ExceptionCaseRepository.AgentCaseCount row : exceptionCaseRepository
+                                .countByAgentIdsAndCaseType(agentIds)) {
+                        caseCounts.computeIfAbsent(row.getAgentId(), id -> new HashMap<>())
+                                        .put(row.getCaseType(), row.getTotal());
+                }
+
+                return agents.stream()
+                                .map(agent -> mapToAgentGovernanceDTO(agent,
+                                                bookingCounts.get(agent.getId()),
+                                                policyCounts.get(agent.getId()),
+                                                caseCounts.getOrDefault(agent.getId(), Map.of())))
+                                .collect(Collectors.toList());
+        }
+
+        private AgentGovernanceDTO mapToAgentGovernanceDTO(User agent, BookingRepository.AgentBookingCounts bookings,
+                        UserPolicyRepository.AgentPolicyCounts policies, Map<String, Long> cases) {
                 AgentGovernanceDTO dto = new AgentGovernanceDTO();
 
                 dto.setAgentId(agent.getId());
@@ -381,44 +479,20 @@ public class AdminGovernanceService {
                 dto.setDeactivationReason(agent.getDeactivationReason());
 
                 // Performance metrics
-                List<Booking> agentBookings = bookingRepository.findByAgentId(agent.getId());
-                dto.setTotalConsultations(agentBookings.size());
-                dto.setPendingConsultations((int) agentBookings.stream()
-                                .filter(b -> "PENDING".equals(b.getStatus()))
-                                .count());
-
-                List<UserPolicy> agentPolicies = userPolicyRepository.findAll().stream()
-                                .filter(up -> up.getUser() != null &&
-                                                agentBookings.stream().anyMatch(b -> b.getUser() != null &&
-                                                                b.getUser().getId().equals(up.getUser().getId())))
-                                .collect(Collectors.toList());
-
-                if (!agentPolicies.isEmpty()) {
-                        double approvalRate = (double) agentPolicies.stream()
-                                        .filter(up -> "APPROVED".equals(up.getWorkflowStatus()))
-                                        .count() / agentPolicies.size() * 100;
-                        dto.setApprovalRate(approvalRate);
-
-                        double conversionRate = (double) agentPolicies.stream()
-                                        .filter(up -> "ACTIVE".equals(up.getStatus()))
-                                        .count() / agentPolicies.size() * 100;
-                        dto.setConversionRate(conversionRate);
+                dto.setTotalConsultations(bookings != null ? toInt(bookings.getTotal()) : 0);
+                dto.setPendingConsultations(bookings != null ? toInt(bookings.getPending()) : 0);
+                dto.setSlaBreaches(bookings != null ? toInt(bookings.getSlaBreaches()) : 0);
+
+                if (policies != null && policies.getTotal() != null && policies.getTotal() > 0) {
+                        double total = policies.getTotal();
+                        dto.setApprovalRate(toInt(policies.getApproved()) / total * 100);
+                        dto.setConversionRate(toInt(policies.getActive()) / total * 100);
                 }
 
-                dto.setSlaBreaches((int) agentBookings.stream()
-                                .filter(b -> Boolean.TRUE.equals(b.getSlaBreached()))
-                                .count());
-
                 // Exception flags
-                dto.setMisconductFlags((int) exceptionCaseRepository.findByAgentId(agent.getId()).stream()
-                                .filter(ec -> "AGENT_MISCONDUCT".equals(ec.getCaseType()))
-                                .count());
-                dto.setEscalatedCases((int) exceptionCaseRepository.findByAgentId(agent.getId()).stream()
-                                .filter(ec -> "ESCALATED_REJECTION".equals(ec.getCaseType()))
-                                .count());
-                dto.setDisputedClaims((int) exceptionCaseRepository.findByAgentId(agent.getId()).stream()
-                                .filter(ec -> "DISPUTED_CLAIM".equals(ec.getCaseType()))
-                                .count());
+                dto.setMisconductFlags(toInt(cases.get("AGENT_MISCONDUCT")));
+                dto.setEscalatedCases(toInt(cases.get("ESCALATED_REJECTION")));
+                dto.setDisputedClaims(toInt(cases.get("DISPUTED_CLAIM")));
 
                 // Compliance metrics (placeholder)
                 AgentGovernanceDTO.ComplianceMetrics compliance = new AgentGovernanceDTO.ComplianceMetrics();
@@ -19,7 +19,6 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -34,6 +33,7 @@ public class AgentConsultationService {
     private final NotificationService notificationService;
     private final com.insurai.repository.AgentReviewRepository reviewRepo;
     private final com.insurai.repository.ClaimRepository claimRepo; // New dependency
+    private final AgentRankingIndex rankingIndex;
 
     private static final int SLA_HOURS = 24; // 24-hour SLA for first response
 
@@ -41,7 +41,8 @@ public class AgentConsultationService {
             PolicyRepository policyRepo, UserPolicyRepository userPolicyRepo,
             NotificationService notificationService,
             com.insurai.repository.AgentReviewRepository reviewRepo,
-            com.insurai.repository.ClaimRepository claimRepo) {
+            com.insurai.repository.ClaimRepository claimRepo,
+            AgentRankingIndex rankingIndex) {
         this.bookingRepo = bookingRepo;
         this.userRepo = userRepo;
         this.policyRepo = policyRepo;
@@ -49,6 +50,7 @@ public class AgentConsultationService {
         this.notificationService = notificationService;
         this.reviewRepo = reviewRepo;
         this.claimRepo = claimRepo;
+        this.rankingIndex = rankingIndex;
     }
 
     /**
@@ -200,12 +202,10 @@ public class AgentConsultationService {
         }
 
         // Health risk
-        if (user.getHealthInfo() != null && !user.getHealthInfo().isEmpty()) {
-            if (user.getHealthInfo().toLowerCase().contains("chronic")
-                    || user.getHealthInfo().toLowerCase().contains("disease")) {
-                riskLevel = "MEDIUM";
-                riskReason.append("Pre-existing health conditions noted. ");
-            }
+        if (com.insurai.model.HealthFlags.hasAny(user.getHealthFlags(),
+                com.insurai.model.HealthFlags.CHRONIC | com.insurai.model.HealthFlags.DISEASE)) {
+            riskLevel = "MEDIUM";
+            riskReason.append("Pre-existing health conditions noted. ");
         }
 
         dto.setRiskLevel(riskLevel);
@@ -396,13 +396,11 @@ public class AgentConsultationService {
             performance.setRejectionRate((rejected * 100.0) / completed);
         }
 
-        // Conversion rate (policies that became ACTIVE)
-        List<UserPolicy> userPolicies = userPolicyRepo.findAll().stream()
-                .filter(up -> allBookings.stream()
-                        .anyMatch(b -> b.getUser().getId().equals(up.getUser().getId())))
-                .collect(Collectors.toList());
+        // Conversion rate (policies that became ACTIVE), over the agent's customers only
+        AgentConversionStats customerPolicies = AgentConversionStats.of(allBookings,
+                userPolicyRepo.findCustomerPolicyRowsByAgentId(agentId));
 
-        long activePolicies = userPolicies.stream().filter(up -> "ACTIVE".equals(up.getStatus())).count();
+        long activePolicies = customerPolicies.getActivePolicies();
         if (completed > 0) {
             performance.setConversionRate((activePolicies * 100.0) / completed);
         }
@@ -422,20 +420,10 @@ public class AgentConsultationService {
         performance.setConsultationsThisMonth((int) thisMonth);
 
         // Rejection reasons analysis
-        Map<String, Integer> rejectionReasons = new HashMap<>();
-        userPolicies.stream()
-                .filter(up -> up.getRejectionReason() != null && !up.getRejectionReason().isEmpty())
-                .forEach(up -> {
-                    String reason = up.getRejectionReason();
-                    rejectionReasons.put(reason, rejectionReasons.getOrDefault(reason, 0) + 1);
-                });
-        performance.setRejectionReasons(rejectionReasons);
+        performance.setRejectionReasons(customerPolicies.getRejectionReasons());
 
         // Alternatives recommended
-        long alternatives = userPolicies.stream()
-                .filter(up -> up.getAlternativePolicyIds() != null && !up.getAlternativePolicyIds().isEmpty())
-                .count();
-        performance.setAlternativesRecommended((int) alternatives);
+        performance.setAlternativesRecommended((int) customerPolicies.getAlternativesRecommended());
 
         // --- NEW: Today's Metrics ---
         java.time.LocalDate today = java.time.LocalDate.now();
@@ -508,27 +496,9 @@ public class AgentConsultationService {
 
     private void calculateRankPercentile(AgentPerformanceDTO performance, Long agentId) {
         try {
-            List<User> allAgents = userRepo.findByRole("AGENT");
-            int totalAgents = allAgents.size();
-
-            if (totalAgents <= 1) {
-                performance.setRankPercentile(100); // Only one agent, top rank
-            } else {
-                int myCompleted = performance.getCompletedConsultations();
-                int betterAgents = 0;
-
-                for (User a : allAgents) {
-                    if (!a.getId().equals(agentId)) {
-                        List<Booking> theirBookings = bookingRepo.findByAgentIdAndStatus(a.getId(), "COMPLETED");
-                        int theirCompleted = theirBookings != null ? theirBookings.size() : 0;
-                        if (theirCompleted > myCompleted) {
-                            betterAgents++;
-                        }
-                    }
-                }
-                double percentile = 100.0 * (1.0 - ((double) betterAgents / totalAgents));
-                performance.setRankPercentile((int) percentile);
-            }
+            long totalAgents = userRepo.countByRole("AGENT");
+            performance.setRankPercentile(
+                    rankingIndex.rankPercentile(agentId, performance.getCompletedConsultations(), totalAgents));
         } catch (Exception e) {
             performance.setRankPercentile(50);
         }
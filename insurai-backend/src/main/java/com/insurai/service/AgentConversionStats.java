@@ -0,0 +1,66 @@
+package com.insurai.service;
+
+import com.insurai.model.Booking;
+import com.insurai.repository.UserPolicyRepository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Agent Conversion Stats
+ * Policy outcomes of an agent's customers, computed as a hash join: the
+ * customer ids of the agent's bookings go into a set once, then each policy
+ * row is a single lookup. Linear in bookings + policies.
+ */
+public final class AgentConversionStats {
+
+    private long activePolicies;
+    private final Map<String, Integer> rejectionReasons = new HashMap<>();
+    private long alternativesRecommended;
+
+    private AgentConversionStats() {
+    }
+
+    public static AgentConversionStats of(List<Booking> agentBookings,
+            List<UserPolicyRepository.CustomerPolicyRow> policies) {
+        Set<Long> customerIds = new HashSet<>(agentBookings.size() * 2);
+        for (Booking b : agentBookings) {
+            if (b.getUser() != null) {
+                customerIds.add(b.getUser().getId());
+            }
+        }
+
+        AgentConversionStats stats = new AgentConversionStats();
+        for (UserPolicyRepository.CustomerPolicyRow row : policies) {
+            if (!customerIds.contains(row.getUserId())) {
+                continue;
+            }
+            if ("ACTIVE".equals(row.getStatus())) {
+                stats.activePolicies++;
+            }
+            String reason = row.getRejectionReason();
+            if (reason != null && !reason.isEmpty()) {
+                stats.rejectionReasons.merge(reason, 1, Integer::sum);
+            }
+            if (row.getAlternatives() != null && row.getAlternatives() > 0) {
+                stats.alternativesRecommended++;
+            }
+        }
+        return stats;
+    }
+
+    public long getActivePolicies() {
+        return activePolicies;
+    }
+
+    public Map<String, Integer> getRejectionReasons() {
+        return rejectionReasons;
+    }
+
+    public long getAlternativesRecommended() {
+        return alternativesRecommended;
+    }
+}
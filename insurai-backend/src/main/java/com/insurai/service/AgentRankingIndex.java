@@ -0,0 +1,421 @@
+package com.insurai.service;
+
+import com.insurai.model.Booking;
+import com.insurai.model.User;
+import com.insurai.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Agent Ranking Index
+ * In-memory per-agent booking totals (completed, approved, response time)
+ * behind an immutable snapshot of sorted primitive arrays: rank percentile is
+ * a binary search over completed counts and the leaderboard is a slice of the
+ * approval-rate order.
+ * Counts move with booking inserts, status changes and deletes after commit;
+ * a reseed every 5 minutes picks up writes made on other nodes.
+ */
+@Service
+public class AgentRankingIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentRankingIndex.class);
+
+    private final BookingRepository bookingRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // agentId -> mutable totals; guarded by itself
+    private final Map<Long, Stats> stats = new HashMap<>();
+    private boolean seeded;
+    private volatile Snapshot snapshot; // null = rebuild on next read
+
+    // Booking property name -> index into Hibernate's state arrays
+    private volatile Map<String, Integer> propertyIndexes;
+
+    public AgentRankingIndex(BookingRepository bookingRepository, EntityManagerFactory entityManagerFactory) {
+        this.bookingRepository = bookingRepository;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        BookingListener listener = new BookingListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    /**
+     * Percentage of agents that have not completed more consultations than this one
+     * (100 = top). totalAgents is the number of agents being ranked.
+     */
+    public int rankPercentile(Long agentId, int completed, long totalAgents) {
+        if (totalAgents <= 1) {
+            return 100; // Only one agent, top rank
+        }
+        Snapshot s = snapshot();
+        // Agents strictly above: everything after the last entry <= completed
+        int better = s.completedSorted.length - upperBound(s.completedSorted, completed);
+        int self = s.positionOf(agentId);
+        if (self >= 0 && s.completed[self] > completed) {
+            better--; // the index is slightly ahead of the caller's own count
+        }
+        return (int) (100.0 * (1.0 - ((double) better / totalAgents)));
+    }
+
+    /**
+     * Agents by approval rate, best first (companyId null = all companies)
+     */
+    public Entry[] leaderboard(Long companyId, int limit) {
+        Snapshot s = snapshot();
+        if (companyId == null) {
+            int n = Math.min(limit, s.agentIds.length);
+            Entry[] top = new Entry[n];
+            for (int i = 0; i < n; i++) {
+                top[i] = s.entry(i);
+            }
+            return top;
+        }
+        Entry[] top = new Entry[Math.min(limit, s.agentIds.length)];
+        int n = 0;
+        for (int i = 0; i < s.agentIds.length && n < top.length; i++) {
+            if (s.companyIds[i] == companyId) {
+                top[n++] = s.entry(i);
+            }
+        }
+        return Arrays.copyOf(top, n);
+    }
+
+    /**
+     * Reload all totals from the database
+     */
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000)
+    public void reseed() {
+        Map<Long, Stats> fresh = new HashMap<>();
+        for (BookingRepository.AgentRankingRow row : bookingRepository.aggregateAgentRankingRows()) {
+            Stats st = new Stats();
+            st.companyId = row.getCompanyId() != null ? row.getCompanyId() : 0L;
+            st.total = value(row.getTotal());
+            st.completed = value(row.getCompleted());
+            st.approved = value(row.getApproved());
+            st.responseMinutes = value(row.getResponseMinutes());
+            st.responses = value(row.getResponses());
+            fresh.put(row.getAgentId(), st);
+        }
+        synchronized (stats) {
+            stats.clear();
+            stats.putAll(fresh);
+            seeded = true;
+            snapshot = null;
+        }
+        logger.debug("Agent ranking index seeded with {} agents", fresh.size());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        boolean needsSeed;
+        synchronized (stats) {
+            needsSeed = !seeded;
+        }
+        if (needsSeed) {
+            reseed();
+        }
+        synchronized (stats) {
+            if (snapshot == null) {
+                snapshot = new Snapshot(stats);
+            }
+            return snapshot;
+        }
+    }
+
+    private void onBookingChange(EntityPersister persister, Object[] oldState, Object[] newState) {
+        if (persister.getMappedClass() != Booking.class) {
+            return;
+        }
+        if (propertyIndexes == null) {
+            Map<String, Integer> indexes = new HashMap<>();
+            String[] names = persister.getPropertyNames();
+            for (int i = 0; i < names.length; i++) {
+                indexes.put(names[i], i);
+            }
+            propertyIndexes = indexes;
+        }
+        Contribution before = oldState != null ? contribution(oldState) : null;
+        Contribution after = newState != null ? contribution(newState) : null;
+        if (Objects.equals(before, after)) {
+            return;
+        }
+
+        Runnable apply = () -> {
+            synchronized (stats) {
+                if (!seeded) {
+                    return; // the first read seeds from the database, which already has this change
+                }
+                if (before != null) {
+                    stats.computeIfAbsent(before.agentId, id -> new Stats()).add(before, -1);
+                }
+                if (after != null) {
+                    stats.computeIfAbsent(after.agentId, id -> new Stats()).add(after, 1);
+                }
+                snapshot = null;
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * What one booking adds to its agent's totals, or null if it has no ranked agent
+     */
+    private Contribution contribution(Object[] state) {
+        User agent = (User) state[propertyIndexes.get("agent")];
+        if (agent == null || !"AGENT".equals(agent.getRole())) {
+            return null;
+        }
+        String status = (String) state[propertyIndexes.get("status")];
+        LocalDateTime createdAt = (LocalDateTime) state[propertyIndexes.get("createdAt")];
+        LocalDateTime end = (LocalDateTime) state[propertyIndexes.get("respondedAt")];
+        if (end == null)
+            end = (LocalDateTime) state[propertyIndexes.get("reviewedAt")];
+        if (end == null)
+            end = (LocalDateTime) state[propertyIndexes.get("completedAt")];
+
+        long responseMinutes = -1;
+        if (createdAt != null && end != null && !end.isBefore(createdAt)) {
+            responseMinutes = Duration.between(createdAt, end).toMinutes();
+        }
+        return new Contribution(agent.getId(), agent.getCompany() != null ? agent.getCompany().getId() : 0L,
+                "COMPLETED".equals(status), "APPROVED".equals(status) || "COMPLETED".equals(status),
+                responseMinutes);
+    }
+
+    /** Index of the first element greater than key */
+    private static int upperBound(int[] sorted, int key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long value(Long v) {
+        return v != null ? v : 0L;
+    }
+
+    private record Contribution(long agentId, long companyId, boolean completed, boolean approved,
+            long responseMinutes) {
+    }
+
+    private static final class Stats {
+        private long companyId;
+        private long total;
+        private long completed;
+        private long approved;
+        private long responseMinutes;
+        private long responses;
+
+        private void add(Contribution c, int sign) {
+            if (sign > 0) {
+                companyId = c.companyId; // agents can move between companies
+            }
+            total += sign;
+            if (c.completed)
+                completed += sign;
+            if (c.approved)
+                approved += sign;
+            if (c.responseMinutes >= 0) {
+                responseMinutes += sign * c.responseMinutes;
+                responses += sign;
+            }
+        }
+    }
+
+    /**
+     * Immutable view: parallel arrays in leaderboard order plus sorted completed counts
+     */
+    private static final class Snapshot {
+        private final long[] agentIds;
+        private final long[] companyIds;
+        private final int[] total;
+        private final int[] completed;
+        private final double[] approvalRate;
+        private final double[] averageResponseMinutes;
+        private final int[] completedSorted;
+        private final long[] idsSorted; // agent ids ascending
+        private final int[] positionById; // idsSorted[i] -> leaderboard position
+
+        private Snapshot(Map<Long, Stats> stats) {
+            int n = 0;
+            long[] ids = new long[stats.size()];
+            Stats[] values = new Stats[stats.size()];
+            for (Map.Entry<Long, Stats> e : stats.entrySet()) {
+                if (e.getValue().total <= 0) {
+                    continue;
+                }
+                ids[n] = e.getKey();
+                values[n] = e.getValue();
+                n++;
+            }
+
+            double[] rates = new double[n];
+            for (int i = 0; i < n; i++) {
+                rates[i] = (double) values[i].approved / values[i].total * 100;
+            }
+            Integer[] byRate = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                byRate[i] = i;
+            }
+            Arrays.sort(byRate, (a, b) -> Double.compare(rates[b], rates[a]));
+
+            agentIds = new long[n];
+            companyIds = new long[n];
+            total = new int[n];
+            completed = new int[n];
+            approvalRate = new double[n];
+            averageResponseMinutes = new double[n];
+            completedSorted = new int[n];
+            for (int i = 0; i < n; i++) {
+                Stats st = values[byRate[i]];
+                agentIds[i] = ids[byRate[i]];
+                companyIds[i] = st.companyId;
+                total[i] = (int) st.total;
+                completed[i] = (int) st.completed;
+                approvalRate[i] = rates[byRate[i]];
+                averageResponseMinutes[i] = st.responses > 0 ? (double) st.responseMinutes / st.responses : 0;
+                completedSorted[i] = completed[i];
+            }
+            Arrays.sort(completedSorted);
+
+            Integer[] byId = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                byId[i] = i;
+            }
+            Arrays.sort(byId, (a, b) -> Long.compare(agentIds[a], agentIds[b]));
+            idsSorted = new long[n];
+            positionById = new int[n];
+            for (int i = 0; i < n; i++) {
+                idsSorted[i] = agentIds[byId[i]];
+                positionById[i] = byId[i];
+            }
+        }
+
+        private int positionOf(Long agentId) {
+            if (agentId == null) {
+                return -1;
+            }
+            int i = Arrays.binarySearch(idsSorted, agentId);
+            return i >= 0 ? positionById[i] : -1;
+        }
+
+        private Entry entry(int i) {
+            return new Entry(agentIds[i], total[i], completed[i], approvalRate[i], averageResponseMinutes[i]);
+        }
+    }
+
+    /**
+     * One leaderboard row
+     */
+    public static final class Entry {
+        private final long agentId;
+        private final int totalConsultations;
+        private final int completedConsultations;
+        private final double approvalRate;
+        private final double averageResponseMinutes;
+
+        private Entry(long agentId, int totalConsultations, int completedConsultations, double approvalRate,
+                double averageResponseMinutes) {
+            this.agentId = agentId;
+            this.totalConsultations = totalConsultations;
+            this.completedConsultations = completedConsultations;
+            this.approvalRate = approvalRate;
+            this.averageResponseMinutes = averageResponseMinutes;
+        }
+
+        public long getAgentId() {
+            return agentId;
+        }
+
+        public int getTotalConsultations() {
+            return totalConsultations;
+        }
+
+        public int getCompletedConsultations() {
+            return completedConsultations;
+        }
+
+        public double getApprovalRate() {
+            return approvalRate;
+        }
+
+        public double getAverageResponseMinutes() {
+            return averageResponseMinutes;
+        }
+    }
+
+    private final class BookingListener
+            implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            onBookingChange(event.getPersister(), null, event.getState());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getOldState() != null) {
+                onBookingChange(event.getPersister(), event.getOldState(), event.getState());
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            onBookingChange(event.getPersister(), event.getDeletedState(), null);
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.insurai.service;
+
+import com.insurai.model.Booking;
+import com.insurai.model.User;
+import com.insurai.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agent Schedule Index
+ * Per-agent interval tree of the bookings that still occupy the agent's time
+ * (anything not cancelled, rejected or expired). A schedule is loaded from the
+ * database on first use and then follows booking inserts, updates and deletes
+ * after commit. It only sees this node's commits, so schedules are reloaded
+ * once they are 5 minutes old and dropped after 30 idle minutes.
+ * This is a pre-check and a search structure only: a hit is confirmed against
+ * the database before a caller refuses, and callers still run the database
+ * conflict query before writing.
+ */
+@Service
+public class AgentScheduleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentScheduleIndex.class);
+
+    private static final Set<String> FREE_STATUSES = Set.of("CANCELLED", "REJECTED", "EXPIRED");
+    private static final long IDLE_MILLIS = Duration.ofMinutes(30).toMillis();
+    private static final long MAX_AGE_MILLIS = Duration.ofMinutes(5).toMillis();
+    private static final int LOAD_ATTEMPTS = 3;
+
+    private final BookingRepository bookingRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Map<Long, Schedule> schedules = new ConcurrentHashMap<>();
+    // agentId -> committed changes seen; a load is only kept if none arrived while it ran. Guarded by itself.
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    // Booking property name -> index into Hibernate's state arrays
+    private volatile Map<String, Integer> propertyIndexes;
+
+    public AgentScheduleIndex(BookingRepository bookingRepository, EntityManagerFactory entityManagerFactory) {
+        this.bookingRepository = bookingRepository;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        BookingListener listener = new BookingListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    /**
+     * True if an upcoming booking of the agent (other than excludeBookingId)
+     * overlaps [start, end). Bookings that have already started are left to the
+     * database check, since expiry on another node can free them unseen here.
+     * A hit in memory is confirmed with the conflict query; if the database
+     * disagrees, the schedule is stale and is reloaded on next use.
+     */
+    public boolean hasUpcomingConflict(Long agentId, LocalDateTime start, LocalDateTime end, Long excludeBookingId) {
+        long now = toKey(LocalDateTime.now());
+        long exclude = excludeBookingId != null ? excludeBookingId : Long.MIN_VALUE;
+        Schedule schedule = schedule(agentId);
+        boolean[] found = { false };
+        synchronized (schedule) {
+            schedule.tree.forEachOverlapping(toKey(start), toKey(end), id -> {
+                if (id != exclude && schedule.starts.get(id) > now) {
+                    found[0] = true;
+                }
+            });
+        }
+        if (!found[0]) {
+            return false;
+        }
+        boolean taken = bookingRepository.findConflicts(agentId, start, end).stream()
+                .anyMatch(b -> !b.getId().equals(excludeBookingId));
+        if (!taken) {
+            logger.debug("Schedule for agent {} was stale, reloading", agentId);
+            schedules.remove(agentId, schedule);
+        }
+        return taken;
+    }
+
+    /**
+     * Free slots of the given length for one agent, earliest first. Candidate
+     * starts are dayStart + k * step on each day in [from, to), must lie after
+     * now, and the whole slot must end by dayEnd and by to.
+     */
+    public List<LocalDateTime> freeSlots(Long agentId, LocalDateTime from, LocalDateTime to, Duration length,
+            Duration step, LocalTime dayStart, LocalTime dayEnd, int limit) {
+        List<LocalDateTime> slots = new ArrayList<>();
+        if (limit <= 0 || !from.isBefore(to)) {
+            return slots;
+        }
+        long now = toKey(LocalDateTime.now());
+        long lengthSeconds = length.getSeconds();
+        long stepSeconds = step.getSeconds();
+        long toKey = toKey(to);
+
+        long first = Math.max(toKey(from), now + 1);
+
+        Schedule schedule = schedule(agentId);
+        synchronized (schedule) {
+            for (LocalDate day = from.toLocalDate(); slots.size() < limit; day = day.plusDays(1)) {
+                long open = toKey(day.atTime(dayStart));
+                long close = Math.min(toKey(day.atTime(dayEnd)), toKey);
+                if (open >= toKey) {
+                    break;
+                }
+                long t = open;
+                if (t < first) {
+                    t = open + ceilDiv(first - open, stepSeconds) * stepSeconds;
+                }
+                while (t + lengthSeconds <= close && slots.size() < limit) {
+                    long busyUntil = schedule.tree.firstEndOverlapping(t, t + lengthSeconds);
+                    if (busyUntil == Long.MIN_VALUE) {
+                        slots.add(fromKey(t));
+                        t += stepSeconds;
+                    } else {
+                        // Skip straight to the first grid point at or after the earliest blocking end
+                        t = open + Math.max(ceilDiv(busyUntil - open, stepSeconds), (t - open) / stepSeconds + 1)
+                                * stepSeconds;
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Number of agents whose schedules are currently held in memory
+     */
+    public int loadedAgents() {
+        return schedules.size();
+    }
+
+    /**
+     * Drop schedules nobody has asked about recently, or that are due a reload;
+     * they reload on next use
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        schedules.values().removeIf(s -> s.lastUsed < now - IDLE_MILLIS || s.loadedAt < now - MAX_AGE_MILLIS);
+    }
+
+    private Schedule schedule(Long agentId) {
+        Schedule schedule = schedules.get(agentId);
+        if (schedule != null && System.currentTimeMillis() - schedule.loadedAt > MAX_AGE_MILLIS) {
+            // Busy agents are never idle; bound how long another node's changes can go unseen
+            schedules.remove(agentId, schedule);
+            schedule = null;
+        }
+        if (schedule == null) {
+            schedule = load(agentId);
+        }
+        schedule.lastUsed = System.currentTimeMillis();
+        return schedule;
+    }
+
+    private Schedule load(Long agentId) {
+        for (int attempt = 1; ; attempt++) {
+            long version;
+            synchronized (versions) {
+                version = versions.getOrDefault(agentId, 0L);
+            }
+            Schedule loaded = new Schedule();
+            for (BookingRepository.BookingInterval row : bookingRepository.findScheduleIntervals(agentId,
+                    LocalDateTime.now())) {
+                loaded.put(row.getId(), toKey(row.getStartTime()), toKey(row.getEndTime()));
+            }
+            synchronized (versions) {
+                Schedule existing = schedules.get(agentId);
+                if (existing != null) {
+                    return existing;
+                }
+                if (versions.getOrDefault(agentId, 0L) == version) {
+                    schedules.put(agentId, loaded);
+                    return loaded;
+                }
+            }
+            if (attempt >= LOAD_ATTEMPTS) {
+                // Keeps changing under us; answer from this read without caching it
+                logger.debug("Schedule for agent {} changed during load, not cached", agentId);
+                return loaded;
+            }
+        }
+    }
+
+    private void onBookingChange(EntityPersister persister, Object id, Object[] oldState, Object[] newState) {
+        if (persister.getMappedClass() != Booking.class || !(id instanceof Long bookingId)) {
+            return;
+        }
+        if (propertyIndexes == null) {
+            Map<String, Integer> indexes = new HashMap<>();
+            String[] names = persister.getPropertyNames();
+            for (int i = 0; i < names.length; i++) {
+                indexes.put(names[i], i);
+            }
+            propertyIndexes = indexes;
+        }
+        Slot before = oldState != null ? slot(oldState) : null;
+        Slot after = newState != null ? slot(newState) : null;
+        if (oldState != null && Objects.equals(before, after)) {
+            return;
+        }
+
+        Runnable apply = () -> {
+            if (before != null) {
+                change(before.agentId, bookingId, null);
+            }
+            if (after != null) {
+                change(after.agentId, bookingId, after);
+            } else if (oldState == null && newState != null) {
+                // No old state to diff against: make sure the agent holds no stale copy
+                Long agentId = agentId(newState);
+                if (agentId != null) {
+                    change(agentId, bookingId, null);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void change(long agentId, long bookingId, Slot slot) {
+        Schedule schedule;
+        synchronized (versions) {
+            versions.merge(agentId, 1L, Long::sum);
+            schedule = schedules.get(agentId);
+        }
+        if (schedule != null) {
+            synchronized (schedule) {
+                schedule.remove(bookingId);
+                if (slot != null) {
+                    schedule.put(bookingId, slot.start, slot.end);
+                }
+            }
+        }
+    }
+
+    /**
+     * The time a booking occupies, or null if it has no agent or no longer blocks the slot
+     */
+    private Slot slot(Object[] state) {
+        Long agentId = agentId(state);
+        LocalDateTime start = (LocalDateTime) state[propertyIndexes.get("startTime")];
+        LocalDateTime end = (LocalDateTime) state[propertyIndexes.get("endTime")];
+        String status = (String) state[propertyIndexes.get("status")];
+        if (agentId == null || start == null || end == null || FREE_STATUSES.contains(status)) {
+            return null;
+        }
+        return new Slot(agentId, toKey(start), toKey(end));
+    }
+
+    private Long agentId(Object[] state) {
+        User agent = (User) state[propertyIndexes.get("agent")];
+        return agent != null ? agent.getId() : null;
+    }
+
+    private static long toKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fromKey(long key) {
+        return LocalDateTime.ofEpochSecond(key, 0, ZoneOffset.UTC);
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    private record Slot(long agentId, long start, long end) {
+    }
+
+    /**
+     * One agent's intervals; guarded by itself
+     */
+    private static final class Schedule {
+        private final IntervalTree tree = new IntervalTree();
+        private final Map<Long, Long> starts = new HashMap<>(); // bookingId -> start key
+        private final long loadedAt = System.currentTimeMillis();
+        private volatile long lastUsed = loadedAt;
+
+        private void put(long bookingId, long start, long end) {
+            if (end <= start) {
+                return;
+            }
+            remove(bookingId);
+            tree.insert(bookingId, start, end);
+            starts.put(bookingId, start);
+        }
+
+        private void remove(long bookingId) {
+            Long start = starts.remove(bookingId);
+            if (start != null) {
+                tree.remove(bookingId, start);
+            }
+        }
+    }
+
+    private final class BookingListener
+            implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            onBookingChange(event.getPersister(), event.getId(), null, event.getState());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            onBookingChange(event.getPersister(), event.getId(), event.getOldState(), event.getState());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            onBookingChange(event.getPersister(), event.getId(), event.getDeletedState(), null);
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
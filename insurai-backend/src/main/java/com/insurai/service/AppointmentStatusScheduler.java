@@ -26,7 +26,7 @@ public class AppointmentStatusScheduler {
     public void updateStatuses() {
         LocalDateTime now = LocalDateTime.now();
 
-        // Status updates (expire/complete) are handled by SchedulerService.java
+        // Expiry is handled by BookingExpiryScheduler
         // We only handle reminders here to avoid duplicate processing.
 
         // Reminders (T-24h)
@@ -329,7 +329,7 @@ public class AppointmentWorkflowService {
                                                 && !response.getAlternativePolicies().isEmpty())
                                                                 ? aiRecommendationEngine
                                                                                 .getRecommendations(booking.getUser(),
-                                                                                                booking.getPolicy(), 3)
+                                                                                                booking.getPolicy(), 3, true)
                                                                                 .stream()
                                                                                 .map(AIRecommendationEngine.PolicyRecommendation::getPolicy)
                                                                                 .collect(Collectors.toList())
@@ -1,16 +1,22 @@
 package com.insurai.service;
 
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import com.insurai.model.AuditLog;
 import com.insurai.repository.AuditLogRepository;
 
+import java.sql.Timestamp;
+import java.util.List;
+
 @Service
 public class AuditService {
   private final AuditLogRepository repo;
+  private final JdbcTemplate jdbcTemplate;
 
-  public AuditService(AuditLogRepository repo) {
+  public AuditService(AuditLogRepository repo, JdbcTemplate jdbcTemplate) {
     this.repo = repo;
+    this.jdbcTemplate = jdbcTemplate;
   }
 
   public void log(String action, Long userId) {
@@ -29,4 +35,32 @@ public class AuditService {
 
     repo.save(l);
   }
+
+  /**
+   * Insert many entries as one JDBC batch (identity ids keep Hibernate from batching saveAll)
+   */
+  public void logAll(List<AuditLog> entries) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate("""
+        INSERT INTO audit_logs (action, entity_type, entity_id, performed_by, performed_by_role,
+            performed_by_name, details, previous_state, new_state, timestamp, severity, success, user_id)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """, entries, entries.size(), (ps, l) -> {
+      ps.setString(1, l.getAction());
+      ps.setString(2, l.getEntityType());
+      ps.setLong(3, l.getEntityId());
+      ps.setLong(4, l.getPerformedBy());
+      ps.setString(5, l.getPerformedByRole());
+      ps.setString(6, l.getPerformedByName());
+      ps.setString(7, l.getDetails());
+      ps.setString(8, l.getPreviousState());
+      ps.setString(9, l.getNewState());
+      ps.setTimestamp(10, Timestamp.valueOf(l.getTimestamp()));
+      ps.setString(11, l.getSeverity());
+      ps.setBoolean(12, Boolean.TRUE.equals(l.getSuccess()));
+      ps.setObject(13, l.getUserId());
+    });
+  }
 }
@@ -0,0 +1,87 @@
+package com.insurai.service;
+
+import com.insurai.model.Booking;
+import com.insurai.repository.BookingRepository;
+import com.insurai.repository.UserRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Booking Admission
+ * Conflict check and insert for one agent's time, serialized per agent only.
+ * Within a node, requests for the same agent queue on one of a fixed set of
+ * striped locks, so they wait in memory instead of each holding a connection.
+ * Across nodes, the transaction takes a row lock on the agent before checking
+ * conflicts, and holds it until the booking commits. Requests for different
+ * agents never wait on each other, apart from the rare shared stripe.
+ */
+@Service
+public class BookingAdmission {
+
+    private static final int STRIPES = 256; // power of two
+    private static final long LOCK_WAIT_SECONDS = 10;
+
+    private final BookingRepository bookingRepo;
+    private final UserRepository userRepo;
+    private final TransactionTemplate transaction;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public BookingAdmission(BookingRepository bookingRepo, UserRepository userRepo,
+            PlatformTransactionManager transactionManager) {
+        this.bookingRepo = bookingRepo;
+        this.userRepo = userRepo;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setTimeout((int) LOCK_WAIT_SECONDS);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Save the booking if no other booking of the agent overlaps [start, end).
+     * excludeBookingId is the booking being moved, if any. Throws 409 with
+     * conflictMessage when the slot is taken.
+     */
+    public Booking admit(Long agentId, LocalDateTime start, LocalDateTime end, Long excludeBookingId,
+            Supplier<Booking> booking, String conflictMessage) {
+        ReentrantLock lock = lockFor(agentId);
+        try {
+            if (!lock.tryLock(LOCK_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Agent calendar is busy, please try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Booking interrupted");
+        }
+        try {
+            return transaction.execute(status -> {
+                // Lock first: the conflict query below then reads after any booking committed before us
+                userRepo.lockById(agentId)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Agent not found"));
+                boolean taken = bookingRepo.findConflicts(agentId, start, end).stream()
+                        .anyMatch(b -> excludeBookingId == null || !excludeBookingId.equals(b.getId()));
+                if (taken) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, conflictMessage);
+                }
+                return bookingRepo.save(booking.get());
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Long agentId) {
+        int h = Long.hashCode(agentId);
+        h ^= (h >>> 16);
+        return locks[h & (STRIPES - 1)];
+    }
+}
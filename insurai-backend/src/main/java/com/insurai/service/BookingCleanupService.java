@@ -13,7 +13,7 @@ import java.util.List;
 
 /**
  * Booking Cleanup Service
- * Handles automated cleanup and expiry of bookings
+ * Handles automated cleanup of bookings; expiry runs on BookingExpiryScheduler
  */
 @Service
 public class BookingCleanupService {
@@ -21,108 +21,18 @@ public class BookingCleanupService {
     private static final Logger logger = LoggerFactory.getLogger(BookingCleanupService.class);
 
     private final BookingRepository bookingRepository;
-    private final NotificationService notificationService;
+    private final BookingExpiryScheduler expiryScheduler;
 
-    // SLA Configuration (in hours)
-    private static final int PENDING_EXPIRY_HOURS = 48; // 2 days
-    private static final int CONFIRMED_EXPIRY_HOURS = 72; // 3 days
+    // SLA Configuration (expiry hours live on BookingExpiryScheduler)
+    private static final int PENDING_EXPIRY_HOURS = BookingExpiryScheduler.PENDING_EXPIRY_HOURS;
+    private static final int CONFIRMED_EXPIRY_HOURS = BookingExpiryScheduler.CONFIRMED_EXPIRY_HOURS;
     private static final int COMPLETED_AUTO_CLOSE_DAYS = 7; // 7 days
 
     public BookingCleanupService(
             BookingRepository bookingRepository,
-            NotificationService notificationService) {
+            BookingExpiryScheduler expiryScheduler) {
         this.bookingRepository = bookingRepository;
-        this.notificationService = notificationService;
-    }
-
-    /**
-     * Run every hour to check for expired bookings
-     * Cron: 0 0 * * * * = Every hour at minute 0
-     */
-    @Scheduled(cron = "0 0 * * * *")
-    @Transactional
-    public void expireUnattendedBookings() {
-        logger.info("Starting scheduled task: Expire unattended bookings");
-
-        int expiredCount = 0;
-
-        // Expire PENDING bookings older than 48 hours
-        expiredCount += expirePendingBookings();
-
-        // Expire CONFIRMED bookings with no completion after 72 hours
-        expiredCount += expireConfirmedBookings();
-
-        logger.info("Completed scheduled task: Expired {} bookings", expiredCount);
-    }
-
-    /**
-     * Expire PENDING bookings that haven't been confirmed within SLA
-     */
-    private int expirePendingBookings() {
-        LocalDateTime expiryThreshold = LocalDateTime.now().minusHours(PENDING_EXPIRY_HOURS);
-        List<Booking> pendingBookings = bookingRepository.findByStatus("PENDING");
-
-        int count = 0;
-        for (Booking booking : pendingBookings) {
-            if (booking.getCreatedAt().isBefore(expiryThreshold)) {
-                booking.setStatus("EXPIRED");
-                booking.setSlaBreached(true);
-                bookingRepository.save(booking);
-
-                // Notify user
-                if (booking.getUser() != null) {
-                    notificationService.createNotification(
-                            booking.getUser(),
-                            "Your consultation request has expired due to no agent response within 48 hours. Please submit a new request.",
-                            "WARNING");
-                }
-
-                count++;
-                logger.debug("Expired PENDING booking ID: {} (created: {})",
-                        booking.getId(), booking.getCreatedAt());
-            }
-        }
-
-        return count;
-    }
-
-    /**
-     * Expire CONFIRMED bookings that weren't completed within SLA
-     */
-    private int expireConfirmedBookings() {
-        LocalDateTime expiryThreshold = LocalDateTime.now().minusHours(CONFIRMED_EXPIRY_HOURS);
-        List<Booking> confirmedBookings = bookingRepository.findByStatus("CONFIRMED");
-
-        int count = 0;
-        for (Booking booking : confirmedBookings) {
-            // Check if appointment time has passed
-            if (booking.getStartTime() != null && booking.getStartTime().isBefore(expiryThreshold)) {
-                booking.setStatus("EXPIRED");
-                booking.setSlaBreached(true);
-                bookingRepository.save(booking);
-
-                // Notify user and agent
-                if (booking.getUser() != null) {
-                    notificationService.createNotification(
-                            booking.getUser(),
-                            "Your scheduled consultation has expired. Please reschedule if still interested.",
-                            "WARNING");
-                }
-
-                if (booking.getAgent() != null) {
-                    notificationService.createNotification(
-                            booking.getAgent(),
-                            "Confirmed appointment ID " + booking.getId() + " has expired due to no completion.",
-                            "INFO");
-                }
-
-                count++;
-                logger.debug("Expired CONFIRMED booking ID: {} (scheduled: {})",
-                        booking.getId(), booking.getStartTime());
-            }
-        }
-
-        return count;
+        this.expiryScheduler = expiryScheduler;
     }
 
     /**
@@ -189,11 +99,12 @@ public class BookingCleanupService {
 
     /**
      * Manual cleanup trigger (for admin use)
+     * Reloads the expiry deadlines from the database and fires any that are due
      */
-    @Transactional
     public void manualCleanup() {
         logger.info("Manual cleanup triggered");
-        expireUnattendedBookings();
+        expiryScheduler.reload();
+        expiryScheduler.tick();
         autoCloseCompletedBookings();
     }
 
@@ -0,0 +1,176 @@
+package com.insurai.service;
+
+import com.insurai.dto.BulkBookingDecisionResponse;
+import com.insurai.event.DomainEvent;
+import com.insurai.model.Booking;
+import com.insurai.model.User;
+import com.insurai.repository.BookingRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Booking Decision Service
+ * Approve or reject many bookings in one request. The bookings are locked and
+ * loaded with two queries and validated one by one. Accepted changes go out
+ * as batched JDBC updates at commit. Audit rows and user notifications follow
+ * as one event after commit. Items that fail validation are reported and
+ * skipped; they do not abort the rest.
+ */
+@Service
+public class BookingDecisionService {
+
+    public static final int MAX_BATCH = 500;
+
+    private static final Set<String> DECISIONS = Set.of("APPROVED", "REJECTED");
+    private static final Set<String> OPEN_STATUSES = Set.of("PENDING", "APPROVED", "CONSULTED");
+
+    private final BookingRepository bookingRepo;
+    private final GoogleCalendarService calendarService;
+    private final AIService aiService;
+    private final DomainEventBus eventBus;
+
+    public BookingDecisionService(BookingRepository bookingRepo, GoogleCalendarService calendarService,
+            AIService aiService, DomainEventBus eventBus) {
+        this.bookingRepo = bookingRepo;
+        this.calendarService = calendarService;
+        this.aiService = aiService;
+        this.eventBus = eventBus;
+    }
+
+    @Transactional
+    public BulkBookingDecisionResponse decide(User actor, List<Long> bookingIds, String status, String reason) {
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bookingIds is required");
+        }
+        if (bookingIds.size() > MAX_BATCH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH + " bookings per request");
+        }
+        if (status == null || !DECISIONS.contains(status)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Status must be APPROVED or REJECTED");
+        }
+        if ("REJECTED".equals(status) && (reason == null || reason.isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rejection reason is mandatory.");
+        }
+        checkActor(actor);
+
+        Set<Long> ids = bookingIds.stream().filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Booking> bookings = new HashMap<>();
+        if (!ids.isEmpty()) {
+            bookingRepo.lockIds(ids);
+            for (Booking b : bookingRepo.findAllWithPartiesByIdIn(ids)) {
+                bookings.put(b.getId(), b);
+            }
+        }
+
+        BulkBookingDecisionResponse response = new BulkBookingDecisionResponse();
+        response.setStatus(status);
+        response.setRequested(ids.size());
+        List<DomainEvent.BookingsDecided.Decided> decided = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            String error = booking == null ? "Booking not found" : validate(actor, booking);
+            if (error != null) {
+                response.getResults().add(new BulkBookingDecisionResponse.Item(id, false,
+                        booking != null ? booking.getStatus() : null, error));
+                continue;
+            }
+
+            String previousStatus = booking.getStatus();
+            apply(booking, status, reason, now);
+            decided.add(new DomainEvent.BookingsDecided.Decided(id, booking.getUser(), previousStatus));
+            response.getResults().add(new BulkBookingDecisionResponse.Item(id, true, status, null));
+        }
+
+        response.setApplied(decided.size());
+        response.setFailed(ids.size() - decided.size());
+        if (!decided.isEmpty()) {
+            eventBus.publish(new DomainEvent.BookingsDecided(actor, status, reason, decided));
+        }
+        return response;
+    }
+
+    private void checkActor(User actor) {
+        String role = actor.getRole();
+        if ("AGENT".equals(role)) {
+            if (Boolean.FALSE.equals(actor.getIsActive())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account is deactivated. Contact Admin.");
+            }
+            if (Boolean.FALSE.equals(actor.getAvailable())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                        "You are currently offline. Go Online to perform actions.");
+            }
+        } else if (!"SUPER_ADMIN".equals(role) && !"COMPANY_ADMIN".equals(role)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+    }
+
+    /**
+     * Why the actor cannot decide this booking, or null if they can
+     */
+    private String validate(User actor, Booking booking) {
+        User agent = booking.getAgent();
+        if ("AGENT".equals(actor.getRole())) {
+            if (agent == null || !actor.getId().equals(agent.getId())) {
+                return "Booking is not assigned to you";
+            }
+        } else if ("COMPANY_ADMIN".equals(actor.getRole())) {
+            Long companyId = actor.getCompany() != null ? actor.getCompany().getId() : null;
+            if (companyId == null || agent == null || agent.getCompany() == null
+                    || !companyId.equals(agent.getCompany().getId())) {
+                return "Booking does not belong to your company";
+            }
+        }
+        if (!OPEN_STATUSES.contains(booking.getStatus())) {
+            return "Booking is already processed (Current status: " + booking.getStatus() + ")";
+        }
+        return null;
+    }
+
+    /**
+     * Same field changes as a single decision through the agent appointment endpoint
+     */
+    private void apply(Booking booking, String status, String reason, LocalDateTime now) {
+        if ("APPROVED".equals(status)) {
+            if (booking.getRespondedAt() == null) {
+                booking.setRespondedAt(now);
+            }
+            if (booking.getMeetingLink() == null) {
+                booking.setMeetingLink(calendarService.createMeeting(
+                        "Consultation: " + booking.getUser().getName(),
+                        booking.getPolicy() != null ? "Policy Purchase Discussion: " + booking.getPolicy().getName()
+                                : "General Consultation",
+                        booking.getStartTime().toString(),
+                        booking.getEndTime().toString(),
+                        booking.getUser().getEmail(),
+                        booking.getAgent().getEmail()));
+            }
+        } else {
+            booking.setCompletedAt(now);
+            booking.setRejectionReason(reason);
+            if (booking.getPolicy() != null) {
+                var analysis = aiService.analyzeRejection(reason, booking.getUser(), booking.getPolicy());
+                booking.setRiskScore(analysis.riskScore());
+                booking.setAiAnalysis(
+                        "Explanation: " + analysis.explanation() + " | Recommendations: " + analysis.recommendations()
+                                .stream().map(r -> r.policyName()).collect(Collectors.joining(", ")));
+            }
+        }
+        booking.setStatus(status);
+    }
+}
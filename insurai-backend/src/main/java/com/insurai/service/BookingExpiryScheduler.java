@@ -0,0 +1,296 @@
+package com.insurai.service;
+
+import com.insurai.event.DomainEvent;
+import com.insurai.model.Booking;
+import com.insurai.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking Expiry Scheduler
+ * One deadline per open booking, held in a hashed timing wheel with one-second
+ * ticks:
+ * - PENDING expires when its start time passes, or 48 hours after creation
+ *   without an agent response (SLA breach), whichever comes first
+ * - APPROVED expires when its end time passes without the agent acting
+ * - CONFIRMED expires 72 hours after its start time if never completed (SLA breach)
+ * The wheel is loaded from the open bookings at startup and follows every
+ * booking insert, update and delete after commit. It ticks on its own thread,
+ * so long jobs on the shared Spring scheduler cannot delay expiry. Due
+ * bookings are locked, re-checked against their current state and saved as
+ * EXPIRED, so entity listeners (rollups, ranking, schedules) see the change
+ * and nodes that fire the same booking cannot both expire it.
+ */
+@Service
+public class BookingExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExpiryScheduler.class);
+
+    static final int PENDING_EXPIRY_HOURS = 48;
+    static final int CONFIRMED_EXPIRY_HOURS = 72;
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SLOTS = 4096; // ~68 minutes per revolution
+    private static final int BATCH_SIZE = 200;
+    private static final long RETRY_MILLIS = 60000;
+
+    private final BookingRepository bookingRepo;
+    private final DomainEventBus eventBus;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transaction;
+    private final HashedTimingWheel wheel = new HashedTimingWheel(TICK_MILLIS, WHEEL_SLOTS,
+            System.currentTimeMillis());
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "booking-expiry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Booking property name -> index into Hibernate's state arrays
+    private volatile Map<String, Integer> propertyIndexes;
+
+    public BookingExpiryScheduler(BookingRepository bookingRepo, DomainEventBus eventBus,
+            EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager) {
+        this.bookingRepo = bookingRepo;
+        this.eventBus = eventBus;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        BookingListener listener = new BookingListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    /**
+     * When an open booking should expire, or null if it never does in its current state
+     */
+    static LocalDateTime deadline(String status, LocalDateTime createdAt, LocalDateTime startTime,
+            LocalDateTime endTime) {
+        if ("PENDING".equals(status)) {
+            LocalDateTime sla = createdAt != null ? createdAt.plusHours(PENDING_EXPIRY_HOURS) : null;
+            if (startTime == null || (sla != null && sla.isBefore(startTime))) {
+                return sla;
+            }
+            return startTime;
+        }
+        if ("APPROVED".equals(status)) {
+            return endTime;
+        }
+        if ("CONFIRMED".equals(status)) {
+            return startTime != null ? startTime.plusHours(CONFIRMED_EXPIRY_HOURS) : null;
+        }
+        return null;
+    }
+
+    /**
+     * Load the deadlines, then start ticking
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                // An escaping exception would cancel the schedule
+                logger.error("Booking expiry tick failed", e);
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Load every open booking's deadline; runs at startup and on manual cleanup
+     */
+    public void reload() {
+        wheel.clear();
+        int scheduled = 0;
+        for (BookingRepository.ExpiryCandidate c : bookingRepo.findExpiryCandidates()) {
+            LocalDateTime deadline = deadline(c.getStatus(), c.getCreatedAt(), c.getStartTime(), c.getEndTime());
+            if (deadline != null) {
+                wheel.schedule(c.getId(), toMillis(deadline));
+                scheduled++;
+            }
+        }
+        logger.info("Booking expiry wheel loaded with {} deadlines", scheduled);
+    }
+
+    /**
+     * Fire the deadlines that have passed since the last tick
+     */
+    public void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += BATCH_SIZE) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + BATCH_SIZE));
+            try {
+                int expired = transaction.execute(status -> expire(batch));
+                if (expired > 0) {
+                    logger.info("SYSTEM_AUTO_EXPIRED: {} bookings at {}", expired, LocalDateTime.now());
+                }
+            } catch (RuntimeException e) {
+                logger.error("Booking expiry failed for {} bookings, retrying in {} ms", batch.size(),
+                        RETRY_MILLIS, e);
+                long retryAt = System.currentTimeMillis() + RETRY_MILLIS;
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    /**
+     * Safety net for deadlines this node never heard about (bookings written on another
+     * node that has since stopped): one indexed query for overdue open bookings
+     */
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000)
+    public void sweepOverdue() {
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = System.currentTimeMillis();
+        for (Long id : bookingRepo.findOverdueIds(now, now.minusHours(PENDING_EXPIRY_HOURS),
+                now.minusHours(CONFIRMED_EXPIRY_HOURS))) {
+            wheel.schedule(id, nowMillis);
+        }
+    }
+
+    /**
+     * Deadlines currently held
+     */
+    public int scheduledCount() {
+        return wheel.size();
+    }
+
+    private int expire(List<Long> ids) {
+        bookingRepo.lockIds(ids);
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        for (Booking booking : bookingRepo.findAllWithPartiesByIdIn(ids)) {
+            String previousStatus = booking.getStatus();
+            LocalDateTime deadline = deadline(previousStatus, booking.getCreatedAt(), booking.getStartTime(),
+                    booking.getEndTime());
+            if (deadline == null) {
+                continue; // moved on since it was scheduled
+            }
+            if (deadline.isAfter(now)) {
+                wheel.schedule(booking.getId(), toMillis(deadline)); // e.g. rescheduled on another node
+                continue;
+            }
+
+            // Which rule fired decides whether the SLA was breached
+            boolean slaBreached = "CONFIRMED".equals(previousStatus)
+                    || ("PENDING".equals(previousStatus) && booking.getCreatedAt() != null
+                            && !booking.getCreatedAt().plusHours(PENDING_EXPIRY_HOURS).isAfter(now));
+            booking.setStatus("EXPIRED");
+            if (slaBreached) {
+                booking.setSlaBreached(true);
+            }
+            bookingRepo.save(booking);
+            eventBus.publish(new DomainEvent.BookingExpired(booking.getId(), booking.getUser(), booking.getAgent(),
+                    previousStatus, slaBreached));
+            expired++;
+        }
+        return expired;
+    }
+
+    private void onBookingChange(EntityPersister persister, Object id, Object[] state) {
+        if (persister.getMappedClass() != Booking.class || !(id instanceof Long bookingId)) {
+            return;
+        }
+        if (propertyIndexes == null) {
+            Map<String, Integer> indexes = new HashMap<>();
+            String[] names = persister.getPropertyNames();
+            for (int i = 0; i < names.length; i++) {
+                indexes.put(names[i], i);
+            }
+            propertyIndexes = indexes;
+        }
+        LocalDateTime deadline = state == null ? null
+                : deadline((String) state[propertyIndexes.get("status")],
+                        (LocalDateTime) state[propertyIndexes.get("createdAt")],
+                        (LocalDateTime) state[propertyIndexes.get("startTime")],
+                        (LocalDateTime) state[propertyIndexes.get("endTime")]);
+
+        Runnable apply = () -> {
+            if (deadline != null) {
+                wheel.schedule(bookingId, toMillis(deadline));
+            } else {
+                wheel.cancel(bookingId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private final class BookingListener
+            implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            onBookingChange(event.getPersister(), event.getId(), event.getState());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            onBookingChange(event.getPersister(), event.getId(), event.getState());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            onBookingChange(event.getPersister(), event.getId(), null);
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.insurai.service;
 
+import com.insurai.event.DomainEvent;
 import com.insurai.model.Booking;
 import com.insurai.repository.BookingRepository;
 import org.slf4j.Logger;
@@ -22,16 +23,13 @@ public class BookingLifecycleService {
     private static final Logger logger = LoggerFactory.getLogger(BookingLifecycleService.class);
 
     private final BookingRepository bookingRepository;
-    private final NotificationService notificationService;
-    private final EmailService emailService;
+    private final DomainEventBus eventBus;
 
     public BookingLifecycleService(
             BookingRepository bookingRepository,
-            NotificationService notificationService,
-            EmailService emailService) {
+            DomainEventBus eventBus) {
         this.bookingRepository = bookingRepository;
-        this.notificationService = notificationService;
-        this.emailService = emailService;
+        this.eventBus = eventBus;
     }
 
     /**
@@ -51,19 +49,9 @@ public class BookingLifecycleService {
 
         Booking saved = bookingRepository.save(booking);
 
-        // Notify user
-        String message = "Your consultation has been confirmed for " + appointmentTime.toString();
-        notificationService.createNotification(
-                booking.getUser(),
-                message,
-                "SUCCESS");
-
-        // Send Email
-        try {
-            emailService.send(booking.getUser().getEmail(), "Booking Confirmed - InsurAI", message);
-        } catch (Exception e) {
-            logger.error("Failed to send email", e);
-        }
+        // Notify user after commit
+        eventBus.publish(new DomainEvent.BookingConfirmed(bookingId, booking.getUser(), booking.getAgent(),
+                appointmentTime));
 
         logger.info("Booking {} transitioned: PENDING → CONFIRMED by agent {}", bookingId, agentId);
         return saved;
@@ -88,19 +76,8 @@ public class BookingLifecycleService {
 
         Booking saved = bookingRepository.save(booking);
 
-        // Notify user
-        String message = "Your consultation has been completed. The agent will review your application.";
-        notificationService.createNotification(
-                booking.getUser(),
-                message,
-                "INFO");
-
-        // Send Email
-        try {
-            emailService.send(booking.getUser().getEmail(), "Consultation Completed - InsurAI", message);
-        } catch (Exception e) {
-            logger.error("Failed to send email", e);
-        }
+        // Notify user after commit
+        eventBus.publish(new DomainEvent.BookingCompleted(bookingId, booking.getUser()));
 
         logger.info("Booking {} transitioned: CONFIRMED → COMPLETED", bookingId);
         return saved;
@@ -125,19 +102,8 @@ public class BookingLifecycleService {
         booking.setStatus("POLICY_ISSUED");
         Booking saved = bookingRepository.save(booking);
 
-        // Notify user
-        String message = "Congratulations! Your policy has been issued and is now active.";
-        notificationService.createNotification(
-                booking.getUser(),
-                message,
-                "SUCCESS");
-
-        // Send Email
-        try {
-            emailService.send(booking.getUser().getEmail(), "Policy Issued - InsurAI", message);
-        } catch (Exception e) {
-            logger.error("Failed to send email", e);
-        }
+        // Notify user after commit
+        eventBus.publish(new DomainEvent.BookingPolicyIssued(bookingId, booking.getUser()));
 
         logger.info("Booking {} transitioned: {} → POLICY_ISSUED",
                 bookingId, booking.getStatus());
@@ -160,19 +126,8 @@ public class BookingLifecycleService {
 
         Booking saved = bookingRepository.save(booking);
 
-        // Notify user
-        String message = "Your application has been rejected. Reason: " + rejectionReason;
-        notificationService.createNotification(
-                booking.getUser(),
-                message,
-                "WARNING");
-
-        // Send Email
-        try {
-            emailService.send(booking.getUser().getEmail(), "Application Update - InsurAI", message);
-        } catch (Exception e) {
-            logger.error("Failed to send email", e);
-        }
+        // Notify user after commit
+        eventBus.publish(new DomainEvent.BookingRejected(bookingId, booking.getUser(), rejectionReason));
 
         logger.info("Booking {} transitioned: {} → REJECTED", bookingId, previousStatus);
         return saved;
@@ -203,13 +158,8 @@ public class BookingLifecycleService {
 
         Booking saved = bookingRepository.save(booking);
 
-        // Notify agent if assigned
-        if (booking.getAgent() != null) {
-            notificationService.createNotification(
-                    booking.getAgent(),
-                    "Booking #" + bookingId + " has been cancelled by the user",
-                    "INFO");
-        }
+        // Notify agent if assigned, after commit
+        eventBus.publish(new DomainEvent.BookingCancelled(bookingId, booking.getAgent(), userId));
 
         logger.info("Booking {} transitioned: {} → CANCELLED by user {}",
                 bookingId, previousStatus, userId);
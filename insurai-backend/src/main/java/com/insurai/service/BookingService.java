@@ -1,5 +1,7 @@
 package com.insurai.service;
 
+import com.insurai.dto.AvailableSlotDTO;
+import com.insurai.event.DomainEvent;
 import com.insurai.model.Booking;
 import com.insurai.model.User;
 import com.insurai.model.UserPolicy;
@@ -11,7 +13,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -19,27 +24,36 @@ public class BookingService {
 
     private final BookingRepository bookingRepo;
     private final UserRepository userRepo;
-    private final NotificationService notificationService;
     private final PolicyRepository policyRepo;
     private final AIService aiService;
-    private final AuditService auditService;
-    private final EmailService emailService;
+    private final DomainEventBus eventBus;
     private final GoogleCalendarService calendarService;
     private final UserPolicyRepository userPolicyRepo;
+    private final FraudFeatureStore fraudFeatureStore;
+    private final AgentScheduleIndex scheduleIndex;
+    private final BookingAdmission bookingAdmission;
+
+    // Bookable hours, matching the slots offered by getAvailableSlots
+    private static final LocalTime DAY_START = LocalTime.of(9, 0);
+    private static final LocalTime DAY_END = LocalTime.of(18, 0);
+    private static final int MAX_SEARCH_DAYS = 31;
+    private static final int MAX_SEARCH_RESULTS = 100;
 
     public BookingService(BookingRepository bookingRepo, UserRepository userRepo,
-            NotificationService notificationService, PolicyRepository policyRepo, AIService aiService,
-            AuditService auditService, EmailService emailService, GoogleCalendarService calendarService,
-            UserPolicyRepository userPolicyRepo) {
+            PolicyRepository policyRepo, AIService aiService, DomainEventBus eventBus,
+            GoogleCalendarService calendarService,
+            UserPolicyRepository userPolicyRepo, FraudFeatureStore fraudFeatureStore,
+            AgentScheduleIndex scheduleIndex, BookingAdmission bookingAdmission) {
         this.bookingRepo = bookingRepo;
         this.userRepo = userRepo;
-        this.notificationService = notificationService;
         this.policyRepo = policyRepo;
         this.aiService = aiService;
-        this.auditService = auditService;
-        this.emailService = emailService;
+        this.eventBus = eventBus;
         this.calendarService = calendarService;
         this.userPolicyRepo = userPolicyRepo;
+        this.fraudFeatureStore = fraudFeatureStore;
+        this.scheduleIndex = scheduleIndex;
+        this.bookingAdmission = bookingAdmission;
     }
 
     public double predictSuccess(@org.springframework.lang.NonNull Long bookingId) {
@@ -74,8 +88,9 @@ public class BookingService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End time must be after start time");
         }
 
-        List<Booking> conflicts = bookingRepo.findConflicts(agentId, startTime, endTime);
-        if (!conflicts.isEmpty()) {
+        // In-memory pre-check turns away clashes (confirmed in the database on a hit);
+        // admission re-checks under the agent lock
+        if (scheduleIndex.hasUpcomingConflict(agentId, startTime, endTime, null)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Agent already booked for this time slot");
         }
         // validation block end
@@ -130,22 +145,13 @@ public class BookingService {
             booking.setPolicy(policy);
         }
 
-        Booking saved = bookingRepo.save(booking);
-
-        // Audit & Notify
-        auditService.log("BOOKING_CREATED: ID " + saved.getId(), userId);
-
-        String typeLabel = "ENQUIRY".equalsIgnoreCase(booking.getBookingType()) ? "Policy Enquiry" : "Purchase Request";
-        String message = "New " + typeLabel + " from " + user.getName() + " for " + startTime.toString();
-
-        // Send Persistent Notification to Agent
-        notificationService.createNotification(agent, message, "INFO");
+        Booking saved = bookingAdmission.admit(agentId, startTime, endTime, null, () -> booking,
+                "Agent already booked for this time slot");
+        fraudFeatureStore.onBookingSaved(saved);
 
-        // Send Email to Agent
-        emailService.send(
-                agent.getEmail(),
-                "New " + typeLabel,
-                message + "\nReason: " + reason + "\n\nPlease login to review.");
+        // Audit, agent notification and email run after the response
+        eventBus.publish(new DomainEvent.BookingCreated(saved.getId(), user, agent, saved.getBookingType(),
+                startTime, reason));
 
         return saved;
     }
@@ -202,71 +208,85 @@ public class BookingService {
             booking.setCompletedAt(now);
         }
 
-        // Audit & Notify
-        auditService.log("BOOKING_STATUS_UPDATE: ID " + booking.getId() + " to " + status, booking.getUser().getId());
-
-        String message = "Your appointment status updated to: " + status;
-        if (booking.getMeetingLink() != null && "APPROVED".equals(status)) {
-            message += "\nJoin Link: " + booking.getMeetingLink();
-        }
+        Booking saved = bookingRepo.save(booking);
+        fraudFeatureStore.onBookingSaved(saved);
 
-        // Notify user of status change
-        notificationService.createNotification(
-                booking.getUser(),
-                message,
-                "APPROVED".equals(status) ? "SUCCESS" : "INFO");
-
-        // Send Email to User
-        emailService.send(
-                booking.getUser().getEmail(),
-                "Appointment Status Update",
-                "Your appointment with " + booking.getAgent().getName() + " has been " + status + ".\n" +
-                        (booking.getMeetingLink() != null ? ("\nGoogle Meet Link: " + booking.getMeetingLink() + "\n")
-                                : ""));
-
-        return bookingRepo.save(booking);
+        // Audit & notify the user once the status is stored
+        eventBus.publish(new DomainEvent.BookingStatusChanged(saved.getId(), saved.getUser(), saved.getAgent(),
+                status, saved.getMeetingLink()));
+        return saved;
     }
 
-    // NEW: Get slot availability for the date
     // NEW: Get slot availability for the date
     public List<String> getAvailableSlots(String date, Long agentId) {
-        // defined standard business hours
-        List<String> allSlots = new java.util.ArrayList<>(List.of(
-                "09:00", "10:00", "11:00", "12:00", "13:00", "14:00", "15:00", "16:00", "17:00"));
-
-        // Parse date boundaries
+        // Standard business hours, one-hour slots from 09:00 to 17:00
         LocalDateTime startOfDay = java.time.LocalDate.parse(date).atStartOfDay();
         LocalDateTime endOfDay = startOfDay.plusDays(1);
 
-        // Fetch bookings for this agent on this day
-        // We use findConflicts essentially, or a simplified check
-        // Ideally we should use a custom repo method but for now iterating is fine for
-        // <10 bookings/day
-        List<Booking> dayBookings = bookingRepo.findConflicts(agentId, startOfDay, endOfDay);
-
-        // Filter out occupied slots
         List<String> available = new java.util.ArrayList<>();
-        for (String slot : allSlots) {
-            LocalDateTime slotStart = LocalDateTime.parse(date + "T" + slot + ":00");
-            boolean isTaken = dayBookings.stream().anyMatch(b ->
-            // Strict equality check for simplified slots
-            b.getStartTime().isEqual(slotStart)
-                    // OR overlap check if bookings are variable length
-                    || (b.getStartTime().isBefore(slotStart.plusHours(1)) && b.getEndTime().isAfter(slotStart)));
-
-            if (!isTaken && slotStart.isAfter(LocalDateTime.now())) {
-                available.add(slot);
-            }
+        for (LocalDateTime slot : scheduleIndex.freeSlots(agentId, startOfDay, endOfDay, Duration.ofHours(1),
+                Duration.ofHours(1), DAY_START, DAY_END, Integer.MAX_VALUE)) {
+            available.add(slot.toLocalTime().toString());
         }
         return available;
     }
 
+    /**
+     * Earliest free slots across a set of agents (explicit ids, or every active
+     * agent of a company) between from and to, ordered by start time
+     */
+    public List<AvailableSlotDTO> searchAvailability(Long companyId, List<Long> agentIds, String from, String to,
+            int durationMinutes, int stepMinutes, int limit) {
+        LocalDateTime fromTime;
+        LocalDateTime toTime;
+        try {
+            fromTime = LocalDateTime.parse(from);
+            toTime = LocalDateTime.parse(to);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date-time format");
+        }
+        if (!toTime.isAfter(fromTime)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End time must be after start time");
+        }
+        if (toTime.isAfter(fromTime.plusDays(MAX_SEARCH_DAYS))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Search range cannot exceed " + MAX_SEARCH_DAYS + " days");
+        }
+        if (durationMinutes <= 0 || stepMinutes <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duration and step must be positive");
+        }
+        int max = Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS);
+
+        List<User> agents;
+        if (agentIds != null && !agentIds.isEmpty()) {
+            agents = userRepo.findAllById(agentIds);
+        } else if (companyId != null) {
+            agents = userRepo.findByCompanyIdAndRole(companyId, "AGENT");
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Company ID or agent IDs are required");
+        }
+
+        List<AvailableSlotDTO> slots = new java.util.ArrayList<>();
+        Duration length = Duration.ofMinutes(durationMinutes);
+        for (User agent : agents) {
+            if (!"AGENT".equals(agent.getRole()) || Boolean.FALSE.equals(agent.getIsActive())) {
+                continue;
+            }
+            // Each agent contributes at most `max` candidates, enough for the merged top `max`
+            for (LocalDateTime start : scheduleIndex.freeSlots(agent.getId(), fromTime, toTime, length,
+                    Duration.ofMinutes(stepMinutes), DAY_START, DAY_END, max)) {
+                slots.add(new AvailableSlotDTO(agent.getId(), agent.getName(), start, start.plus(length)));
+            }
+        }
+        slots.sort(Comparator.comparing(AvailableSlotDTO::getStart).thenComparing(AvailableSlotDTO::getAgentId));
+        return slots.size() > max ? new java.util.ArrayList<>(slots.subList(0, max)) : slots;
+    }
+
     public void blockSlot(@org.springframework.lang.NonNull Long agentId, String start, String end) {
         LocalDateTime startTime = LocalDateTime.parse(start);
         LocalDateTime endTime = LocalDateTime.parse(end);
 
-        List<Booking> conflicts = bookingRepo.findConflicts(agentId, startTime, endTime);
-        if (!conflicts.isEmpty()) {
+        if (scheduleIndex.hasUpcomingConflict(agentId, startTime, endTime, null)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Slot already occupied");
         }
 
@@ -281,9 +301,11 @@ public class BookingService {
         booking.setStatus("BLOCKED");
         booking.setCreatedAt(LocalDateTime.now());
 
-        auditService.log("SLOT_BLOCKED: Agent " + agentId, agentId);
+        Booking saved = bookingAdmission.admit(agentId, startTime, endTime, null, () -> booking,
+                "Slot already occupied");
+        fraudFeatureStore.onBookingSaved(saved);
 
-        bookingRepo.save(booking);
+        eventBus.publish(new DomainEvent.SlotBlocked(saved.getId(), agentId));
     }
 
     public Booking rescheduleBooking(Long bookingId, String start, String end) {
@@ -298,41 +320,21 @@ public class BookingService {
         }
 
         // Check for conflicts at new time
-        List<Booking> conflicts = bookingRepo.findConflicts(booking.getAgent().getId(), startTime, endTime);
-        // We must exclude the current booking from conflicts if it overlaps with itself
-        // (though moving usually implies different slot)
-        // Since we are changing time, if we move to a slot occupied by THIS booking,
-        // it's fine.
-        // But usually findConflicts checks overlap. If we are moving to a new slot, we
-        // just check if any OTHER booking overlaps.
-        // Simple check: if conflict list has > 0, check if it contains *other*
-        // bookings.
-        boolean hasConflict = conflicts.stream().anyMatch(b -> !b.getId().equals(bookingId));
-
-        if (hasConflict) {
+        if (scheduleIndex.hasUpcomingConflict(booking.getAgent().getId(), startTime, endTime, bookingId)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Slot already occupied");
         }
-
-        booking.setStartTime(startTime);
-        booking.setEndTime(endTime);
-        booking.setStatus("PENDING"); // Reset to pending for approval
-
-        Booking saved = bookingRepo.save(booking);
-
-        auditService.log("BOOKING_RESCHEDULED: ID " + booking.getId(), booking.getUser().getId());
-
-        // Notify Agent
-        String message = "Appointment #" + booking.getId() + " rescheduled by user to " + startTime.toString();
-        notificationService.createNotification(
-                booking.getAgent(),
-                message,
-                "INFO");
-
-        // Send Email to Agent
-        emailService.send(
-                booking.getAgent().getEmail(),
-                "Appointment Rescheduled",
-                message + "\nPlease update your calendar.");
+        // Overlapping with its own old slot is fine, so the booking itself is excluded
+        Booking saved = bookingAdmission.admit(booking.getAgent().getId(), startTime, endTime, bookingId, () -> {
+            booking.setStartTime(startTime);
+            booking.setEndTime(endTime);
+            booking.setStatus("PENDING"); // Reset to pending for approval
+            return booking;
+        }, "Slot already occupied");
+        fraudFeatureStore.onBookingSaved(saved);
+
+        // Notify the agent after the response
+        eventBus.publish(new DomainEvent.BookingRescheduled(saved.getId(), saved.getUser(), saved.getAgent(),
+                startTime));
 
         return saved;
     }
@@ -0,0 +1,231 @@
+package com.insurai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurai.model.User;
+import com.insurai.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Campaign Recommendation Service
+ * Scores a whole user cohort against the policy catalog for outbound campaigns.
+ * Users are read in keyset-paged chunks, each chunk is scored in parallel on a
+ * fork/join pool, and results are written as NDJSON before the next chunk is
+ * read, so memory stays bounded by the chunk size.
+ */
+@Service
+public class CampaignRecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CampaignRecommendationService.class);
+
+    private static final int CHUNK_SIZE = 2000;
+    private static final int SPLIT_THRESHOLD = 128;
+    private static final int MAX_LIMIT = 20;
+
+    private final UserRepository userRepository;
+    private final PolicyCatalog policyCatalog;
+    private final AIRecommendationEngine recommendationEngine;
+    private final PolicyService policyService;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool scoringPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public CampaignRecommendationService(UserRepository userRepository,
+            PolicyCatalog policyCatalog,
+            AIRecommendationEngine recommendationEngine,
+            PolicyService policyService,
+            ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.policyCatalog = policyCatalog;
+        this.recommendationEngine = recommendationEngine;
+        this.policyService = policyService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringPool.shutdown();
+    }
+
+    /**
+     * Cohort selection; null fields are not filtered on
+     */
+    public static class Cohort {
+        private Long companyId;
+        private String role = "USER";
+        private Integer minAge;
+        private Integer maxAge;
+        private int limit = 3;
+
+        public Long getCompanyId() {
+            return companyId;
+        }
+
+        public void setCompanyId(Long companyId) {
+            this.companyId = companyId;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public void setRole(String role) {
+            this.role = role;
+        }
+
+        public Integer getMinAge() {
+            return minAge;
+        }
+
+        public void setMinAge(Integer minAge) {
+            this.minAge = minAge;
+        }
+
+        public Integer getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Integer maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * Score every user in the cohort and write one JSON line per user.
+     * Only listed policies the user is eligible for are considered; they are ranked
+     * by the recommendation engine confidence and carry the PolicyService match score.
+     *
+     * @return number of users written
+     */
+    public long streamCohort(Cohort cohort, OutputStream out) throws IOException {
+        int limit = Math.max(1, Math.min(cohort.getLimit(), MAX_LIMIT));
+        // One snapshot for the whole run keeps results consistent across chunks
+        PolicyCatalog.Snapshot catalog = policyCatalog.snapshot();
+
+        long written = 0;
+        long afterId = 0;
+        while (true) {
+            List<UserRepository.ScoringProfile> chunk = userRepository.findCohortAfter(afterId,
+                    cohort.getCompanyId(), cohort.getRole(), cohort.getMinAge(), cohort.getMaxAge(),
+                    PageRequest.of(0, CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            String[] lines = new String[chunk.size()];
+            scoringPool.invoke(new ScoreRange(chunk, lines, 0, chunk.size(), catalog, limit));
+            for (String line : lines) {
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+                out.write('\n');
+            }
+            out.flush();
+
+            written += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getId();
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+        logger.info("Campaign scoring streamed {} users against catalog version {}", written,
+                catalog.getVersion());
+        return written;
+    }
+
+    private String scoreUser(UserRepository.ScoringProfile profile, PolicyCatalog.Snapshot catalog, int limit) {
+        User user = new User();
+        user.setId(profile.getId());
+        user.setAge(profile.getAge());
+        user.setIncome(profile.getIncome());
+        user.setDependents(profile.getDependents());
+
+        TopKHeap heap = new TopKHeap(limit);
+        for (int i = 0; i < catalog.size(); i++) {
+            if (catalog.isListed(i)
+                    && !"NOT_ELIGIBLE".equals(policyService.checkEligibility(user, catalog, i))) {
+                heap.offer(i, recommendationEngine.calculateConfidenceScore(user, catalog, i));
+            }
+        }
+        int[] top = new int[heap.size()];
+        double[] scores = new double[heap.size()];
+        int n = heap.drainDescending(top, scores);
+
+        List<Map<String, Object>> recommendations = new ArrayList<>(n);
+        for (int r = 0; r < n; r++) {
+            Map<String, Object> rec = new LinkedHashMap<>();
+            rec.put("policyId", catalog.id(top[r]));
+            rec.put("policyName", catalog.policy(top[r]).getName());
+            rec.put("type", catalog.policy(top[r]).getType());
+            rec.put("confidenceScore", scores[r]);
+            rec.put("matchScore", policyService.calculateMatchScore(user, catalog, top[r]));
+            recommendations.add(rec);
+        }
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("userId", profile.getId());
+        line.put("recommendations", recommendations);
+        try {
+            return objectMapper.writeValueAsString(line);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Splits a chunk until ranges are small enough to score sequentially
+     */
+    private final class ScoreRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<UserRepository.ScoringProfile> users;
+        private final String[] lines;
+        private final int from;
+        private final int to;
+        private final PolicyCatalog.Snapshot catalog;
+        private final int limit;
+
+        private ScoreRange(List<UserRepository.ScoringProfile> users, String[] lines, int from, int to,
+                PolicyCatalog.Snapshot catalog, int limit) {
+            this.users = users;
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+            this.catalog = catalog;
+            this.limit = limit;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int k = from; k < to; k++) {
+                    lines[k] = scoreUser(users.get(k), catalog, limit);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreRange(users, lines, from, mid, catalog, limit),
+                    new ScoreRange(users, lines, mid, to, catalog, limit));
+        }
+    }
+}
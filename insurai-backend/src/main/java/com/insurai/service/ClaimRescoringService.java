@@ -0,0 +1,226 @@
+package com.insurai.service;
+
+import com.insurai.repository.ClaimRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Claim Re-scoring Service
+ * Re-applies the deterministic fraud scorer to historical claims, e.g. after a
+ * threshold change. Claims are read in keyset-paged chunks, scored in parallel,
+ * and only rows whose outcome changed are written back in one JDBC batch per
+ * chunk. Before writing, the chunk's changed claims are locked and re-read; a
+ * claim an admin moved in the meantime is left alone. The re-read values also
+ * give the rollup deltas that move each claim between fraud bands, since JDBC
+ * writes raise no entity events.
+ */
+@Service
+public class ClaimRescoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimRescoringService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    /** Claims still being processed; decided claims only get their score refreshed */
+    private static final java.util.Set<String> OPEN_STATUSES = java.util.Set.of(
+            "INITIATED", "PENDING", "DOCS_UPLOADED", "UNDER_REVIEW", "FLAGGED_FRAUD");
+
+    private static final String UPDATE_SQL = """
+            UPDATE claim
+            SET fraud_score = ?, status = ?, success_probability = ?, next_action = ?
+            WHERE id = ? AND status <=> ?
+            """;
+
+    // Current rollup fields of the claims about to be written, locked until the chunk commits
+    private static final String LOCK_SQL = """
+            SELECT c.id, c.status, c.fraud_score, c.amount, c.date, p.company_id
+            FROM claim c
+            LEFT JOIN policy p ON p.id = c.policy_id
+            WHERE c.id IN (%s)
+            ORDER BY c.id
+            FOR UPDATE OF c
+            """;
+
+    private final ClaimRepository claimRepo;
+    private final AIService aiService;
+    private final JdbcTemplate jdbcTemplate;
+    private final DashboardRollupService rollupService;
+    private final TransactionTemplate transaction;
+    private final ForkJoinPool scoringPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public ClaimRescoringService(ClaimRepository claimRepo, AIService aiService, JdbcTemplate jdbcTemplate,
+            DashboardRollupService rollupService, PlatformTransactionManager transactionManager) {
+        this.claimRepo = claimRepo;
+        this.aiService = aiService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupService = rollupService;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringPool.shutdown();
+    }
+
+    /**
+     * Re-score every claim, or one company's claims when companyId is set
+     */
+    public RescoreResult rescore(Long companyId) {
+        long started = System.currentTimeMillis();
+        RescoreResult result = new RescoreResult();
+
+        long afterId = 0;
+        while (true) {
+            List<ClaimRepository.ClaimScoringRow> chunk = claimRepo.findScoringRowsAfter(afterId, companyId,
+                    PageRequest.of(0, CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            Object[][] outcomes = new Object[chunk.size()][];
+            scoringPool.submit(() -> IntStream.range(0, chunk.size()).parallel()
+                    .forEach(i -> outcomes[i] = outcome(chunk.get(i)))).join();
+
+            Map<Long, Object[]> changed = new LinkedHashMap<>();
+            for (Object[] outcome : outcomes) {
+                if (outcome != null) {
+                    changed.put((Long) outcome[4], outcome);
+                }
+            }
+            if (!changed.isEmpty()) {
+                transaction.executeWithoutResult(status -> write(changed, result));
+            }
+
+            result.scanned += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getId();
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        result.elapsedMillis = System.currentTimeMillis() - started;
+        logger.info("Claim re-scoring: scanned {}, updated {}, skipped {}, unknown {} in {} ms", result.scanned,
+                result.updated, result.skipped, result.unknown, result.elapsedMillis);
+        return result;
+    }
+
+    /**
+     * Lock the changed claims, drop the ones whose status moved since they were
+     * read, write the rest and move them between rollup keys
+     */
+    private void write(Map<Long, Object[]> changed, RescoreResult result) {
+        String placeholders = String.join(",", Collections.nCopies(changed.size(), "?"));
+        List<Object[]> updates = new ArrayList<>(changed.size());
+        jdbcTemplate.query(String.format(LOCK_SQL, placeholders), rs -> {
+            Object[] outcome = changed.get(rs.getLong(1));
+            String currentStatus = rs.getString(2);
+            if (!Objects.equals(currentStatus, outcome[5])) {
+                return; // Moved by an admin since it was read
+            }
+            updates.add(outcome);
+            rollupService.recordClaimChange(rs.getObject(5, LocalDateTime.class), rs.getObject(6, Long.class),
+                    rs.getObject(4, Double.class), currentStatus, rs.getObject(3, Double.class),
+                    (String) outcome[1], (Double) outcome[0]);
+        }, changed.keySet().toArray());
+        // Moved or deleted since the chunk was read
+        result.skipped += changed.size() - updates.size();
+
+        if (updates.isEmpty()) {
+            return;
+        }
+        // The rows are locked and still match the guard, so every write lands
+        for (int rows : jdbcTemplate.batchUpdate(UPDATE_SQL, updates)) {
+            if (rows > 0) {
+                result.updated++;
+            } else if (rows == Statement.SUCCESS_NO_INFO) {
+                result.unknown++; // Driver rewrote the batch and dropped per-row counts
+            } else {
+                result.skipped++;
+            }
+        }
+    }
+
+    /**
+     * Update parameters for a claim whose outcome changed, or null if nothing changed.
+     * Mirrors ClaimService.fileClaim for open claims.
+     */
+    private Object[] outcome(ClaimRepository.ClaimScoringRow row) {
+        double risk = aiService.calculateFraudRisk(row.getAmount(), row.getDescription());
+        String status = row.getStatus();
+        Integer probability = row.getSuccessProbability();
+        String nextAction = row.getNextAction();
+
+        if (status != null && OPEN_STATUSES.contains(status)) {
+            boolean docsUploaded = row.getDocsUploadedAt() != null;
+            if (risk >= ClaimService.FRAUD_FLAG_THRESHOLD) {
+                status = "FLAGGED_FRAUD";
+                nextAction = "Contact Support Immediately";
+                probability = 10;
+            } else {
+                if ("FLAGGED_FRAUD".equals(status)) {
+                    // No longer over the threshold: back to where the claim would be
+                    status = docsUploaded ? "DOCS_UPLOADED" : "INITIATED";
+                    nextAction = docsUploaded ? "Wait for admin review"
+                            : "Upload required documents (Medical Report, Bills)";
+                }
+                int base = ClaimService.successProbability(risk, row.getAmount());
+                probability = docsUploaded ? Math.min(100, base + 5) : base; // Docs increase chance
+            }
+        }
+
+        if (Objects.equals(row.getFraudScore(), risk) && Objects.equals(row.getStatus(), status)
+                && Objects.equals(row.getSuccessProbability(), probability)
+                && Objects.equals(row.getNextAction(), nextAction)) {
+            return null;
+        }
+        return new Object[] { risk, status, probability, nextAction, row.getId(), row.getStatus() };
+    }
+
+    /**
+     * Rescore Result DTO
+     */
+    public static class RescoreResult {
+        private long scanned;
+        private long updated;
+        private long skipped; // changed concurrently, left as is
+        private long unknown; // written, but the driver did not report whether the row matched
+        private long elapsedMillis;
+
+        public long getScanned() {
+            return scanned;
+        }
+
+        public long getUpdated() {
+            return updated;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public long getUnknown() {
+            return unknown;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.insurai.service;
 
+import com.insurai.event.DomainEvent;
 import com.insurai.model.Claim;
 import com.insurai.model.User;
 import com.insurai.repository.ClaimRepository;
@@ -13,22 +14,25 @@ import java.util.List;
 @Service
 public class ClaimService {
 
+    /** Fraud score at or above which a claim is flagged instead of processed */
+    static final double FRAUD_FLAG_THRESHOLD = 0.8;
+
     private final ClaimRepository claimRepo;
     private final UserRepository userRepo;
     private final com.insurai.repository.PolicyRepository policyRepo;
     private final AIService aiService;
-    private final NotificationService notificationService;
-    private final AuditService auditService;
+    private final DomainEventBus eventBus;
+    private final FraudFeatureStore fraudFeatureStore;
 
     public ClaimService(ClaimRepository claimRepo, UserRepository userRepo,
             com.insurai.repository.PolicyRepository policyRepo, AIService aiService,
-            NotificationService notificationService, AuditService auditService) {
+            DomainEventBus eventBus, FraudFeatureStore fraudFeatureStore) {
         this.claimRepo = claimRepo;
         this.userRepo = userRepo;
         this.policyRepo = policyRepo;
         this.aiService = aiService;
-        this.notificationService = notificationService;
-        this.auditService = auditService;
+        this.eventBus = eventBus;
+        this.fraudFeatureStore = fraudFeatureStore;
     }
 
     public Claim fileClaim(@org.springframework.lang.NonNull Long userId, Claim claim) {
@@ -48,7 +52,7 @@ public class ClaimService {
 
         // Probability & Next Action based on description length/amount (Mock
         // Intelligence)
-        if (risk > 0.8) {
+        if (risk >= FRAUD_FLAG_THRESHOLD) {
             claim.setStatus("FLAGGED_FRAUD");
             claim.setNextAction("Contact Support Immediately");
             claim.setSuccessProbability(10);
@@ -58,20 +62,28 @@ public class ClaimService {
                 claim.setStatus("INITIATED");
             }
             claim.setNextAction("Upload required documents (Medical Report, Bills)");
-            // Simple probability logic
-            int prob = 90 - (int) (risk * 100);
-            if (claim.getAmount() != null && claim.getAmount() > 50000)
-                prob -= 20; // High value = harder to approve
-            claim.setSuccessProbability(Math.max(10, prob));
+            claim.setSuccessProbability(successProbability(risk, claim.getAmount()));
         }
 
         Claim saved = claimRepo.save(claim);
+        fraudFeatureStore.onClaimSaved(saved);
 
-        auditService.log("CLAIM_FILED: ID " + saved.getId(), userId);
+        eventBus.publish(new DomainEvent.ClaimFiled(saved.getId(), userId));
 
         return saved;
     }
 
+    /**
+     * Approval chance for a claim that was not flagged, before any document bonus
+     */
+    static int successProbability(double risk, Double amount) {
+        // Simple probability logic
+        int prob = 90 - (int) (risk * 100);
+        if (amount != null && amount > 50000)
+            prob -= 20; // High value = harder to approve
+        return Math.max(10, prob);
+    }
+
     public List<Claim> getClaimsByCompany(Long companyId) {
         return claimRepo.findByPolicyCompanyId(companyId);
     }
@@ -105,15 +117,10 @@ public class ClaimService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Claim not found"));
         claim.setStatus(status);
 
-        // Audit & Notify
-        auditService.log("CLAIM_STATUS_UPDATE: ID " + claim.getId() + " to " + status, claim.getUser().getId());
-
-        // Notify User
-        notificationService.createNotification(
-                claim.getUser(),
-                "Claim #" + claim.getId() + " updated to " + status,
-                status.equals("APPROVED") ? "SUCCESS" : "INFO");
+        Claim saved = claimRepo.save(claim);
 
-        return claimRepo.save(claim);
+        // Audit & notify the user after the response
+        eventBus.publish(new DomainEvent.ClaimStatusChanged(saved.getId(), saved.getUser(), status));
+        return saved;
     }
 }
@@ -25,6 +25,9 @@ public class CompanyService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PolicyCatalog policyCatalog;
+
     /**
      * Register a new company
      */
@@ -122,7 +125,10 @@ public class CompanyService {
         }
 
         company.setUpdatedAt(LocalDateTime.now());
-        return companyRepository.save(company);
+        Company saved = companyRepository.save(company);
+        // Approval/suspension changes which policies are listed
+        policyCatalog.refreshAfterCommit();
+        return saved;
     }
 
     /**
@@ -138,7 +144,9 @@ public class CompanyService {
         }
 
         policy.setCompany(company);
-        return policyRepository.save(policy);
+        Policy saved = policyRepository.save(policy);
+        policyCatalog.policyAddedAfterCommit(saved.getId());
+        return saved;
     }
 
     /**
@@ -187,7 +195,23 @@ public class CompanyService {
         if (updatedPolicy.getStatus() != null)
             policy.setStatus(updatedPolicy.getStatus());
 
-        return policyRepository.save(policy);
+        Policy saved = policyRepository.save(policy);
+        if (isStatusOnlyUpdate(updatedPolicy)) {
+            policyCatalog.policyStatusChangedAfterCommit(saved.getId());
+        } else {
+            policyCatalog.refreshAfterCommit();
+        }
+        return saved;
+    }
+
+    private boolean isStatusOnlyUpdate(Policy updates) {
+        return updates.getStatus() != null
+                && updates.getName() == null && updates.getCategory() == null && updates.getType() == null
+                && updates.getDescription() == null && updates.getPremium() == null
+                && updates.getCoverage() == null && updates.getDocumentUrl() == null
+                && updates.getClaimSettlementRatio() == null && updates.getExclusions() == null
+                && updates.getWarnings() == null && updates.getMinAge() == null && updates.getMaxAge() == null
+                && updates.getMinIncome() == null && updates.getTenure() == null;
     }
 
     /**
@@ -203,6 +227,7 @@ public class CompanyService {
         }
 
         policyRepository.delete(policy);
+        policyCatalog.refreshAfterCommit();
     }
 
     /**
@@ -223,6 +248,8 @@ public class CompanyService {
         Company company = getCompanyById(companyId);
         company.setIsActive(isActive);
         company.setUpdatedAt(LocalDateTime.now());
-        return companyRepository.save(company);
+        Company saved = companyRepository.save(company);
+        policyCatalog.refreshAfterCommit();
+        return saved;
     }
 }
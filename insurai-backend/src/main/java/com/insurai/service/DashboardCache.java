@@ -0,0 +1,150 @@
+package com.insurai.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard Response Cache
+ * Short-TTL cache in front of the dashboard endpoints with request coalescing:
+ * concurrent misses for the same key wait on a single computation instead of
+ * each hitting the database. Entries are tagged with the company they cover
+ * (null = platform-wide) so writes can invalidate just the affected views.
+ */
+@Service
+public class DashboardCache {
+
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder(); // waited on another request's computation
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Cached value for the key, computing it at most once across concurrent callers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Long companyId, Supplier<T> compute) {
+        long now = System.nanoTime();
+        Entry current = entries.get(key);
+        if (current == null || current.isExpired(now)) {
+            Entry fresh = new Entry(companyId);
+            current = entries.compute(key, (k, existing) -> existing != null && !existing.isExpired(now)
+                    ? existing
+                    : fresh);
+            if (current == fresh) {
+                misses.increment();
+                return (T) computeInto(key, fresh, compute);
+            }
+        }
+
+        if (current.value.isDone()) {
+            hits.increment();
+        } else {
+            coalesced.increment();
+        }
+        try {
+            return (T) current.value.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private Object computeInto(String key, Entry entry, Supplier<?> compute) {
+        try {
+            Object value = compute.get();
+            entry.expiresAt = System.nanoTime() + TTL_NANOS;
+            entry.value.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            // Waiters see the failure; the next request tries again
+            entries.remove(key, entry);
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drop one cached response
+     */
+    public void invalidate(String key) {
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Drop every response that covers the company, including platform-wide ones
+     */
+    public void invalidateCompany(Long companyId) {
+        entries.entrySet().removeIf(e -> {
+            Long scope = e.getValue().companyId;
+            boolean affected = scope == null || Objects.equals(scope, companyId);
+            if (affected) {
+                invalidations.increment();
+            }
+            return affected;
+        });
+    }
+
+    /**
+     * Drop everything, e.g. after a rollup rebuild
+     */
+    public void invalidateAll() {
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    /**
+     * Hit, miss and coalesce counters since startup
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long coalescedCount = coalesced.sum();
+        long lookups = hitCount + missCount + coalescedCount;
+        stats.put("entries", entries.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("coalesced", coalescedCount);
+        stats.put("invalidations", invalidations.sum());
+        stats.put("hitRate", lookups > 0 ? (double) (hitCount + coalescedCount) / lookups : 0.0);
+        return stats;
+    }
+
+    /**
+     * Remove expired entries so per-user keys do not accumulate
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(e -> e.isExpired(now));
+    }
+
+    private static final class Entry {
+        private final Long companyId;
+        private final CompletableFuture<Object> value = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE; // set once the value is computed
+
+        private Entry(Long companyId) {
+            this.companyId = companyId;
+        }
+
+        private boolean isExpired(long now) {
+            return value.isDone() && now - expiresAt >= 0;
+        }
+    }
+}
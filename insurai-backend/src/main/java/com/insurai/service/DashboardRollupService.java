@@ -0,0 +1,521 @@
+package com.insurai.service;
+
+import com.insurai.model.Booking;
+import com.insurai.model.Claim;
+import com.insurai.model.Company;
+import com.insurai.model.DashboardRollup;
+import com.insurai.model.ExceptionCase;
+import com.insurai.model.Policy;
+import com.insurai.model.User;
+import com.insurai.model.UserPolicy;
+import com.insurai.repository.BookingRepository;
+import com.insurai.repository.DashboardRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Dashboard Rollup Service
+ * Keeps the dashboard_rollup table in step with bookings, user policies,
+ * claims and exception cases. Hibernate insert/update/delete events turn each
+ * row change into -1/+1 deltas on its rollup keys; the deltas of one
+ * transaction are merged and upserted in a single batch after it commits, so
+ * business writes never wait on rollup row locks.
+ * A nightly rebuild recomputes the table from the raw rows, which backfills
+ * history and repairs drift from bulk updates or a crash between commit and
+ * upsert. Each batch of deltas is stamped with the rebuild epoch when its
+ * transaction commits. A batch that is still waiting when a later rebuild
+ * commits is already counted by that rebuild, so it is dropped. Only upserts
+ * made on this node are covered; other nodes' deltas can still drift until
+ * the next rebuild.
+ */
+@Service
+public class DashboardRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardRollupService.class);
+
+    /** Rollup day for records without a creation time */
+    private static final LocalDate UNKNOWN_DAY = LocalDate.of(1970, 1, 1);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO dashboard_rollup (metric, day, company_id, agent_id, status, bucket, total, amount)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE total = total + VALUES(total), amount = amount + VALUES(amount)
+            """;
+
+    // Rebuild statements; keys must match the ones computed in keyOf
+    private static final String INSERT_SQL = """
+            INSERT INTO dashboard_rollup (metric, day, company_id, agent_id, status, bucket, total, amount)
+            """;
+
+    private static final String REBUILD_BOOKINGS_SQL = INSERT_SQL + """
+            SELECT 'BOOKING', COALESCE(DATE(b.created_at), '1970-01-01'), COALESCE(a.company_id, p.company_id, 0),
+                   COALESCE(b.agent_id, 0), COALESCE(b.status, ''), '', COUNT(*), 0
+            FROM booking b
+            LEFT JOIN users a ON a.id = b.agent_id
+            LEFT JOIN policy p ON p.id = b.policy_id
+            GROUP BY 2, 3, 4, 5
+            """;
+
+    private static final String REBUILD_USER_POLICIES_SQL = INSERT_SQL + """
+            SELECT 'USER_POLICY', COALESCE(DATE(up.created_at), '1970-01-01'), COALESCE(p.company_id, 0), 0,
+                   COALESCE(up.status, ''), COALESCE(up.workflow_status, ''), COUNT(*), SUM(COALESCE(up.premium, 0))
+            FROM user_policy up
+            LEFT JOIN policy p ON p.id = up.policy_id
+            GROUP BY 2, 3, 5, 6
+            """;
+
+    private static final String REBUILD_CLAIMS_SQL = INSERT_SQL + """
+            SELECT 'CLAIM', COALESCE(DATE(c.date), '1970-01-01'), COALESCE(p.company_id, 0), 0,
+                   COALESCE(c.status, ''),
+                   CASE WHEN COALESCE(c.fraud_score, 0) <= 0.3 THEN 'LOW'
+                        WHEN COALESCE(c.fraud_score, 0) <= 0.7 THEN 'MEDIUM' ELSE 'HIGH' END,
+                   COUNT(*), SUM(COALESCE(c.amount, 0))
+            FROM claim c
+            LEFT JOIN policy p ON p.id = c.policy_id
+            GROUP BY 2, 3, 5, 6
+            """;
+
+    private static final String REBUILD_EXCEPTION_CASES_SQL = INSERT_SQL + """
+            SELECT 'EXCEPTION_CASE', COALESCE(DATE(e.created_at), '1970-01-01'), COALESCE(e.company_id, 0),
+                   COALESCE(e.agent_id, 0), COALESCE(e.status, ''), COALESCE(e.priority, ''), COUNT(*), 0
+            FROM exception_cases e
+            GROUP BY 2, 3, 4, 5, 6
+            """;
+
+    private final DashboardRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate rebuildTransaction;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DashboardCache dashboardCache;
+
+    // entity class -> property name -> index into Hibernate's state arrays
+    private final Map<Class<?>, Map<String, Integer>> propertyIndexes = new ConcurrentHashMap<>();
+
+    // Upserts hold the read lock and a rebuild holds the write lock, so they never interleave
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    /** Bumped inside each rebuild transaction once the raw tables have been read */
+    private volatile long rebuildEpoch;
+    /** Epoch of the last rebuild that committed; deltas stamped before it are already counted */
+    private volatile long committedRebuildEpoch;
+
+    public DashboardRollupService(DashboardRollupRepository rollupRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+            DashboardCache dashboardCache) {
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // REPEATABLE READ makes INSERT ... SELECT take shared next-key locks on the raw
+        // tables, so no tracked row can commit between the rebuild's read and its commit
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.entityManagerFactory = entityManagerFactory;
+        this.dashboardCache = dashboardCache;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        RowChangeListener listener = new RowChangeListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    /**
+     * Backfill on first start, when the rollup table has just been created
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (rollupRepository.count() == 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            logger.error("Dashboard rollup backfill failed", e);
+        }
+    }
+
+    /**
+     * Recompute every rollup row from the raw tables (nightly at 03:30)
+     * Locks the four raw tables against writes while it runs, so it is kept to
+     * the nightly job, first-start backfill and the super admin endpoint.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public int rebuild() {
+        long started = System.currentTimeMillis();
+        Integer rows;
+        rebuildLock.writeLock().lock();
+        try {
+            long[] epoch = new long[1];
+            rows = rebuildTransaction.execute(status -> {
+                jdbcTemplate.update("DELETE FROM dashboard_rollup");
+                int inserted = jdbcTemplate.update(REBUILD_BOOKINGS_SQL)
+                        + jdbcTemplate.update(REBUILD_USER_POLICIES_SQL)
+                        + jdbcTemplate.update(REBUILD_CLAIMS_SQL)
+                        + jdbcTemplate.update(REBUILD_EXCEPTION_CASES_SQL);
+                // Transactions committing from here on are not in the rebuild
+                epoch[0] = ++rebuildEpoch;
+                return inserted;
+            });
+            committedRebuildEpoch = epoch[0];
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        dashboardCache.invalidateAll();
+        logger.info("Dashboard rollups rebuilt: {} rows in {} ms", rows, System.currentTimeMillis() - started);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Record count per status for one metric (companyId null = platform-wide)
+     */
+    public Map<String, Long> countByStatus(String metric, Long companyId) {
+        Map<String, Long> counts = new HashMap<>();
+        for (DashboardRollupRepository.RollupSum row : rollupRepository.sumByStatus(metric, companyId)) {
+            counts.merge(row.getStatus(), row.getTotal(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Sum of the counts for the given statuses
+     */
+    public static long total(Map<String, Long> countByStatus, String... statuses) {
+        long total = 0;
+        for (String status : statuses) {
+            total += countByStatus.getOrDefault(status, 0L);
+        }
+        return total;
+    }
+
+    /**
+     * Sum of all counts
+     */
+    public static long total(Map<String, Long> countByStatus) {
+        return countByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // ----- Maintenance -----
+
+    /**
+     * Move a claim between rollup keys after a JDBC write that raises no entity
+     * events (claim re-scoring). Call inside the writing transaction; the delta
+     * is applied after it commits.
+     */
+    public void recordClaimChange(LocalDateTime date, Long companyId, Double amount, String oldStatus,
+            Double oldFraudScore, String newStatus, Double newFraudScore) {
+        Key oldKey = new Key(DashboardRollup.CLAIM, dayOf(date), companyId, null, oldStatus, riskBand(oldFraudScore));
+        Key newKey = new Key(DashboardRollup.CLAIM, dayOf(date), companyId, null, newStatus, riskBand(newFraudScore));
+        if (oldKey.equals(newKey)) {
+            return;
+        }
+        double value = amount != null ? amount : 0.0;
+        record(oldKey, -1, -value);
+        record(newKey, 1, value);
+    }
+
+    private void record(Key key, long count, double amount) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Key, Delta> single = new HashMap<>();
+            single.computeIfAbsent(key, k -> new Delta()).add(count, amount);
+            upsert(single, rebuildEpoch);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Key, Delta> pending = (Map<Key, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Key, Delta> deltas = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    upsert(deltas, rebuildEpoch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DashboardRollupService.this);
+                }
+            });
+            pending = deltas;
+        }
+        pending.computeIfAbsent(key, k -> new Delta()).add(count, amount);
+    }
+
+    /**
+     * Apply a committed transaction's deltas; committedAtEpoch is the rebuild
+     * epoch read right after it committed
+     */
+    private void upsert(Map<Key, Delta> deltas, long committedAtEpoch) {
+        List<Object[]> params = new ArrayList<>();
+        // Fixed key order so concurrent flushes lock rollup rows in the same order
+        deltas.entrySet().stream()
+                .filter(e -> e.getValue().count != 0 || e.getValue().amount != 0)
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> {
+                    Key k = e.getKey();
+                    params.add(new Object[] { k.metric, Date.valueOf(k.day), k.companyId, k.agentId, k.status,
+                            k.bucket, e.getValue().count, e.getValue().amount });
+                });
+        if (params.isEmpty()) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            if (committedAtEpoch < committedRebuildEpoch) {
+                return; // A rebuild that read our rows committed while we waited
+            }
+            // The business transaction has committed; write in a fresh one
+            newTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, params));
+            // Cached dashboards covering these companies are now stale
+            deltas.keySet().stream().map(k -> k.companyId).distinct().forEach(dashboardCache::invalidateCompany);
+        } catch (Exception e) {
+            // Never fail a committed request over a rollup; the nightly rebuild repairs it
+            logger.error("Dashboard rollup update failed for {} keys", params.size(), e);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void onRowChange(EntityPersister persister, Object[] oldState, Object[] newState) {
+        Class<?> type = persister.getMappedClass();
+        String metric = metricOf(type);
+        if (metric == null) {
+            return;
+        }
+        Map<String, Integer> indexes = propertyIndexes.computeIfAbsent(type, t -> indexOf(persister));
+
+        Key oldKey = null;
+        double oldAmount = 0;
+        if (oldState != null) {
+            oldKey = keyOf(metric, name -> oldState[indexes.get(name)]);
+            oldAmount = amountOf(metric, name -> oldState[indexes.get(name)]);
+        }
+        Key newKey = null;
+        double newAmount = 0;
+        if (newState != null) {
+            newKey = keyOf(metric, name -> newState[indexes.get(name)]);
+            newAmount = amountOf(metric, name -> newState[indexes.get(name)]);
+        }
+
+        if (Objects.equals(oldKey, newKey) && oldAmount == newAmount) {
+            return;
+        }
+        if (oldKey != null) {
+            record(oldKey, -1, -oldAmount);
+        }
+        if (newKey != null) {
+            record(newKey, 1, newAmount);
+        }
+    }
+
+    private static String metricOf(Class<?> type) {
+        if (type == Booking.class)
+            return DashboardRollup.BOOKING;
+        if (type == UserPolicy.class)
+            return DashboardRollup.USER_POLICY;
+        if (type == Claim.class)
+            return DashboardRollup.CLAIM;
+        if (type == ExceptionCase.class)
+            return DashboardRollup.EXCEPTION_CASE;
+        return null;
+    }
+
+    private static Map<String, Integer> indexOf(EntityPersister persister) {
+        String[] names = persister.getPropertyNames();
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            indexes.put(names[i], i);
+        }
+        return indexes;
+    }
+
+    /**
+     * Rollup key of one row, read from an entity state snapshot
+     */
+    private static Key keyOf(String metric, Function<String, Object> property) {
+        switch (metric) {
+            case DashboardRollup.BOOKING: {
+                User agent = (User) property.apply("agent");
+                // Bookings belong to the agent's company; unassigned ones to the policy's
+                Long companyId = agent != null ? companyIdOf(agent.getCompany()) : null;
+                if (companyId == null) {
+                    companyId = policyCompanyId((Policy) property.apply("policy"));
+                }
+                return new Key(metric, dayOf(property.apply("createdAt")), companyId, idOf(agent),
+                        property.apply("status"), null);
+            }
+            case DashboardRollup.USER_POLICY:
+                return new Key(metric, dayOf(property.apply("createdAt")),
+                        policyCompanyId((Policy) property.apply("policy")), null, property.apply("status"),
+                        property.apply("workflowStatus"));
+            case DashboardRollup.CLAIM:
+                return new Key(metric, dayOf(property.apply("date")),
+                        policyCompanyId((Policy) property.apply("policy")), null, property.apply("status"),
+                        riskBand((Double) property.apply("fraudScore")));
+            case DashboardRollup.EXCEPTION_CASE:
+                return new Key(metric, dayOf(property.apply("createdAt")),
+                        companyIdOf((Company) property.apply("company")), idOf((User) property.apply("agent")),
+                        property.apply("status"), property.apply("priority"));
+            default:
+                throw new IllegalArgumentException("Unknown rollup metric " + metric);
+        }
+    }
+
+    private static double amountOf(String metric, Function<String, Object> property) {
+        Object amount = switch (metric) {
+            case DashboardRollup.USER_POLICY -> property.apply("premium");
+            case DashboardRollup.CLAIM -> property.apply("amount");
+            default -> null;
+        };
+        return amount != null ? (Double) amount : 0.0;
+    }
+
+    /**
+     * Claim fraud score band, same cut-offs as the admin risk distribution
+     */
+    public static String riskBand(Double fraudScore) {
+        double score = fraudScore != null ? fraudScore : 0.0;
+        if (score <= 0.3)
+            return "LOW";
+        if (score <= 0.7)
+            return "MEDIUM";
+        return "HIGH";
+    }
+
+    private static LocalDate dayOf(Object createdAt) {
+        return createdAt != null ? ((LocalDateTime) createdAt).toLocalDate() : UNKNOWN_DAY;
+    }
+
+    private static Long policyCompanyId(Policy policy) {
+        return policy != null ? companyIdOf(policy.getCompany()) : null;
+    }
+
+    private static Long companyIdOf(Company company) {
+        return company != null ? company.getId() : null;
+    }
+
+    private static Long idOf(User user) {
+        return user != null ? user.getId() : null;
+    }
+
+    private final class RowChangeListener
+            implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            onRowChange(event.getPersister(), null, event.getState());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            // Without a loaded snapshot the previous key is unknown; leave it to the rebuild
+            if (event.getOldState() != null) {
+                onRowChange(event.getPersister(), event.getOldState(), event.getState());
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            onRowChange(event.getPersister(), event.getDeletedState(), null);
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparing((Key k) -> k.metric)
+                .thenComparing(k -> k.day)
+                .thenComparingLong(k -> k.companyId)
+                .thenComparingLong(k -> k.agentId)
+                .thenComparing(k -> k.status)
+                .thenComparing(k -> k.bucket);
+
+        private final String metric;
+        private final LocalDate day;
+        private final long companyId;
+        private final long agentId;
+        private final String status;
+        private final String bucket;
+
+        private Key(String metric, LocalDate day, Long companyId, Long agentId, Object status, Object bucket) {
+            this.metric = metric;
+            this.day = day;
+            this.companyId = companyId != null ? companyId : 0L;
+            this.agentId = agentId != null ? agentId : 0L;
+            this.status = status != null ? status.toString() : "";
+            this.bucket = bucket != null ? bucket.toString() : "";
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key k))
+                return false;
+            return companyId == k.companyId && agentId == k.agentId && metric.equals(k.metric)
+                    && day.equals(k.day) && status.equals(k.status) && bucket.equals(k.bucket);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(metric, day, companyId, agentId, status, bucket);
+        }
+    }
+
+    private static final class Delta {
+        private long count;
+        private double amount;
+
+        private void add(long count, double amount) {
+            this.count += count;
+            this.amount += amount;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.insurai.service;
+
+import com.insurai.event.DomainEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Domain Event Bus
+ * In-process publish/subscribe for post-commit side effects. publish() inside
+ * a transaction defers dispatch until after commit (events from rolled-back
+ * work are dropped); outside one it dispatches at once. Each handler runs on
+ * its lane's worker pool, so the request thread only enqueues.
+ *
+ * Lanes have bounded queues with different overflow behaviour:
+ * - RECORDS (audit rows, in-app notifications): when full the publishing
+ *   thread runs the handler itself, slowing producers instead of losing records
+ * - EMAIL: when full the message is dropped and counted, so a slow SMTP
+ *   server can never hold up a booking
+ */
+@Service
+public class DomainEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventBus.class);
+
+    public enum Lane {
+        RECORDS, EMAIL
+    }
+
+    private final Map<Class<? extends DomainEvent>, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<Lane, ThreadPoolExecutor> executors = new LinkedHashMap<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder handled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+
+    public DomainEventBus() {
+        executors.put(Lane.RECORDS, executor("event-records", 4, 1000, (task, pool) -> {
+            if (!pool.isShutdown()) {
+                callerRuns.increment();
+                task.run();
+            }
+        }));
+        executors.put(Lane.EMAIL, executor("event-email", 2, 1000, (task, pool) -> {
+            dropped.increment();
+            logger.warn("Email queue full, dropping message");
+        }));
+    }
+
+    /**
+     * Register a handler for one event type on a lane
+     */
+    public <E extends DomainEvent> void subscribe(Class<E> type, Lane lane, Consumer<? super E> handler) {
+        subscriptions.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>())
+                .add(new Subscription(lane, event -> handler.accept(type.cast(event))));
+    }
+
+    /**
+     * Publish an event; handlers run after the current transaction commits, if any
+     */
+    public void publish(DomainEvent event) {
+        published.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    private void dispatch(DomainEvent event) {
+        for (Subscription subscription : subscriptions.getOrDefault(event.getClass(), List.of())) {
+            executors.get(subscription.lane).execute(() -> {
+                try {
+                    subscription.handler.accept(event);
+                    handled.increment();
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    logger.error("Handler for {} failed", event.getClass().getSimpleName(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Event counters and current queue depths
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("published", published.sum());
+        stats.put("handled", handled.sum());
+        stats.put("failed", failed.sum());
+        stats.put("droppedEmails", dropped.sum());
+        stats.put("ranOnCaller", callerRuns.sum());
+        executors.forEach((lane, pool) -> stats.put(lane.name().toLowerCase() + "Queued", pool.getQueue().size()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor pool : executors.values()) {
+            try {
+                if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                    logger.warn("{} events still queued at shutdown", pool.getQueue().size());
+                    pool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor executor(String name, int threads, int capacity,
+            RejectedExecutionHandler onFull) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                r -> {
+                    Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                onFull);
+    }
+
+    private record Subscription(Lane lane, Consumer<DomainEvent> handler) {
+    }
+}
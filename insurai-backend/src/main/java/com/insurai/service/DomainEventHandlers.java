@@ -0,0 +1,215 @@
+package com.insurai.service;
+
+import com.insurai.event.DomainEvent.BookingCancelled;
+import com.insurai.event.DomainEvent.BookingCompleted;
+import com.insurai.event.DomainEvent.BookingConfirmed;
+import com.insurai.event.DomainEvent.BookingCreated;
+import com.insurai.event.DomainEvent.BookingExpired;
+import com.insurai.event.DomainEvent.BookingPolicyIssued;
+import com.insurai.event.DomainEvent.BookingRejected;
+import com.insurai.event.DomainEvent.BookingRescheduled;
+import com.insurai.event.DomainEvent.BookingStatusChanged;
+import com.insurai.event.DomainEvent.BookingsDecided;
+import com.insurai.event.DomainEvent.ClaimFiled;
+import com.insurai.event.DomainEvent.ClaimStatusChanged;
+import com.insurai.event.DomainEvent.SlotBlocked;
+import com.insurai.model.AuditLog;
+import com.insurai.model.User;
+import com.insurai.service.DomainEventBus.Lane;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Domain Event Handlers
+ * Audit rows, in-app notifications and emails for booking and claim events,
+ * run by the event bus after the write has committed
+ */
+@Service
+public class DomainEventHandlers {
+
+    private static final String COMPLETED_MESSAGE = "Your consultation has been completed. The agent will review your application.";
+    private static final String POLICY_ISSUED_MESSAGE = "Congratulations! Your policy has been issued and is now active.";
+
+    private final DomainEventBus eventBus;
+    private final AuditService auditService;
+    private final NotificationService notificationService;
+    private final EmailService emailService;
+
+    public DomainEventHandlers(DomainEventBus eventBus, AuditService auditService,
+            NotificationService notificationService, EmailService emailService) {
+        this.eventBus = eventBus;
+        this.auditService = auditService;
+        this.notificationService = notificationService;
+        this.emailService = emailService;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        // Booking created: audit, notify and email the agent
+        eventBus.subscribe(BookingCreated.class, Lane.RECORDS, e -> {
+            auditService.log("BOOKING_CREATED: ID " + e.bookingId(), e.user().getId());
+            notificationService.createNotification(e.agent(), bookingCreatedMessage(e), "INFO");
+        });
+        eventBus.subscribe(BookingCreated.class, Lane.EMAIL, e -> emailService.send(
+                e.agent().getEmail(),
+                "New " + typeLabel(e),
+                bookingCreatedMessage(e) + "\nReason: " + e.reason() + "\n\nPlease login to review."));
+
+        // Rescheduled by the user: tell the agent
+        eventBus.subscribe(BookingRescheduled.class, Lane.RECORDS, e -> {
+            auditService.log("BOOKING_RESCHEDULED: ID " + e.bookingId(), e.user().getId());
+            notificationService.createNotification(e.agent(), rescheduledMessage(e), "INFO");
+        });
+        eventBus.subscribe(BookingRescheduled.class, Lane.EMAIL, e -> emailService.send(
+                e.agent().getEmail(),
+                "Appointment Rescheduled",
+                rescheduledMessage(e) + "\nPlease update your calendar."));
+
+        // Status set by agent/admin: tell the user
+        eventBus.subscribe(BookingStatusChanged.class, Lane.RECORDS, e -> {
+            auditService.log("BOOKING_STATUS_UPDATE: ID " + e.bookingId() + " to " + e.status(), e.user().getId());
+            String message = "Your appointment status updated to: " + e.status();
+            if (e.meetingLink() != null && "APPROVED".equals(e.status())) {
+                message += "\nJoin Link: " + e.meetingLink();
+            }
+            notificationService.createNotification(e.user(), message,
+                    "APPROVED".equals(e.status()) ? "SUCCESS" : "INFO");
+        });
+        eventBus.subscribe(BookingStatusChanged.class, Lane.EMAIL, e -> emailService.send(
+                e.user().getEmail(),
+                "Appointment Status Update",
+                "Your appointment with " + e.agent().getName() + " has been " + e.status() + ".\n" +
+                        (e.meetingLink() != null ? ("\nGoogle Meet Link: " + e.meetingLink() + "\n") : "")));
+
+        // Bulk decisions: one audit batch, one notification per affected user
+        eventBus.subscribe(BookingsDecided.class, Lane.RECORDS, this::onBookingsDecided);
+
+        eventBus.subscribe(SlotBlocked.class, Lane.RECORDS,
+                e -> auditService.log("SLOT_BLOCKED: Agent " + e.agentId(), e.agentId()));
+
+        // Lifecycle transitions
+        eventBus.subscribe(BookingConfirmed.class, Lane.RECORDS, e -> notificationService
+                .createNotification(e.user(), confirmedMessage(e), "SUCCESS"));
+        eventBus.subscribe(BookingConfirmed.class, Lane.EMAIL, e -> emailService
+                .send(e.user().getEmail(), "Booking Confirmed - InsurAI", confirmedMessage(e)));
+
+        eventBus.subscribe(BookingCompleted.class, Lane.RECORDS, e -> notificationService
+                .createNotification(e.user(), COMPLETED_MESSAGE, "INFO"));
+        eventBus.subscribe(BookingCompleted.class, Lane.EMAIL, e -> emailService
+                .send(e.user().getEmail(), "Consultation Completed - InsurAI", COMPLETED_MESSAGE));
+
+        eventBus.subscribe(BookingPolicyIssued.class, Lane.RECORDS, e -> notificationService
+                .createNotification(e.user(), POLICY_ISSUED_MESSAGE, "SUCCESS"));
+        eventBus.subscribe(BookingPolicyIssued.class, Lane.EMAIL, e -> emailService
+                .send(e.user().getEmail(), "Policy Issued - InsurAI", POLICY_ISSUED_MESSAGE));
+
+        eventBus.subscribe(BookingRejected.class, Lane.RECORDS, e -> notificationService
+                .createNotification(e.user(), rejectedMessage(e), "WARNING"));
+        eventBus.subscribe(BookingRejected.class, Lane.EMAIL, e -> emailService
+                .send(e.user().getEmail(), "Application Update - InsurAI", rejectedMessage(e)));
+
+        eventBus.subscribe(BookingCancelled.class, Lane.RECORDS, e -> {
+            if (e.agent() != null) {
+                notificationService.createNotification(e.agent(),
+                        "Booking #" + e.bookingId() + " has been cancelled by the user", "INFO");
+            }
+        });
+
+        eventBus.subscribe(BookingExpired.class, Lane.RECORDS, this::onBookingExpired);
+
+        // Claims
+        eventBus.subscribe(ClaimFiled.class, Lane.RECORDS,
+                e -> auditService.log("CLAIM_FILED: ID " + e.claimId(), e.userId()));
+        eventBus.subscribe(ClaimStatusChanged.class, Lane.RECORDS, e -> {
+            auditService.log("CLAIM_STATUS_UPDATE: ID " + e.claimId() + " to " + e.status(), e.user().getId());
+            notificationService.createNotification(e.user(),
+                    "Claim #" + e.claimId() + " updated to " + e.status(),
+                    "APPROVED".equals(e.status()) ? "SUCCESS" : "INFO");
+        });
+    }
+
+    private void onBookingExpired(BookingExpired e) {
+        // Only SLA breaches are announced; a request whose slot simply passed expires quietly
+        if ("PENDING".equals(e.previousStatus()) && e.slaBreached() && e.user() != null) {
+            notificationService.createNotification(e.user(),
+                    "Your consultation request has expired due to no agent response within 48 hours. Please submit a new request.",
+                    "WARNING");
+        } else if ("CONFIRMED".equals(e.previousStatus())) {
+            if (e.user() != null) {
+                notificationService.createNotification(e.user(),
+                        "Your scheduled consultation has expired. Please reschedule if still interested.",
+                        "WARNING");
+            }
+            if (e.agent() != null) {
+                notificationService.createNotification(e.agent(),
+                        "Confirmed appointment ID " + e.bookingId() + " has expired due to no completion.",
+                        "INFO");
+            }
+        }
+    }
+
+    private void onBookingsDecided(BookingsDecided e) {
+        User actor = e.actor();
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditLog> entries = new ArrayList<>(e.bookings().size());
+        Map<Long, List<BookingsDecided.Decided>> byUser = new LinkedHashMap<>();
+        for (BookingsDecided.Decided d : e.bookings()) {
+            AuditLog l = new AuditLog();
+            l.setAction("BOOKING_STATUS_UPDATE: ID " + d.bookingId() + " to " + e.status());
+            l.setEntityType("BOOKING");
+            l.setEntityId(d.bookingId());
+            l.setPerformedBy(actor.getId());
+            l.setPerformedByRole(actor.getRole());
+            l.setPerformedByName(actor.getName());
+            l.setDetails("REJECTED".equals(e.status()) ? "Bulk decision. Reason: " + e.reason() : "Bulk decision");
+            l.setPreviousState(d.previousStatus());
+            l.setNewState(e.status());
+            l.setTimestamp(now);
+            l.setSeverity("INFO");
+            l.setSuccess(true);
+            l.setUserId(d.user() != null ? d.user().getId() : null);
+            entries.add(l);
+
+            if (d.user() != null) {
+                byUser.computeIfAbsent(d.user().getId(), id -> new ArrayList<>()).add(d);
+            }
+        }
+        auditService.logAll(entries);
+
+        String type = "APPROVED".equals(e.status()) ? "SUCCESS" : "INFO";
+        for (List<BookingsDecided.Decided> decided : byUser.values()) {
+            String message = decided.size() == 1
+                    ? "Appointment status updated to: " + e.status()
+                    : decided.size() + " of your appointments were updated to " + e.status() + ": "
+                            + decided.stream().map(d -> "#" + d.bookingId()).collect(Collectors.joining(", "));
+            notificationService.createNotification(decided.get(0).user(), message, type);
+        }
+    }
+
+    private static String typeLabel(BookingCreated e) {
+        return "ENQUIRY".equalsIgnoreCase(e.bookingType()) ? "Policy Enquiry" : "Purchase Request";
+    }
+
+    private static String bookingCreatedMessage(BookingCreated e) {
+        return "New " + typeLabel(e) + " from " + e.user().getName() + " for " + e.startTime().toString();
+    }
+
+    private static String rescheduledMessage(BookingRescheduled e) {
+        return "Appointment #" + e.bookingId() + " rescheduled by user to " + e.startTime().toString();
+    }
+
+    private static String confirmedMessage(BookingConfirmed e) {
+        return "Your consultation has been confirmed for " + e.appointmentTime().toString();
+    }
+
+    private static String rejectedMessage(BookingRejected e) {
+        return "Your application has been rejected. Reason: " + e.rejectionReason();
+    }
+}
@@ -0,0 +1,258 @@
+package com.insurai.service;
+
+import com.insurai.model.Booking;
+import com.insurai.model.Claim;
+import com.insurai.model.User;
+import com.insurai.model.UserPolicy;
+import com.insurai.repository.BookingRepository;
+import com.insurai.repository.ClaimRepository;
+import com.insurai.repository.UserPolicyRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Fraud Feature Store
+ * Live per-user fraud features, seeded from the user's history on first use and
+ * then kept current by booking, claim, policy and profile write events, so a
+ * risk lookup does not re-read history.
+ * Every event is an idempotent upsert keyed by row id, which lets events that
+ * race with a seed be replayed safely. Records are re-seeded every 15 minutes
+ * to pick up writes made by paths that do not publish events.
+ */
+@Service
+public class FraudFeatureStore {
+
+    private static final int MAX_USERS = 100_000;
+    private static final long RESEED_AFTER_MINUTES = 15;
+
+    private final BookingRepository bookingRepository;
+    private final UserPolicyRepository userPolicyRepository;
+    private final ClaimRepository claimRepository;
+
+    // userId -> record, access-ordered for LRU eviction; guarded by itself
+    private final LinkedHashMap<Long, Record> records = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Record> eldest) {
+            return size() > MAX_USERS;
+        }
+    };
+    // userId -> events that arrived while the user's record was being seeded
+    private final Map<Long, List<Consumer<Record>>> seeding = new HashMap<>();
+
+    public FraudFeatureStore(BookingRepository bookingRepository, UserPolicyRepository userPolicyRepository,
+            ClaimRepository claimRepository) {
+        this.bookingRepository = bookingRepository;
+        this.userPolicyRepository = userPolicyRepository;
+        this.claimRepository = claimRepository;
+    }
+
+    /**
+     * Current features for a user; seeds the record from the database on a miss
+     */
+    public FraudFeatures features(User user) {
+        Long userId = user.getId();
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (records) {
+            Record record = records.get(userId);
+            if (record != null && record.seededAt.isAfter(now.minusMinutes(RESEED_AFTER_MINUTES))) {
+                return record.toFeatures(now);
+            }
+            seeding.putIfAbsent(userId, new ArrayList<>());
+        }
+
+        Record seeded = new Record(now);
+        seeded.missingProfileFields = FraudFeatures.missingProfileFields(user);
+        List<Booking> bookings = bookingRepository.findByUserId(userId);
+        bookings.sort(Comparator.comparing(Booking::getId));
+        for (Booking b : bookings) {
+            seeded.applyBooking(b.getId(), b.getStatus(), b.getCreatedAt());
+        }
+        for (UserPolicy up : userPolicyRepository.findByUserId(userId)) {
+            seeded.applyPolicy(up.getId(), up.getPurchasedAt());
+        }
+        for (Claim c : claimRepository.findByUserId(userId)) {
+            seeded.claimIds.add(c.getId());
+        }
+
+        synchronized (records) {
+            List<Consumer<Record>> pending = seeding.remove(userId);
+            if (pending != null) {
+                pending.forEach(event -> event.accept(seeded));
+            }
+            records.put(userId, seeded);
+            return seeded.toFeatures(now);
+        }
+    }
+
+    /**
+     * A booking was created or changed status
+     */
+    public void onBookingSaved(Booking booking) {
+        if (booking.getUser() == null || booking.getId() == null) {
+            return;
+        }
+        Long bookingId = booking.getId();
+        String status = booking.getStatus();
+        LocalDateTime createdAt = booking.getCreatedAt();
+        publish(booking.getUser().getId(), r -> r.applyBooking(bookingId, status, createdAt));
+    }
+
+    /**
+     * A policy was purchased or assigned to a user
+     */
+    public void onUserPolicySaved(UserPolicy userPolicy) {
+        if (userPolicy.getUser() == null || userPolicy.getId() == null) {
+            return;
+        }
+        Long userPolicyId = userPolicy.getId();
+        LocalDateTime purchasedAt = userPolicy.getPurchasedAt();
+        publish(userPolicy.getUser().getId(), r -> r.applyPolicy(userPolicyId, purchasedAt));
+    }
+
+    /**
+     * A claim was filed
+     */
+    public void onClaimSaved(Claim claim) {
+        if (claim.getUser() == null || claim.getId() == null) {
+            return;
+        }
+        Long claimId = claim.getId();
+        publish(claim.getUser().getId(), r -> r.claimIds.add(claimId));
+    }
+
+    /**
+     * Profile fields were edited
+     */
+    public void onProfileUpdated(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        int missing = FraudFeatures.missingProfileFields(user);
+        publish(user.getId(), r -> r.missingProfileFields = missing);
+    }
+
+    private void publish(Long userId, Consumer<Record> event) {
+        Runnable apply = () -> {
+            synchronized (records) {
+                Record record = records.get(userId);
+                if (record != null) {
+                    event.accept(record);
+                }
+                List<Consumer<Record>> pending = seeding.get(userId);
+                if (pending != null) {
+                    pending.add(event);
+                }
+            }
+        };
+        // Only committed writes are visible to a concurrent seed, so apply on commit too
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Mutable aggregates for one user; only touched while holding the records lock
+     */
+    private static final class Record {
+        private final LocalDateTime seededAt;
+
+        private final Map<Long, String> bookingStatus = new HashMap<>();
+        private final PriorityQueue<LocalDateTime> bookingTimes = new PriorityQueue<>(); // last 7 days only
+        private long rejected;
+        private long cancelled;
+        private long lastBookingId;
+        private LocalDateTime lastBookingCreatedAt;
+        private long minGapMinutes = FraudFeatures.NO_GAP;
+
+        private final Set<Long> policyIds = new HashSet<>();
+        private final PriorityQueue<LocalDateTime> purchaseTimes = new PriorityQueue<>(); // last month only
+
+        private final Set<Long> claimIds = new HashSet<>();
+        private int missingProfileFields;
+
+        private Record(LocalDateTime seededAt) {
+            this.seededAt = seededAt;
+        }
+
+        private void applyBooking(Long id, String status, LocalDateTime createdAt) {
+            boolean isNew = !bookingStatus.containsKey(id);
+            String previous = bookingStatus.put(id, status);
+            if (!isNew) {
+                adjustStatusCounts(previous, -1);
+                adjustStatusCounts(status, 1);
+                return;
+            }
+            adjustStatusCounts(status, 1);
+            if (createdAt != null && createdAt.isAfter(LocalDateTime.now().minusDays(7))) {
+                bookingTimes.add(createdAt);
+            }
+            // Gaps are measured between consecutive bookings in id order
+            if (id > lastBookingId) {
+                if (lastBookingCreatedAt != null && createdAt != null) {
+                    minGapMinutes = Math.min(minGapMinutes,
+                            ChronoUnit.MINUTES.between(lastBookingCreatedAt, createdAt));
+                }
+                lastBookingId = id;
+                lastBookingCreatedAt = createdAt;
+            }
+        }
+
+        private void adjustStatusCounts(String status, int delta) {
+            if ("REJECTED".equals(status))
+                rejected += delta;
+            else if ("CANCELLED".equals(status))
+                cancelled += delta;
+        }
+
+        private void applyPolicy(Long id, LocalDateTime purchasedAt) {
+            if (policyIds.add(id) && purchasedAt != null
+                    && purchasedAt.isAfter(LocalDateTime.now().minusMonths(1))) {
+                purchaseTimes.add(purchasedAt);
+            }
+        }
+
+        private FraudFeatures toFeatures(LocalDateTime now) {
+            LocalDateTime bookingWindow = now.minusDays(7);
+            while (!bookingTimes.isEmpty() && !bookingTimes.peek().isAfter(bookingWindow)) {
+                bookingTimes.poll();
+            }
+            LocalDateTime policyWindow = now.minusMonths(1);
+            while (!purchaseTimes.isEmpty() && !purchaseTimes.peek().isAfter(policyWindow)) {
+                purchaseTimes.poll();
+            }
+
+            FraudFeatures f = new FraudFeatures();
+            f.setBookingCount(bookingStatus.size());
+            f.setRecentBookingCount(bookingTimes.size());
+            f.setRejectedBookingCount(rejected);
+            f.setCancelledBookingCount(cancelled);
+            f.setMinBookingGapMinutes(minGapMinutes);
+            f.setPolicyCount(policyIds.size());
+            f.setRecentPolicyCount(purchaseTimes.size());
+            f.setClaimCount(claimIds.size());
+            f.setMissingProfileFields(missingProfileFields);
+            return f;
+        }
+    }
+}
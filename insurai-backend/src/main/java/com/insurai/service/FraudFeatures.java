@@ -0,0 +1,123 @@
+package com.insurai.service;
+
+import com.insurai.model.User;
+
+/**
+ * Per-user history aggregates used by fraud risk scoring.
+ * Built either by FraudFeatureStore for one user or from grouped queries over all users.
+ */
+public class FraudFeatures {
+
+    /** Marker for "fewer than two bookings", i.e. no interval to measure */
+    public static final long NO_GAP = Long.MAX_VALUE;
+
+    private long bookingCount;
+    private long recentBookingCount; // created in the last 7 days
+    private long rejectedBookingCount;
+    private long cancelledBookingCount;
+    private long minBookingGapMinutes = NO_GAP;
+    private long policyCount;
+    private long recentPolicyCount; // purchased in the last month
+    private long claimCount;
+    private int missingProfileFields;
+
+    /**
+     * Number of unset contact and financial profile fields (0-5)
+     */
+    public static int missingProfileFields(User user) {
+        int missingFields = 0;
+
+        if (user.getEmail() == null || user.getEmail().isEmpty())
+            missingFields++;
+        if (user.getPhone() == null || user.getPhone().isEmpty())
+            missingFields++;
+        if (user.getAge() == null || user.getAge() <= 0)
+            missingFields++;
+        if (user.getIncome() == null || user.getIncome() <= 0)
+            missingFields++;
+        if (user.getAddress() == null || user.getAddress().isEmpty())
+            missingFields++;
+
+        return missingFields;
+    }
+
+    /**
+     * Claims filed per policy held; 0 when the user holds no policies
+     */
+    public double getClaimToPolicyRatio() {
+        return policyCount > 0 ? (double) claimCount / policyCount : 0.0;
+    }
+
+    // Getters and Setters
+    public long getBookingCount() {
+        return bookingCount;
+    }
+
+    public void setBookingCount(long bookingCount) {
+        this.bookingCount = bookingCount;
+    }
+
+    public long getRecentBookingCount() {
+        return recentBookingCount;
+    }
+
+    public void setRecentBookingCount(long recentBookingCount) {
+        this.recentBookingCount = recentBookingCount;
+    }
+
+    public long getRejectedBookingCount() {
+        return rejectedBookingCount;
+    }
+
+    public void setRejectedBookingCount(long rejectedBookingCount) {
+        this.rejectedBookingCount = rejectedBookingCount;
+    }
+
+    public long getCancelledBookingCount() {
+        return cancelledBookingCount;
+    }
+
+    public void setCancelledBookingCount(long cancelledBookingCount) {
+        this.cancelledBookingCount = cancelledBookingCount;
+    }
+
+    public long getMinBookingGapMinutes() {
+        return minBookingGapMinutes;
+    }
+
+    public void setMinBookingGapMinutes(long minBookingGapMinutes) {
+        this.minBookingGapMinutes = minBookingGapMinutes;
+    }
+
+    public long getPolicyCount() {
+        return policyCount;
+    }
+
+    public void setPolicyCount(long policyCount) {
+        this.policyCount = policyCount;
+    }
+
+    public long getRecentPolicyCount() {
+        return recentPolicyCount;
+    }
+
+    public void setRecentPolicyCount(long recentPolicyCount) {
+        this.recentPolicyCount = recentPolicyCount;
+    }
+
+    public long getClaimCount() {
+        return claimCount;
+    }
+
+    public void setClaimCount(long claimCount) {
+        this.claimCount = claimCount;
+    }
+
+    public int getMissingProfileFields() {
+        return missingProfileFields;
+    }
+
+    public void setMissingProfileFields(int missingProfileFields) {
+        this.missingProfileFields = missingProfileFields;
+    }
+}
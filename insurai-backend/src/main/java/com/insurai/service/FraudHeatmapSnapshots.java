@@ -0,0 +1,298 @@
+package com.insurai.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fraud Heatmap Snapshots
+ * Materialized heatmap per company, rebuilt on a schedule and swapped in
+ * atomically so readers never wait on a computation. Any number of admins
+ * watching the same company share one computation per refresh.
+ * After each rebuild, users whose risk level changed are pushed to
+ * /topic/fraud/{companyId} (or /topic/fraud/all for the platform-wide view).
+ * A company stays watched while it is read over REST or has a live STOMP
+ * subscription to its topic.
+ */
+@Service
+public class FraudHeatmapSnapshots {
+
+    private static final Logger logger = LoggerFactory.getLogger(FraudHeatmapSnapshots.class);
+
+    /** Key used for the platform-wide heatmap, since the map cannot hold null */
+    private static final long ALL_COMPANIES = 0L;
+    /** Companies nobody has looked at or subscribed to for this long stop being refreshed */
+    private static final long IDLE_MINUTES = 30;
+    private static final String FRAUD_TOPIC_PREFIX = "/topic/fraud/";
+
+    private final FraudRiskService fraudRiskService;
+    private final NotificationService notificationService;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    // STOMP session id -> (subscription id -> slot key), to match UNSUBSCRIBE and disconnects
+    private final Map<String, Map<String, Long>> subscriptions = new ConcurrentHashMap<>();
+
+    public FraudHeatmapSnapshots(FraudRiskService fraudRiskService, NotificationService notificationService) {
+        this.fraudRiskService = fraudRiskService;
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Latest heatmap for a company (null = all users). Only the first request
+     * for a company computes; later requests read the published snapshot.
+     */
+    public FraudRiskService.FraudHeatmap get(Long companyId) {
+        Slot slot = slots.computeIfAbsent(key(companyId), k -> new Slot(companyId));
+        slot.lastReadAt = LocalDateTime.now();
+        FraudRiskService.FraudHeatmap current = slot.current;
+        if (current != null) {
+            return current;
+        }
+        synchronized (slot) {
+            if (slot.current == null) {
+                slot.current = fraudRiskService.getFraudHeatmap(companyId);
+            }
+            return slot.current;
+        }
+    }
+
+    /**
+     * Rebuild every watched heatmap and push risk level changes
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void refreshAll() {
+        LocalDateTime idleBefore = LocalDateTime.now().minusMinutes(IDLE_MINUTES);
+        for (Long key : new ArrayList<>(slots.keySet())) {
+            // Same per-key lock as subscribe, so a slot is never dropped under a new subscriber
+            slots.computeIfPresent(key,
+                    (k, slot) -> slot.subscribers == 0 && slot.lastReadAt.isBefore(idleBefore) ? null : slot);
+        }
+
+        for (Slot slot : slots.values()) {
+            try {
+                refresh(slot);
+            } catch (Exception e) {
+                // Keep serving the previous snapshot; the next run retries
+                logger.error("Fraud heatmap refresh failed for company {}", slot.companyId, e);
+            }
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null || destination == null
+                || !destination.startsWith(FRAUD_TOPIC_PREFIX)) {
+            return;
+        }
+        String scope = destination.substring(FRAUD_TOPIC_PREFIX.length());
+        Long companyId;
+        try {
+            companyId = "all".equals(scope) ? null : Long.valueOf(scope);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        long key = key(companyId);
+        Long previous = subscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), key);
+        if (previous != null) {
+            release(previous);
+        }
+        slots.compute(key, (k, slot) -> {
+            Slot watched = slot != null ? slot : new Slot(companyId);
+            watched.subscribers++;
+            return watched;
+        });
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> forSession = accessor.getSessionId() != null
+                ? subscriptions.get(accessor.getSessionId())
+                : null;
+        Long key = forSession != null && accessor.getSubscriptionId() != null
+                ? forSession.remove(accessor.getSubscriptionId())
+                : null;
+        if (key != null) {
+            release(key);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Long> forSession = event.getSessionId() != null
+                ? subscriptions.remove(event.getSessionId())
+                : null;
+        if (forSession != null) {
+            forSession.values().forEach(this::release);
+        }
+    }
+
+    // The idle clock for a slot starts when its last subscriber leaves
+    private void release(long key) {
+        slots.computeIfPresent(key, (k, slot) -> {
+            slot.subscribers = Math.max(0, slot.subscribers - 1);
+            slot.lastReadAt = LocalDateTime.now();
+            return slot;
+        });
+    }
+
+    private void refresh(Slot slot) {
+        FraudRiskService.FraudHeatmap next = fraudRiskService.getFraudHeatmap(slot.companyId);
+        FraudRiskService.FraudHeatmap previous;
+        synchronized (slot) {
+            previous = slot.current;
+            slot.current = next;
+        }
+        if (previous == null) {
+            return;
+        }
+
+        HeatmapDelta delta = diff(slot.companyId, previous, next);
+        if (!delta.getChanged().isEmpty() || !delta.getRemovedUserIds().isEmpty()) {
+            String topic = "fraud/" + (slot.companyId != null ? slot.companyId : "all");
+            notificationService.broadcastUpdate(topic, delta);
+        }
+    }
+
+    private static HeatmapDelta diff(Long companyId, FraudRiskService.FraudHeatmap previous,
+            FraudRiskService.FraudHeatmap next) {
+        Map<Long, String> previousLevels = new HashMap<>(previous.getUserRiskScores().size() * 2);
+        for (FraudRiskService.UserRiskScore score : previous.getUserRiskScores()) {
+            previousLevels.put(score.getUserId(), score.getRiskLevel());
+        }
+
+        List<FraudRiskService.UserRiskScore> changed = new ArrayList<>();
+        for (FraudRiskService.UserRiskScore score : next.getUserRiskScores()) {
+            String before = previousLevels.remove(score.getUserId());
+            if (!Objects.equals(before, score.getRiskLevel())) {
+                changed.add(score);
+            }
+        }
+
+        HeatmapDelta delta = new HeatmapDelta();
+        delta.setCompanyId(companyId);
+        delta.setChanged(changed);
+        // Whatever is left was in the previous snapshot only
+        delta.setRemovedUserIds(new ArrayList<>(previousLevels.keySet()));
+        delta.setTotalUsers(next.getTotalUsers());
+        delta.setGreenCount(next.getGreenCount());
+        delta.setYellowCount(next.getYellowCount());
+        delta.setRedCount(next.getRedCount());
+        delta.setGeneratedAt(next.getGeneratedAt());
+        return delta;
+    }
+
+    private static long key(Long companyId) {
+        return companyId != null ? companyId : ALL_COMPANIES;
+    }
+
+    private static final class Slot {
+        private final Long companyId;
+        private volatile FraudRiskService.FraudHeatmap current;
+        private volatile LocalDateTime lastReadAt = LocalDateTime.now();
+        // Live STOMP subscriptions; only changed inside slots.compute for this key
+        private int subscribers;
+
+        private Slot(Long companyId) {
+            this.companyId = companyId;
+        }
+    }
+
+    /**
+     * Heatmap Delta DTO
+     * Users that are new or changed risk level since the previous snapshot,
+     * plus the new totals
+     */
+    public static class HeatmapDelta {
+        private Long companyId;
+        private List<FraudRiskService.UserRiskScore> changed;
+        private List<Long> removedUserIds;
+        private int totalUsers;
+        private int greenCount;
+        private int yellowCount;
+        private int redCount;
+        private LocalDateTime generatedAt;
+
+        // Getters and Setters
+        public Long getCompanyId() {
+            return companyId;
+        }
+
+        public void setCompanyId(Long companyId) {
+            this.companyId = companyId;
+        }
+
+        public List<FraudRiskService.UserRiskScore> getChanged() {
+            return changed;
+        }
+
+        public void setChanged(List<FraudRiskService.UserRiskScore> changed) {
+            this.changed = changed;
+        }
+
+        public List<Long> getRemovedUserIds() {
+            return removedUserIds;
+        }
+
+        public void setRemovedUserIds(List<Long> removedUserIds) {
+            this.removedUserIds = removedUserIds;
+        }
+
+        public int getTotalUsers() {
+            return totalUsers;
+        }
+
+        public void setTotalUsers(int totalUsers) {
+            this.totalUsers = totalUsers;
+        }
+
+        public int getGreenCount() {
+            return greenCount;
+        }
+
+        public void setGreenCount(int greenCount) {
+            this.greenCount = greenCount;
+        }
+
+        public int getYellowCount() {
+            return yellowCount;
+        }
+
+        public void setYellowCount(int yellowCount) {
+            this.yellowCount = yellowCount;
+        }
+
+        public int getRedCount() {
+            return redCount;
+        }
+
+        public void setRedCount(int redCount) {
+            this.redCount = redCount;
+        }
+
+        public LocalDateTime getGeneratedAt() {
+            return generatedAt;
+        }
+
+        public void setGeneratedAt(LocalDateTime generatedAt) {
+            this.generatedAt = generatedAt;
+        }
+    }
+}
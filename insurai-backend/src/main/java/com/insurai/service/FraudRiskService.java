@@ -1,17 +1,23 @@
 package com.insurai.service;
 
-import com.insurai.model.Booking;
 import com.insurai.model.User;
-import com.insurai.model.UserPolicy;
 import com.insurai.repository.BookingRepository;
+import com.insurai.repository.ClaimRepository;
 import com.insurai.repository.UserPolicyRepository;
 import com.insurai.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Fraud Risk Analysis Service
@@ -23,38 +29,51 @@ public class FraudRiskService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final UserPolicyRepository userPolicyRepository;
+    private final ClaimRepository claimRepository;
+    private final FraudFeatureStore featureStore;
+
+    private static final int SCORING_CHUNK_SIZE = 2000;
+    private static final int MAX_HIGH_RISK_WINDOW = 10_000;
 
     public FraudRiskService(
             UserRepository userRepository,
             BookingRepository bookingRepository,
-            UserPolicyRepository userPolicyRepository) {
+            UserPolicyRepository userPolicyRepository,
+            ClaimRepository claimRepository,
+            FraudFeatureStore featureStore) {
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.userPolicyRepository = userPolicyRepository;
+        this.claimRepository = claimRepository;
+        this.featureStore = featureStore;
     }
 
     /**
-     * Get fraud risk heatmap for users (filtered by company if provided)
+     * Get fraud risk heatmap for users (filtered by company if provided).
+     * Features for all users come from a handful of grouped queries and every
+     * user is scored in one pass, instead of several lookups per user.
      */
     public FraudHeatmap getFraudHeatmap(Long companyId) {
         List<User> users;
         if (companyId != null) {
-            // In a large system, this should be a DB join.
-            // For now, we filter high-level to users who have policies or bookings with
-            // this company.
-            users = userRepository.findAll().stream()
-                    .filter(u -> hasCompanyInteraction(u, companyId))
-                    .collect(java.util.stream.Collectors.toList());
+            // Users who have bookings with this company's agents or policies from it
+            Set<Long> linked = new HashSet<>(bookingRepository.findUserIdsByAgentCompanyId(companyId));
+            linked.addAll(userPolicyRepository.findUserIdsByPolicyCompanyId(companyId));
+            users = userRepository.findAllById(linked);
         } else {
             users = userRepository.findAll();
         }
 
+        Map<Long, FraudFeatures> features = extractFeatures(LocalDateTime.now());
+
         FraudHeatmap heatmap = new FraudHeatmap();
-        List<UserRiskScore> riskScores = new ArrayList<>();
+        List<UserRiskScore> riskScores = new ArrayList<>(users.size());
         int greenCount = 0, yellowCount = 0, redCount = 0;
 
         for (User user : users) {
-            UserRiskScore score = calculateUserRiskScore(user);
+            FraudFeatures f = features.computeIfAbsent(user.getId(), id -> new FraudFeatures());
+            f.setMissingProfileFields(FraudFeatures.missingProfileFields(user));
+            UserRiskScore score = scoreUser(user, f);
             riskScores.add(score);
 
             if ("GREEN".equals(score.getRiskLevel()))
@@ -75,43 +94,185 @@ public class FraudRiskService {
         return heatmap;
     }
 
-    private boolean hasCompanyInteraction(User user, Long companyId) {
-        // Find if user has bookings with company's agents
-        boolean hasBooking = bookingRepository.findByUserId(user.getId()).stream()
-                .anyMatch(b -> b.getAgent() != null && b.getAgent().getCompany() != null
-                        && b.getAgent().getCompany().getId().equals(companyId));
-        if (hasBooking)
-            return true;
-
-        // Find if user has policies from this company
-        boolean hasPolicy = userPolicyRepository.findByUserId(user.getId()).stream()
-                .anyMatch(up -> up.getPolicy() != null && up.getPolicy().getCompany() != null
-                        && up.getPolicy().getCompany().getId().equals(companyId));
-        return hasPolicy;
+    /**
+     * Booking and policy features for every user with any history, keyed by user id
+     */
+    private Map<Long, FraudFeatures> extractFeatures(LocalDateTime now) {
+        Map<Long, FraudFeatures> features = new HashMap<>();
+
+        for (BookingRepository.UserBookingStats row : bookingRepository
+                .aggregateBookingStatsByUser(now.minusDays(7))) {
+            FraudFeatures f = features.computeIfAbsent(row.getUserId(), id -> new FraudFeatures());
+            f.setBookingCount(nullToZero(row.getTotal()));
+            f.setRecentBookingCount(nullToZero(row.getRecent()));
+            f.setRejectedBookingCount(nullToZero(row.getRejected()));
+            f.setCancelledBookingCount(nullToZero(row.getCancelled()));
+        }
+
+        for (BookingRepository.UserBookingGap row : bookingRepository.findMinBookingGapByUser()) {
+            FraudFeatures f = features.get(row.getUserId());
+            if (f != null && row.getMinGapMinutes() != null) {
+                f.setMinBookingGapMinutes(row.getMinGapMinutes());
+            }
+        }
+
+        for (UserPolicyRepository.UserPolicyStats row : userPolicyRepository
+                .aggregatePolicyStatsByUser(now.minusMonths(1))) {
+            FraudFeatures f = features.computeIfAbsent(row.getUserId(), id -> new FraudFeatures());
+            f.setPolicyCount(nullToZero(row.getTotal()));
+            f.setRecentPolicyCount(nullToZero(row.getRecent()));
+        }
+
+        for (ClaimRepository.UserClaimCount row : claimRepository.countClaimsByUser()) {
+            features.computeIfAbsent(row.getUserId(), id -> new FraudFeatures())
+                    .setClaimCount(nullToZero(row.getTotal()));
+        }
+
+        return features;
+    }
+
+    private static long nullToZero(Long value) {
+        return value != null ? value : 0L;
     }
 
     /**
-     * Calculate fraud risk score for a specific user
+     * One page of RED users, highest risk first, without building the heatmap.
+     * Users are scored as they stream past and only the worst (page + 1) * size
+     * are kept; risk factor texts are built for the returned page only. With a
+     * company, only that company's linked users are read, in id chunks.
+     */
+    public HighRiskPage getHighRiskUsers(Long companyId, int page, int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and 100");
+        }
+        // Widen before adding, so page = Integer.MAX_VALUE cannot wrap below the limit
+        long windowEnd = (page + 1L) * size;
+        if (windowEnd > MAX_HIGH_RISK_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Only the top " + MAX_HIGH_RISK_WINDOW + " high-risk users can be paged through");
+        }
+
+        long[] linked = null;
+        if (companyId != null) {
+            Set<Long> ids = new HashSet<>(bookingRepository.findUserIdsByAgentCompanyId(companyId));
+            ids.addAll(userPolicyRepository.findUserIdsByPolicyCompanyId(companyId));
+            linked = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        Map<Long, FraudFeatures> features = extractFeatures(LocalDateTime.now());
+
+        // Heap entries point into redIds, which grows by one long per RED user
+        TopKHeap heap = new TopKHeap((int) windowEnd);
+        long[] redIds = new long[64];
+        int redCount = 0;
+
+        long afterId = 0;
+        int linkedFrom = 0;
+        while (true) {
+            List<UserRepository.RiskProfile> chunk;
+            if (linked != null) {
+                int linkedTo = Math.min(linkedFrom + SCORING_CHUNK_SIZE, linked.length);
+                List<Long> ids = new ArrayList<>(linkedTo - linkedFrom);
+                for (int k = linkedFrom; k < linkedTo; k++) {
+                    ids.add(linked[k]);
+                }
+                chunk = ids.isEmpty() ? List.of() : userRepository.findRiskProfilesByIdIn(ids);
+                linkedFrom = linkedTo;
+            } else {
+                chunk = userRepository.findRiskProfilesAfter(afterId, PageRequest.of(0, SCORING_CHUNK_SIZE));
+            }
+            for (UserRepository.RiskProfile profile : chunk) {
+                User user = new User();
+                user.setId(profile.getId());
+                user.setEmail(profile.getEmail());
+                user.setPhone(profile.getPhone());
+                user.setAge(profile.getAge());
+                user.setIncome(profile.getIncome());
+                user.setAddress(profile.getAddress());
+
+                FraudFeatures f = features.get(profile.getId());
+                if (f == null) {
+                    f = new FraudFeatures();
+                }
+                f.setMissingProfileFields(FraudFeatures.missingProfileFields(user));
+
+                double risk = riskScore(user, f);
+                if (!"RED".equals(getRiskLevel(risk))) {
+                    continue;
+                }
+                if (redCount == redIds.length) {
+                    redIds = Arrays.copyOf(redIds, redCount * 2);
+                }
+                redIds[redCount] = profile.getId();
+                heap.offer(redCount++, risk);
+            }
+            if (linked != null ? linkedFrom >= linked.length : chunk.size() < SCORING_CHUNK_SIZE) {
+                break;
+            }
+            if (linked == null) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        }
+
+        int[] ranked = new int[heap.size()];
+        double[] scores = new double[heap.size()];
+        int n = heap.drainDescending(ranked, scores);
+
+        List<Long> pageIds = new ArrayList<>();
+        // windowEnd is at most MAX_HIGH_RISK_WINDOW here, so the offset fits in an int
+        for (int r = (int) (windowEnd - size); r < n; r++) {
+            pageIds.add(redIds[ranked[r]]);
+        }
+        Map<Long, User> pageUsers = new HashMap<>();
+        for (User user : userRepository.findAllById(pageIds)) {
+            pageUsers.put(user.getId(), user);
+        }
+
+        List<UserRiskScore> content = new ArrayList<>(pageIds.size());
+        for (Long userId : pageIds) {
+            User user = pageUsers.get(userId);
+            if (user == null) {
+                continue; // Deleted since it was scored
+            }
+            FraudFeatures f = features.computeIfAbsent(userId, id -> new FraudFeatures());
+            f.setMissingProfileFields(FraudFeatures.missingProfileFields(user));
+            content.add(scoreUser(user, f));
+        }
+
+        HighRiskPage result = new HighRiskPage();
+        result.setContent(content);
+        result.setPage(page);
+        result.setSize(size);
+        result.setTotalElements(redCount);
+        result.setTotalPages((redCount + size - 1) / size);
+        return result;
+    }
+
+    /**
+     * Calculate fraud risk score for a specific user from live features,
+     * without re-reading the user's history
      */
     public UserRiskScore calculateUserRiskScore(User user) {
+        return scoreUser(user, featureStore.features(user));
+    }
+
+    /**
+     * Score a user from profile fields and precomputed history features
+     */
+    UserRiskScore scoreUser(User user, FraudFeatures features) {
         UserRiskScore score = new UserRiskScore();
         score.setUserId(user.getId());
         score.setUserName(user.getName());
         score.setUserEmail(user.getEmail());
 
         // Calculate individual risk factors
-        double profileCompletenessScore = calculateProfileCompleteness(user);
-        double activityPatternScore = calculateActivityPattern(user);
-        double policyClaimRatioScore = calculatePolicyClaimRatio(user);
-        double rapidApplicationScore = calculateRapidApplicationScore(user);
+        double profileCompletenessScore = calculateProfileCompleteness(features);
+        double activityPatternScore = calculateActivityPattern(features);
+        double policyClaimRatioScore = calculatePolicyClaimRatio(features);
+        double rapidApplicationScore = calculateRapidApplicationScore(features);
         double incomeVerificationScore = calculateIncomeVerificationScore(user);
 
-        // Weighted overall risk score (0-100, higher = more risky)
-        double overallRisk = (profileCompletenessScore * 0.15) + // 15% weight
-                (activityPatternScore * 0.25) + // 25% weight
-                (policyClaimRatioScore * 0.30) + // 30% weight
-                (rapidApplicationScore * 0.20) + // 20% weight
-                (incomeVerificationScore * 0.10); // 10% weight
+        double overallRisk = weightedRisk(profileCompletenessScore, activityPatternScore, policyClaimRatioScore,
+                rapidApplicationScore, incomeVerificationScore);
 
         score.setRiskScore(overallRisk);
         score.setRiskLevel(getRiskLevel(overallRisk));
@@ -121,36 +282,42 @@ public class FraudRiskService {
         return score;
     }
 
+    /**
+     * Overall score only, without building the DTO or risk factor texts
+     */
+    private double riskScore(User user, FraudFeatures features) {
+        return weightedRisk(calculateProfileCompleteness(features), calculateActivityPattern(features),
+                calculatePolicyClaimRatio(features), calculateRapidApplicationScore(features),
+                calculateIncomeVerificationScore(user));
+    }
+
+    /**
+     * Weighted overall risk score (0-100, higher = more risky)
+     */
+    private static double weightedRisk(double profileCompletenessScore, double activityPatternScore,
+            double policyClaimRatioScore, double rapidApplicationScore, double incomeVerificationScore) {
+        return (profileCompletenessScore * 0.15) + // 15% weight
+                (activityPatternScore * 0.25) + // 25% weight
+                (policyClaimRatioScore * 0.30) + // 30% weight
+                (rapidApplicationScore * 0.20) + // 20% weight
+                (incomeVerificationScore * 0.10); // 10% weight
+    }
+
     /**
      * Profile completeness (incomplete = higher risk)
      * Returns 0-100 (higher = more risky)
      */
-    private double calculateProfileCompleteness(User user) {
-        int missingFields = 0;
-
-        if (user.getEmail() == null || user.getEmail().isEmpty())
-            missingFields++;
-        if (user.getPhone() == null || user.getPhone().isEmpty())
-            missingFields++;
-        if (user.getAge() == null || user.getAge() <= 0)
-            missingFields++;
-        if (user.getIncome() == null || user.getIncome() <= 0)
-            missingFields++;
-        if (user.getAddress() == null || user.getAddress().isEmpty())
-            missingFields++;
-
+    private double calculateProfileCompleteness(FraudFeatures features) {
         // More missing fields = higher risk
-        return missingFields * 20.0; // 0, 20, 40, 60, 80, 100
+        return features.getMissingProfileFields() * 20.0; // 0, 20, 40, 60, 80, 100
     }
 
     /**
      * Activity pattern analysis (suspicious patterns = higher risk)
      * Returns 0-100 (higher = more risky)
      */
-    private double calculateActivityPattern(User user) {
-        List<Booking> bookings = bookingRepository.findByUserId(user.getId());
-
-        if (bookings.isEmpty()) {
+    private double calculateActivityPattern(FraudFeatures features) {
+        if (features.getBookingCount() == 0) {
             return 10.0; // New user, slight risk
         }
 
@@ -158,32 +325,21 @@ public class FraudRiskService {
         double riskScore = 0.0;
 
         // Pattern 1: Too many bookings in short time
-        long recentBookings = bookings.stream()
-                .filter(b -> b.getCreatedAt().isAfter(LocalDateTime.now().minusDays(7)))
-                .count();
-
+        long recentBookings = features.getRecentBookingCount();
         if (recentBookings > 5)
             riskScore += 30.0; // Very suspicious
         else if (recentBookings > 3)
             riskScore += 15.0;
 
         // Pattern 2: High rejection rate
-        long rejectedCount = bookings.stream()
-                .filter(b -> "REJECTED".equals(b.getStatus()))
-                .count();
-
-        double rejectionRate = bookings.size() > 0 ? (rejectedCount * 100.0 / bookings.size()) : 0;
+        double rejectionRate = features.getRejectedBookingCount() * 100.0 / features.getBookingCount();
         if (rejectionRate > 70)
             riskScore += 25.0;
         else if (rejectionRate > 50)
             riskScore += 10.0;
 
         // Pattern 3: Many cancelled bookings
-        long cancelledCount = bookings.stream()
-                .filter(b -> "CANCELLED".equals(b.getStatus()))
-                .count();
-
-        if (cancelledCount > 3)
+        if (features.getCancelledBookingCount() > 3)
             riskScore += 20.0;
 
         return Math.min(riskScore, 100.0);
@@ -193,10 +349,8 @@ public class FraudRiskService {
      * Policy to claim ratio (high claims = higher risk)
      * Returns 0-100 (higher = more risky)
      */
-    private double calculatePolicyClaimRatio(User user) {
-        List<UserPolicy> policies = userPolicyRepository.findByUserId(user.getId());
-
-        if (policies.isEmpty()) {
+    private double calculatePolicyClaimRatio(FraudFeatures features) {
+        if (features.getPolicyCount() == 0) {
             return 0.0; // No policies, no risk from this factor
         }
 
@@ -204,11 +358,7 @@ public class FraudRiskService {
         // For now, we'll use a simplified approach
 
         // Check for multiple policies purchased in short time (potential fraud)
-        long recentPolicies = policies.stream()
-                .filter(p -> p.getPurchasedAt() != null &&
-                        p.getPurchasedAt().isAfter(LocalDateTime.now().minusMonths(1)))
-                .count();
-
+        long recentPolicies = features.getRecentPolicyCount();
         if (recentPolicies > 3)
             return 60.0; // High risk
         if (recentPolicies > 2)
@@ -221,25 +371,13 @@ public class FraudRiskService {
      * Rapid application score (too fast = bot/fraud)
      * Returns 0-100 (higher = more risky)
      */
-    private double calculateRapidApplicationScore(User user) {
-        List<Booking> bookings = bookingRepository.findByUserId(user.getId());
-
-        if (bookings.size() < 2) {
+    private double calculateRapidApplicationScore(FraudFeatures features) {
+        if (features.getBookingCount() < 2) {
             return 0.0; // Not enough data
         }
 
-        // Check time between consecutive bookings
-        double minMinutesBetween = Double.MAX_VALUE;
-
-        for (int i = 1; i < bookings.size(); i++) {
-            LocalDateTime prev = bookings.get(i - 1).getCreatedAt();
-            LocalDateTime curr = bookings.get(i).getCreatedAt();
-            long minutesBetween = ChronoUnit.MINUTES.between(prev, curr);
-
-            if (minutesBetween < minMinutesBetween) {
-                minMinutesBetween = minutesBetween;
-            }
-        }
+        // Smallest time between consecutive bookings
+        long minMinutesBetween = features.getMinBookingGapMinutes();
 
         // Very rapid applications = suspicious
         if (minMinutesBetween < 5)
@@ -322,18 +460,6 @@ public class FraudRiskService {
         return factors;
     }
 
-    /**
-     * Get high-risk users for admin review
-     */
-    public List<UserRiskScore> getHighRiskUsers(Long companyId) {
-        FraudHeatmap heatmap = getFraudHeatmap(companyId);
-
-        return heatmap.getUserRiskScores().stream()
-                .filter(score -> "RED".equals(score.getRiskLevel()))
-                .sorted((a, b) -> Double.compare(b.getRiskScore(), a.getRiskScore()))
-                .collect(java.util.stream.Collectors.toList());
-    }
-
     /**
      * Fraud Heatmap DTO
      */
@@ -395,6 +521,59 @@ public class FraudRiskService {
         }
     }
 
+    /**
+     * High Risk Page DTO
+     * One page of RED users ordered by risk score, highest first
+     */
+    public static class HighRiskPage {
+        private List<UserRiskScore> content;
+        private int page;
+        private int size;
+        private long totalElements;
+        private int totalPages;
+
+        // Getters and Setters
+        public List<UserRiskScore> getContent() {
+            return content;
+        }
+
+        public void setContent(List<UserRiskScore> content) {
+            this.content = content;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public void setPage(int page) {
+            this.page = page;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public long getTotalElements() {
+            return totalElements;
+        }
+
+        public void setTotalElements(long totalElements) {
+            this.totalElements = totalElements;
+        }
+
+        public int getTotalPages() {
+            return totalPages;
+        }
+
+        public void setTotalPages(int totalPages) {
+            this.totalPages = totalPages;
+        }
+    }
+
     /**
      * User Risk Score DTO
      */
@@ -0,0 +1,123 @@
+package com.insurai.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel of id -> deadline (epoch millis). Deadlines hash into a
+ * fixed ring of slots by tick number; advancing the clock visits only the
+ * slots passed since the last call and fires entries whose tick has come,
+ * leaving later revolutions in place. Schedule, cancel and fire are O(1) per
+ * entry (plus the entries sharing a visited slot). Rescheduling an id
+ * replaces its previous deadline. Thread-safe.
+ */
+public final class HashedTimingWheel {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Node[] slots; // sentinel heads of circular doubly linked lists
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private long lastTick; // every tick up to and including this one has fired
+
+    /**
+     * @param slotCount rounded up to a power of two
+     */
+    public HashedTimingWheel(long tickMillis, int slotCount, long startMillis) {
+        int size = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new Node[size];
+        for (int i = 0; i < size; i++) {
+            Node head = new Node(0, 0);
+            head.prev = head;
+            head.next = head;
+            slots[i] = head;
+        }
+        this.lastTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Fire id at deadlineMillis; a deadline already passed fires on the next tick
+     */
+    public synchronized void schedule(long id, long deadlineMillis) {
+        unlink(nodes.remove(id));
+        long tick = Math.max(Math.floorDiv(deadlineMillis, tickMillis), lastTick + 1);
+        Node node = new Node(id, tick);
+        Node head = slots[(int) (tick & mask)];
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+        nodes.put(id, node);
+    }
+
+    /**
+     * Forget id; returns false if it was not scheduled
+     */
+    public synchronized boolean cancel(long id) {
+        Node node = nodes.remove(id);
+        unlink(node);
+        return node != null;
+    }
+
+    /**
+     * Move the clock to nowMillis and return the ids whose deadline has passed
+     */
+    public synchronized List<Long> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        List<Long> due = new ArrayList<>();
+        if (target <= lastTick) {
+            return due;
+        }
+        // After a long pause one pass over the whole ring is enough
+        long steps = Math.min(target - lastTick, slots.length);
+        for (long i = 1; i <= steps; i++) {
+            Node head = slots[(int) ((lastTick + i) & mask)];
+            Node node = head.next;
+            while (node != head) {
+                Node next = node.next;
+                if (node.tick <= target) {
+                    unlink(node);
+                    nodes.remove(node.id);
+                    due.add(node.id);
+                }
+                node = next;
+            }
+        }
+        lastTick = target;
+        return due;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized void clear() {
+        for (Node head : slots) {
+            head.prev = head;
+            head.next = head;
+        }
+        nodes.clear();
+    }
+
+    private static void unlink(Node node) {
+        if (node != null) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+        }
+    }
+
+    private static final class Node {
+        private final long id;
+        private final long tick;
+        private Node prev;
+        private Node next;
+
+        private Node(long id, long tick) {
+            this.id = id;
+            this.tick = tick;
+        }
+    }
+}
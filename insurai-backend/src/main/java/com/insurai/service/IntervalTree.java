@@ -0,0 +1,207 @@
+package com.insurai.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+/**
+ * Half-open intervals [start, end) keyed by id, stored in a treap ordered by
+ * (start, id) where every node also carries the largest end in its subtree.
+ * Overlap queries skip any subtree that ends before the range and visit
+ * matches in start order: O(log n + matches). Not thread-safe.
+ */
+public final class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add an interval; the caller removes any previous interval for the same id first
+     */
+    public void insert(long id, long start, long end) {
+        root = insert(root, new Node(id, start, end));
+        size++;
+    }
+
+    /**
+     * Remove the interval stored for id at start; returns false if there is none
+     */
+    public boolean remove(long id, long start) {
+        int before = size;
+        root = remove(root, id, start);
+        return size < before;
+    }
+
+    /**
+     * True if any interval other than excludeId overlaps [start, end)
+     */
+    public boolean overlaps(long start, long end, long excludeId) {
+        return overlaps(root, start, end, excludeId);
+    }
+
+    /**
+     * Ids of the intervals overlapping [start, end), in start order
+     */
+    public void forEachOverlapping(long start, long end, LongConsumer action) {
+        forEachOverlapping(root, start, end, action);
+    }
+
+    /**
+     * Smallest end among intervals overlapping [start, end), or Long.MIN_VALUE if none.
+     * Lets a slot search jump past a busy stretch instead of stepping through it.
+     */
+    public long firstEndOverlapping(long start, long end) {
+        long[] best = { Long.MAX_VALUE };
+        collectMinEnd(root, start, end, best);
+        return best[0] == Long.MAX_VALUE ? Long.MIN_VALUE : best[0];
+    }
+
+    private static Node insert(Node n, Node x) {
+        if (n == null) {
+            return x;
+        }
+        if (less(x.start, x.id, n)) {
+            n.left = insert(n.left, x);
+            if (n.left.priority > n.priority) {
+                n = rotateRight(n);
+            }
+        } else {
+            n.right = insert(n.right, x);
+            if (n.right.priority > n.priority) {
+                n = rotateLeft(n);
+            }
+        }
+        update(n);
+        return n;
+    }
+
+    private Node remove(Node n, long id, long start) {
+        if (n == null) {
+            return null;
+        }
+        if (n.id == id && n.start == start) {
+            size--;
+            return join(n.left, n.right);
+        }
+        if (less(start, id, n)) {
+            n.left = remove(n.left, id, start);
+        } else {
+            n.right = remove(n.right, id, start);
+        }
+        update(n);
+        return n;
+    }
+
+    /** Merge two treaps where every key in a precedes every key in b */
+    private static Node join(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = join(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = join(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static boolean overlaps(Node n, long start, long end, long excludeId) {
+        while (n != null && n.maxEnd > start) {
+            if (n.start < end && n.end > start && n.id != excludeId) {
+                return true;
+            }
+            if (n.left != null && n.left.maxEnd > start && overlaps(n.left, start, end, excludeId)) {
+                return true;
+            }
+            if (n.start >= end) {
+                return false; // everything to the right starts even later
+            }
+            n = n.right;
+        }
+        return false;
+    }
+
+    private static void forEachOverlapping(Node n, long start, long end, LongConsumer action) {
+        if (n == null || n.maxEnd <= start) {
+            return;
+        }
+        forEachOverlapping(n.left, start, end, action);
+        if (n.start < end) {
+            if (n.end > start) {
+                action.accept(n.id);
+            }
+            forEachOverlapping(n.right, start, end, action);
+        }
+    }
+
+    private static void collectMinEnd(Node n, long start, long end, long[] best) {
+        if (n == null || n.maxEnd <= start) {
+            return;
+        }
+        collectMinEnd(n.left, start, end, best);
+        if (n.start < end) {
+            if (n.end > start && n.end < best[0]) {
+                best[0] = n.end;
+            }
+            collectMinEnd(n.right, start, end, best);
+        }
+    }
+
+    private static boolean less(long start, long id, Node n) {
+        return start < n.start || (start == n.start && id < n.id);
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static void update(Node n) {
+        long max = n.end;
+        if (n.left != null && n.left.maxEnd > max) {
+            max = n.left.maxEnd;
+        }
+        if (n.right != null && n.right.maxEnd > max) {
+            max = n.right.maxEnd;
+        }
+        n.maxEnd = max;
+    }
+
+    private static final class Node {
+        private final long id;
+        private final long start;
+        private final long end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(long id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.insurai.service;
+
+import com.insurai.model.Company;
+import com.insurai.model.Policy;
+import com.insurai.model.User;
+import com.insurai.repository.PolicyRepository;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-Memory Policy Catalog
+ * Column-oriented snapshot of every policy, kept in primitive arrays so that
+ * recommendation and search paths can scan the catalog without a DB query.
+ * The snapshot is immutable and swapped atomically after each policy write commits.
+ */
+@Service
+public class PolicyCatalog {
+
+    public static final byte TYPE_OTHER = 0;
+    public static final byte TYPE_LIFE = 1;
+    public static final byte TYPE_HEALTH = 2;
+    public static final byte TYPE_AUTO = 3;
+
+    /** Sentinel stored in the age columns when the policy has no bound */
+    public static final int NO_AGE = -1;
+
+    private final PolicyRepository policyRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot;
+    private long nextVersion = 1;
+
+    public PolicyCatalog(PolicyRepository policyRepository, PlatformTransactionManager transactionManager) {
+        this.policyRepository = policyRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        // Reloads run from afterCommit callbacks, where joining the finished transaction is not allowed
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Register a listener for incremental catalog changes
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Current snapshot, loaded on first use
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rebuild the snapshot from the database immediately
+     */
+    public synchronized void refresh() {
+        snapshot = load();
+    }
+
+    /**
+     * Rebuild the snapshot once the surrounding transaction commits,
+     * or immediately when called outside a transaction
+     */
+    public void refreshAfterCommit() {
+        afterCommit(this::refresh);
+    }
+
+    /**
+     * A new policy was saved: patch it into the snapshot after commit and let
+     * listeners merge it into their results instead of recomputing them
+     */
+    public void policyAddedAfterCommit(Long policyId) {
+        afterCommit(() -> applyIncremental(ChangeKind.ADDED, policyId));
+    }
+
+    /**
+     * Only the status of a policy changed: patch the snapshot after commit and
+     * let listeners update their results incrementally
+     */
+    public void policyStatusChangedAfterCommit(Long policyId) {
+        afterCommit(() -> applyIncremental(ChangeKind.STATUS_CHANGED, policyId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private synchronized void applyIncremental(ChangeKind kind, Long policyId) {
+        Snapshot previous = snapshot;
+        if (previous == null || policyId == null) {
+            // Nothing derived from the catalog yet, a plain load will do
+            snapshot = load();
+            return;
+        }
+
+        Policy changed = readOnlyTx.execute(status -> policyRepository.findById(policyId)
+                .map(p -> {
+                    initializeForDetachedUse(p);
+                    return p;
+                })
+                .orElse(null));
+        if (changed == null) {
+            snapshot = load();
+            return;
+        }
+
+        List<Policy> policies = new ArrayList<>(Arrays.asList(previous.policies));
+        int existing = previous.indexOf(policyId);
+        if (existing >= 0) {
+            policies.set(existing, changed);
+        } else {
+            int insertAt = -Arrays.binarySearch(previous.ids, policyId) - 1;
+            policies.add(insertAt, changed);
+        }
+        Snapshot next = new Snapshot(nextVersion++, policies);
+        snapshot = next;
+
+        Delta delta = new Delta(kind, previous.getVersion(), next, next.indexOf(policyId));
+        for (Listener listener : listeners) {
+            listener.onIncrementalChange(delta);
+        }
+    }
+
+    private Snapshot load() {
+        List<Policy> policies = readOnlyTx.execute(status -> {
+            List<Policy> all = policyRepository.findAll();
+            // Entities outlive this session, so touch every lazy association now
+            all.forEach(PolicyCatalog::initializeForDetachedUse);
+            return all;
+        });
+        policies.sort(Comparator.comparing(Policy::getId));
+        return new Snapshot(nextVersion++, policies);
+    }
+
+    private static void initializeForDetachedUse(Policy policy) {
+        Hibernate.initialize(policy.getExclusions());
+        Hibernate.initialize(policy.getWarnings());
+        Company company = policy.getCompany();
+        if (company != null && company.getApprovedBy() != null) {
+            User approver = company.getApprovedBy();
+            Hibernate.initialize(approver.getAssignedRegions());
+            Hibernate.initialize(approver.getAssignedPolicyTypes());
+        }
+    }
+
+    public enum ChangeKind {
+        ADDED, STATUS_CHANGED
+    }
+
+    /**
+     * Receives single-policy changes together with the version they apply on top of
+     */
+    public interface Listener {
+        void onIncrementalChange(Delta delta);
+    }
+
+    /**
+     * One policy added or re-statused between two consecutive snapshots
+     */
+    public static final class Delta {
+        private final ChangeKind kind;
+        private final long previousVersion;
+        private final Snapshot snapshot;
+        private final int index;
+
+        private Delta(ChangeKind kind, long previousVersion, Snapshot snapshot, int index) {
+            this.kind = kind;
+            this.previousVersion = previousVersion;
+            this.snapshot = snapshot;
+            this.index = index;
+        }
+
+        public ChangeKind getKind() {
+            return kind;
+        }
+
+        public long getPreviousVersion() {
+            return previousVersion;
+        }
+
+        /** Snapshot after the change */
+        public Snapshot getSnapshot() {
+            return snapshot;
+        }
+
+        /** Position of the changed policy in the new snapshot */
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    static byte typeCode(String type) {
+        if ("Life".equalsIgnoreCase(type))
+            return TYPE_LIFE;
+        if ("Health".equalsIgnoreCase(type))
+            return TYPE_HEALTH;
+        if ("Auto".equalsIgnoreCase(type))
+            return TYPE_AUTO;
+        return TYPE_OTHER;
+    }
+
+    /**
+     * Immutable columnar view of the catalog, ordered by policy id.
+     * Missing numeric values are stored as NaN (amounts) or NO_AGE (ages).
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Policy[] policies;
+        private final long[] ids;
+        private final double[] premium;
+        private final double[] coverage;
+        private final byte[] type;
+        private final int[] minAge;
+        private final int[] maxAge;
+        private final double[] minIncome;
+        private final double[] claimSettlementRatio;
+        private final boolean[] listed;
+
+        private Snapshot(long version, List<Policy> source) {
+            int n = source.size();
+            this.version = version;
+            this.policies = source.toArray(new Policy[0]);
+            this.ids = new long[n];
+            this.premium = new double[n];
+            this.coverage = new double[n];
+            this.type = new byte[n];
+            this.minAge = new int[n];
+            this.maxAge = new int[n];
+            this.minIncome = new double[n];
+            this.claimSettlementRatio = new double[n];
+            this.listed = new boolean[n];
+
+            for (int i = 0; i < n; i++) {
+                Policy p = policies[i];
+                ids[i] = p.getId();
+                premium[i] = p.getPremium() != null ? p.getPremium() : Double.NaN;
+                coverage[i] = p.getCoverage() != null ? p.getCoverage() : Double.NaN;
+                type[i] = typeCode(p.getType());
+                minAge[i] = p.getMinAge() != null ? p.getMinAge() : NO_AGE;
+                maxAge[i] = p.getMaxAge() != null ? p.getMaxAge() : NO_AGE;
+                minIncome[i] = p.getMinIncome() != null ? p.getMinIncome() : Double.NaN;
+                claimSettlementRatio[i] = p.getClaimSettlementRatio() != null ? p.getClaimSettlementRatio()
+                        : Double.NaN;
+                // Same visibility rule as findByStatusAndCompany_Status("ACTIVE", "APPROVED")
+                listed[i] = "ACTIVE".equals(p.getStatus())
+                        && p.getCompany() != null && "APPROVED".equals(p.getCompany().getStatus());
+            }
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        /**
+         * Position of a policy in this snapshot, or -1 if it is not present
+         */
+        public int indexOf(long policyId) {
+            int idx = Arrays.binarySearch(ids, policyId);
+            return idx >= 0 ? idx : -1;
+        }
+
+        public Policy policy(int i) {
+            return policies[i];
+        }
+
+        public long id(int i) {
+            return ids[i];
+        }
+
+        public double premium(int i) {
+            return premium[i];
+        }
+
+        public double coverage(int i) {
+            return coverage[i];
+        }
+
+        public byte type(int i) {
+            return type[i];
+        }
+
+        public int minAge(int i) {
+            return minAge[i];
+        }
+
+        public int maxAge(int i) {
+            return maxAge[i];
+        }
+
+        public double minIncome(int i) {
+            return minIncome[i];
+        }
+
+        public double claimSettlementRatio(int i) {
+            return claimSettlementRatio[i];
+        }
+
+        /**
+         * ACTIVE policy of an APPROVED company, i.e. visible to end users
+         */
+        public boolean isListed(int i) {
+            return listed[i];
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.insurai.service;
+
+import com.insurai.dto.PolicyFilterRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Faceted Policy Search Index
+ * Bitsets per type and category plus premium/coverage sorted arrays over the
+ * listed policies of the current catalog snapshot. Rebuilt lazily whenever the
+ * catalog snapshot changes.
+ */
+@Service
+public class PolicySearchIndex {
+
+    private final PolicyCatalog policyCatalog;
+    private volatile Index index;
+
+    public PolicySearchIndex(PolicyCatalog policyCatalog) {
+        this.policyCatalog = policyCatalog;
+    }
+
+    /**
+     * Index for the current catalog snapshot
+     */
+    public Index current() {
+        PolicyCatalog.Snapshot catalog = policyCatalog.snapshot();
+        Index idx = index;
+        if (idx == null || idx.catalog != catalog) {
+            idx = new Index(catalog);
+            index = idx;
+        }
+        return idx;
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable index over one catalog snapshot. Bit positions are catalog indices.
+     */
+    public static final class Index {
+        private final PolicyCatalog.Snapshot catalog;
+        private final BitSet listed;
+        private final Map<String, BitSet> byType = new HashMap<>();
+        private final Map<String, BitSet> byCategory = new HashMap<>();
+        private final Map<String, String> typeLabels = new HashMap<>();
+        private final Map<String, String> categoryLabels = new HashMap<>();
+        private final RangeColumn premium;
+        private final RangeColumn coverage;
+
+        private Index(PolicyCatalog.Snapshot catalog) {
+            this.catalog = catalog;
+            int n = catalog.size();
+            this.listed = new BitSet(n);
+            for (int i = 0; i < n; i++) {
+                if (!catalog.isListed(i)) {
+                    continue;
+                }
+                listed.set(i);
+                String type = catalog.policy(i).getType();
+                if (type != null) {
+                    byType.computeIfAbsent(key(type), k -> new BitSet(n)).set(i);
+                    typeLabels.putIfAbsent(key(type), type);
+                }
+                String category = catalog.policy(i).getCategory();
+                if (category != null) {
+                    byCategory.computeIfAbsent(key(category), k -> new BitSet(n)).set(i);
+                    categoryLabels.putIfAbsent(key(category), category);
+                }
+            }
+            this.premium = new RangeColumn(listed, catalog::premium);
+            this.coverage = new RangeColumn(listed, catalog::coverage);
+        }
+
+        public PolicyCatalog.Snapshot getCatalog() {
+            return catalog;
+        }
+
+        /**
+         * Listed policies matching every criterion of the filter
+         */
+        public BitSet match(PolicyFilterRequest filter) {
+            BitSet result = matchRanges(filter);
+            and(result, byType, filter.getType());
+            and(result, byCategory, filter.getCategory());
+            return result;
+        }
+
+        /**
+         * Count per type, applying every criterion except the type itself
+         */
+        public Map<String, Long> typeFacets(PolicyFilterRequest filter) {
+            BitSet base = matchRanges(filter);
+            and(base, byCategory, filter.getCategory());
+            return facetCounts(base, byType, typeLabels);
+        }
+
+        /**
+         * Count per category, applying every criterion except the category itself
+         */
+        public Map<String, Long> categoryFacets(PolicyFilterRequest filter) {
+            BitSet base = matchRanges(filter);
+            and(base, byType, filter.getType());
+            return facetCounts(base, byCategory, categoryLabels);
+        }
+
+        private BitSet matchRanges(PolicyFilterRequest filter) {
+            BitSet result = (BitSet) listed.clone();
+            if (filter.getMinPremium() != null || filter.getMaxPremium() != null) {
+                result.and(premium.between(filter.getMinPremium(), filter.getMaxPremium()));
+            }
+            if (filter.getMinCoverage() != null || filter.getMaxCoverage() != null) {
+                result.and(coverage.between(filter.getMinCoverage(), filter.getMaxCoverage()));
+            }
+            return result;
+        }
+
+        private static void and(BitSet result, Map<String, BitSet> facet, String value) {
+            if (value == null) {
+                return;
+            }
+            BitSet bits = facet.get(key(value));
+            if (bits == null) {
+                result.clear();
+            } else {
+                result.and(bits);
+            }
+        }
+
+        private static Map<String, Long> facetCounts(BitSet base, Map<String, BitSet> facet,
+                Map<String, String> labels) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            facet.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(e -> {
+                        BitSet bits = (BitSet) e.getValue().clone();
+                        bits.and(base);
+                        counts.put(labels.get(e.getKey()), (long) bits.cardinality());
+                    });
+            return counts;
+        }
+    }
+
+    /**
+     * Catalog indices sorted by one numeric column, for range lookups by binary search.
+     * Policies with no value never match a range.
+     */
+    private static final class RangeColumn {
+        private final double[] values;
+        private final int[] order;
+
+        private RangeColumn(BitSet listed, IntToDoubleFunction column) {
+            // Boxed sort is fine here, it runs once per catalog snapshot
+            Integer[] sorted = listed.stream()
+                    .filter(i -> !Double.isNaN(column.applyAsDouble(i)))
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(column::applyAsDouble))
+                    .toArray(Integer[]::new);
+            this.order = new int[sorted.length];
+            this.values = new double[sorted.length];
+            for (int k = 0; k < sorted.length; k++) {
+                order[k] = sorted[k];
+                values[k] = column.applyAsDouble(order[k]);
+            }
+        }
+
+        /**
+         * Indices with min <= value <= max; either bound may be null
+         */
+        BitSet between(Double min, Double max) {
+            int from = min == null ? 0 : lowerBound(min);
+            int to = max == null ? values.length : upperBound(max);
+            BitSet bits = new BitSet();
+            for (int k = from; k < to; k++) {
+                bits.set(order[k]);
+            }
+            return bits;
+        }
+
+        /** First position whose value is >= target */
+        private int lowerBound(double target) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /** First position whose value is > target */
+        private int upperBound(double target) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] <= target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
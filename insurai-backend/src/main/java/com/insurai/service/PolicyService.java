@@ -19,6 +19,13 @@ public class PolicyService {
     private final UserPolicyRepository userPolicyRepo;
     private final UserRepository userRepo;
     private final com.insurai.repository.UserCompanyMapRepository userCompanyMapRepo;
+    private final PolicyCatalog policyCatalog;
+    private final PolicySearchIndex policySearchIndex;
+    private final RecommendationCache recommendationCache;
+    private final FraudFeatureStore fraudFeatureStore;
+
+    /** Best matches returned (and cached per user) by getRecommendedPolicies */
+    private static final int MAX_RECOMMENDED = 50;
 
     @org.springframework.beans.factory.annotation.Autowired
     private com.insurai.repository.CompanyRepository companyRepository;
@@ -26,11 +33,19 @@ public class PolicyService {
     public PolicyService(PolicyRepository policyRepo,
             UserPolicyRepository userPolicyRepo,
             UserRepository userRepo,
-            com.insurai.repository.UserCompanyMapRepository userCompanyMapRepo) {
+            com.insurai.repository.UserCompanyMapRepository userCompanyMapRepo,
+            PolicyCatalog policyCatalog,
+            PolicySearchIndex policySearchIndex,
+            RecommendationCache recommendationCache,
+            FraudFeatureStore fraudFeatureStore) {
         this.policyRepo = policyRepo;
         this.userPolicyRepo = userPolicyRepo;
         this.userRepo = userRepo;
         this.userCompanyMapRepo = userCompanyMapRepo;
+        this.policyCatalog = policyCatalog;
+        this.policySearchIndex = policySearchIndex;
+        this.recommendationCache = recommendationCache;
+        this.fraudFeatureStore = fraudFeatureStore;
     }
 
     // Role-based retrieval
@@ -61,7 +76,9 @@ public class PolicyService {
             }
             policy.setCompany(creator.getCompany());
             policy.setStatus("ACTIVE"); // Default
-            return policyRepo.save(policy);
+            Policy saved = policyRepo.save(policy);
+            policyCatalog.policyAddedAfterCommit(saved.getId());
+            return saved;
         } else {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only Insurance Companies can create policies.");
         }
@@ -100,7 +117,9 @@ public class PolicyService {
             policy.setStatus(updates.getStatus());
         }
 
-        return policyRepo.save(policy);
+        Policy saved = policyRepo.save(policy);
+        policyCatalog.refreshAfterCommit();
+        return saved;
     }
 
     public void delete(long id, User deleter) {
@@ -116,6 +135,7 @@ public class PolicyService {
         }
 
         policyRepo.deleteById(id);
+        policyCatalog.refreshAfterCommit();
     }
 
     public UserPolicy buyPolicy(long policyId, long userId) {
@@ -146,6 +166,7 @@ public class PolicyService {
         up.setStatus("ACTIVE");
 
         UserPolicy saved = userPolicyRepo.save(up);
+        fraudFeatureStore.onUserPolicySaved(saved);
 
         // Update User-Company Map
         if (policy.getCompany() != null) {
@@ -267,48 +288,50 @@ public class PolicyService {
     }
 
     // NEW: AI-Powered Policy Recommendations with Eligibility
+    // Only the ranking (ids and scores of the best matches) is cached; DTOs are built per request
     public List<com.insurai.dto.PolicyRecommendationDTO> getRecommendedPolicies(long userId) {
         User user = userRepo.findById(java.util.Objects.requireNonNull(userId))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        List<Policy> allPolicies = policyRepo.findByStatusAndCompany_Status("ACTIVE", "APPROVED");
-        List<com.insurai.dto.PolicyRecommendationDTO> recommendations = new java.util.ArrayList<>();
-
-        for (Policy policy : allPolicies) {
-            com.insurai.dto.PolicyRecommendationDTO dto = new com.insurai.dto.PolicyRecommendationDTO(policy);
-
-            // Calculate eligibility
-            String eligibility = checkEligibility(user, policy);
-            dto.setEligibilityStatus(eligibility);
-
-            // Calculate match score (0-100)
-            double matchScore = calculateMatchScore(user, policy);
-            dto.setMatchScore(matchScore);
-
-            // Set premium breakdown (can be adjusted based on user profile)
-            dto.setPremiumBreakdown(policy.getPremium());
-
-            // AI recommendation logic
-            if (matchScore >= 70 && "ELIGIBLE".equals(eligibility)) {
-                dto.setIsRecommended(true);
-                dto.setRecommendationReason("Best match for your profile");
-            } else if (matchScore >= 50) {
-                dto.setIsRecommended(false);
-                dto.setRecommendationReason("Good option, consult agent for details");
-            } else {
-                dto.setIsRecommended(false);
-                dto.setRecommendationReason("Consider alternatives");
+        RankedPolicies ranked = recommendationCache.get(user, "policy-ranked",
+                catalog -> RankedPolicies.top(catalog, MAX_RECOMMENDED, catalog::isListed,
+                        i -> calculateMatchScore(user, catalog, i)),
+                (current, delta) -> {
+                    PolicyCatalog.Snapshot catalog = delta.getSnapshot();
+                    int i = delta.getIndex();
+                    return current.merge(catalog.id(i), catalog.isListed(i), calculateMatchScore(user, catalog, i),
+                            MAX_RECOMMENDED);
+                });
+
+        PolicyCatalog.Snapshot catalog = policyCatalog.snapshot();
+        List<com.insurai.dto.PolicyRecommendationDTO> recommendations = new java.util.ArrayList<>(ranked.size());
+        for (int r = 0; r < ranked.size(); r++) {
+            int i = catalog.indexOf(ranked.id(r));
+            if (i >= 0) {
+                recommendations.add(toRankedRecommendationDTO(user, catalog, i));
             }
-
-            recommendations.add(dto);
         }
-
-        // Sort by match score (highest first)
-        recommendations.sort((a, b) -> Double.compare(b.getMatchScore(), a.getMatchScore()));
-
         return recommendations;
     }
 
+    private com.insurai.dto.PolicyRecommendationDTO toRankedRecommendationDTO(User user,
+            PolicyCatalog.Snapshot catalog, int i) {
+        com.insurai.dto.PolicyRecommendationDTO dto = toRecommendationDTO(user, catalog, i);
+
+        // AI recommendation logic
+        if (dto.getMatchScore() >= 70 && "ELIGIBLE".equals(dto.getEligibilityStatus())) {
+            dto.setIsRecommended(true);
+            dto.setRecommendationReason("Best match for your profile");
+        } else if (dto.getMatchScore() >= 50) {
+            dto.setIsRecommended(false);
+            dto.setRecommendationReason("Good option, consult agent for details");
+        } else {
+            dto.setIsRecommended(false);
+            dto.setRecommendationReason("Consider alternatives");
+        }
+        return dto;
+    }
+
     // NEW: Filtered Policy Search
     public List<com.insurai.dto.PolicyRecommendationDTO> getFilteredPolicies(
             long userId, com.insurai.dto.PolicyFilterRequest filter) {
@@ -316,67 +339,99 @@ public class PolicyService {
         User user = userRepo.findById(java.util.Objects.requireNonNull(userId))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        List<Policy> allPolicies = policyRepo.findByStatusAndCompany_Status("ACTIVE", "APPROVED");
-        List<com.insurai.dto.PolicyRecommendationDTO> filtered = new java.util.ArrayList<>();
+        PolicySearchIndex.Index index = policySearchIndex.current();
+        PolicyCatalog.Snapshot catalog = index.getCatalog();
+        java.util.BitSet matches = index.match(filter);
+        List<com.insurai.dto.PolicyRecommendationDTO> filtered = new java.util.ArrayList<>(matches.cardinality());
 
-        for (Policy policy : allPolicies) {
-            // Apply filters
-            if (filter.getType() != null && !filter.getType().equalsIgnoreCase(policy.getType())) {
-                continue;
-            }
-            if (filter.getCategory() != null && !filter.getCategory().equalsIgnoreCase(policy.getCategory())) {
-                continue;
-            }
-            if (filter.getMaxPremium() != null && policy.getPremium() > filter.getMaxPremium()) {
-                continue;
-            }
-            if (filter.getMinCoverage() != null && policy.getCoverage() < filter.getMinCoverage()) {
-                continue;
-            }
-            if (filter.getMaxCoverage() != null && policy.getCoverage() > filter.getMaxCoverage()) {
-                continue;
-            }
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            filtered.add(toRecommendationDTO(user, catalog, i));
+        }
 
-            com.insurai.dto.PolicyRecommendationDTO dto = new com.insurai.dto.PolicyRecommendationDTO(policy);
+        // Sort by match score
+        filtered.sort((a, b) -> Double.compare(b.getMatchScore(), a.getMatchScore()));
 
-            // Calculate eligibility
-            String eligibility = checkEligibility(user, policy);
-            dto.setEligibilityStatus(eligibility);
+        return filtered;
+    }
 
-            // Calculate match score
-            double matchScore = calculateMatchScore(user, policy);
-            dto.setMatchScore(matchScore);
-            dto.setPremiumBreakdown(policy.getPremium());
+    // Paged faceted search: scores only the matching policies and builds DTOs for one page
+    public com.insurai.dto.PolicySearchResultDTO searchPolicies(
+            long userId, com.insurai.dto.PolicyFilterRequest filter, int page, int size) {
 
-            filtered.add(dto);
+        User user = userRepo.findById(java.util.Objects.requireNonNull(userId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        if (page < 0 || size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and 100");
         }
 
-        // Sort by match score
-        filtered.sort((a, b) -> Double.compare(b.getMatchScore(), a.getMatchScore()));
+        PolicySearchIndex.Index index = policySearchIndex.current();
+        PolicyCatalog.Snapshot catalog = index.getCatalog();
+        java.util.BitSet matches = index.match(filter);
+        int total = matches.cardinality();
+
+        // Keep only the entries up to the end of the requested page; long math so huge pages cannot wrap
+        long offset = (long) page * size;
+        List<com.insurai.dto.PolicyRecommendationDTO> content = new java.util.ArrayList<>();
+        if (offset < total) {
+            TopKHeap heap = new TopKHeap((int) Math.min(offset + size, total));
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                heap.offer(i, calculateMatchScore(user, catalog, i));
+            }
+            int[] ranked = new int[heap.size()];
+            double[] scores = new double[heap.size()];
+            int n = heap.drainDescending(ranked, scores);
 
-        return filtered;
+            for (int r = (int) offset; r < n; r++) {
+                content.add(toRecommendationDTO(user, catalog, ranked[r]));
+            }
+        }
+
+        com.insurai.dto.PolicySearchResultDTO result = new com.insurai.dto.PolicySearchResultDTO();
+        result.setContent(content);
+        result.setPage(page);
+        result.setSize(size);
+        result.setTotalElements(total);
+        result.setTotalPages((total + size - 1) / size);
+        result.setTypeFacets(index.typeFacets(filter));
+        result.setCategoryFacets(index.categoryFacets(filter));
+        return result;
+    }
+
+    private com.insurai.dto.PolicyRecommendationDTO toRecommendationDTO(User user, PolicyCatalog.Snapshot catalog,
+            int i) {
+        com.insurai.dto.PolicyRecommendationDTO dto = new com.insurai.dto.PolicyRecommendationDTO(catalog.policy(i));
+
+        // Calculate eligibility
+        dto.setEligibilityStatus(checkEligibility(user, catalog, i));
+
+        // Calculate match score (0-100)
+        dto.setMatchScore(calculateMatchScore(user, catalog, i));
+
+        // Set premium breakdown (can be adjusted based on user profile)
+        dto.setPremiumBreakdown(catalog.policy(i).getPremium());
+        return dto;
     }
 
     // Helper: Check Eligibility
-    private String checkEligibility(User user, Policy policy) {
-        StringBuilder reason = new StringBuilder();
+    String checkEligibility(User user, PolicyCatalog.Snapshot catalog, int i) {
         boolean eligible = true;
         boolean partiallyEligible = false;
 
         // Age check
-        if (policy.getMinAge() != null && user.getAge() != null && user.getAge() < policy.getMinAge()) {
-            eligible = false;
-            reason.append("Age below minimum requirement. ");
-        }
-        if (policy.getMaxAge() != null && user.getAge() != null && user.getAge() > policy.getMaxAge()) {
-            eligible = false;
-            reason.append("Age above maximum limit. ");
+        if (user.getAge() != null) {
+            if (catalog.minAge(i) != PolicyCatalog.NO_AGE && user.getAge() < catalog.minAge(i)) {
+                eligible = false; // Age below minimum requirement
+            }
+            if (catalog.maxAge(i) != PolicyCatalog.NO_AGE && user.getAge() > catalog.maxAge(i)) {
+                eligible = false; // Age above maximum limit
+            }
         }
 
         // Income check
-        if (policy.getMinIncome() != null && user.getIncome() != null && user.getIncome() < policy.getMinIncome()) {
-            partiallyEligible = true;
-            reason.append("Income below recommended level. ");
+        if (!Double.isNaN(catalog.minIncome(i)) && user.getIncome() != null
+                && user.getIncome() < catalog.minIncome(i)) {
+            partiallyEligible = true; // Income below recommended level
         }
 
         if (!eligible) {
@@ -389,29 +444,30 @@ public class PolicyService {
     }
 
     // Helper: Calculate Match Score (0-100)
-    private double calculateMatchScore(User user, Policy policy) {
+    double calculateMatchScore(User user, PolicyCatalog.Snapshot catalog, int i) {
         double score = 50.0; // Base score
 
         // Age match
-        if (policy.getMinAge() != null && policy.getMaxAge() != null && user.getAge() != null) {
-            int midAge = (policy.getMinAge() + policy.getMaxAge()) / 2;
+        if (catalog.minAge(i) != PolicyCatalog.NO_AGE && catalog.maxAge(i) != PolicyCatalog.NO_AGE
+                && user.getAge() != null) {
+            int midAge = (catalog.minAge(i) + catalog.maxAge(i)) / 2;
             int ageDiff = Math.abs(user.getAge() - midAge);
             score += Math.max(0, 20 - ageDiff); // Up to +20 for perfect age match
         }
 
         // Income match
-        if (policy.getMinIncome() != null && user.getIncome() != null) {
-            if (user.getIncome() >= policy.getMinIncome() * 1.5) {
+        if (!Double.isNaN(catalog.minIncome(i)) && user.getIncome() != null) {
+            if (user.getIncome() >= catalog.minIncome(i) * 1.5) {
                 score += 15; // Good income buffer
-            } else if (user.getIncome() >= policy.getMinIncome()) {
+            } else if (user.getIncome() >= catalog.minIncome(i)) {
                 score += 10; // Meets minimum
             }
         }
 
         // Premium affordability (premium should be < 10% of monthly income)
-        if (user.getIncome() != null && policy.getPremium() != null) {
+        if (user.getIncome() != null && !Double.isNaN(catalog.premium(i))) {
             double monthlyIncome = user.getIncome() / 12;
-            double affordabilityRatio = policy.getPremium() / monthlyIncome;
+            double affordabilityRatio = catalog.premium(i) / monthlyIncome;
             if (affordabilityRatio < 0.05) {
                 score += 15; // Very affordable
             } else if (affordabilityRatio < 0.10) {
@@ -422,10 +478,10 @@ public class PolicyService {
         }
 
         // Claim settlement ratio
-        if (policy.getClaimSettlementRatio() != null) {
-            if (policy.getClaimSettlementRatio() >= 95) {
+        if (!Double.isNaN(catalog.claimSettlementRatio(i))) {
+            if (catalog.claimSettlementRatio(i) >= 95) {
                 score += 10;
-            } else if (policy.getClaimSettlementRatio() >= 90) {
+            } else if (catalog.claimSettlementRatio(i) >= 90) {
                 score += 5;
             }
         }
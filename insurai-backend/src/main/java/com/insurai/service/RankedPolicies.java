@@ -0,0 +1,115 @@
+package com.insurai.service;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Top-K policy ids with their scores, best first; equal scores keep the lower
+ * id first, the same order a stable descending sort of the catalog gives.
+ * Small enough to cache per user: callers build DTOs from the catalog on read.
+ * Immutable.
+ */
+public final class RankedPolicies {
+
+    private final long[] ids;
+    private final double[] scores;
+
+    private RankedPolicies(long[] ids, double[] scores) {
+        this.ids = ids;
+        this.scores = scores;
+    }
+
+    /**
+     * Best k of the catalog entries accepted by include
+     */
+    public static RankedPolicies top(PolicyCatalog.Snapshot catalog, int k, IntPredicate include,
+            IntToDoubleFunction score) {
+        TopKHeap heap = new TopKHeap(Math.min(k, catalog.size()));
+        for (int i = 0; i < catalog.size(); i++) {
+            if (include.test(i)) {
+                heap.offer(i, score.applyAsDouble(i));
+            }
+        }
+        int[] top = new int[heap.size()];
+        double[] topScores = new double[heap.size()];
+        int n = heap.drainDescending(top, topScores);
+        long[] topIds = new long[n];
+        for (int r = 0; r < n; r++) {
+            topIds[r] = catalog.id(top[r]);
+        }
+        return new RankedPolicies(topIds, topScores);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int rank) {
+        return ids[rank];
+    }
+
+    public double score(int rank) {
+        return scores[rank];
+    }
+
+    /**
+     * Fold one changed policy into a top-k list: included with its new score,
+     * or dropped when include is false. Returns null when the answer depends on
+     * entries beyond the cached k, i.e. a full list lost an entry it cannot
+     * refill; the caller recomputes.
+     */
+    public RankedPolicies merge(long id, boolean include, double score, int k) {
+        int n = ids.length;
+        boolean full = n >= k;
+        int at = -1;
+        for (int r = 0; r < n; r++) {
+            if (ids[r] == id) {
+                at = r;
+                break;
+            }
+        }
+        // Everything outside a full list ranks after its current last entry
+        if (full && include && n > 0 && !ranksBefore(score, id, scores[n - 1], ids[n - 1])
+                && !(scores[n - 1] == score && ids[n - 1] == id)) {
+            return at < 0 ? this : null;
+        }
+        if (at >= 0 && full && !include) {
+            return null;
+        }
+        if (at < 0 && !include) {
+            return this;
+        }
+
+        long[] nextIds = new long[n + (at < 0 && include ? 1 : 0) - (at >= 0 && !include ? 1 : 0)];
+        double[] nextScores = new double[nextIds.length];
+        int w = 0;
+        boolean placed = !include;
+        for (int r = 0; r < n; r++) {
+            if (r == at) {
+                continue;
+            }
+            if (!placed && ranksBefore(score, id, scores[r], ids[r])) {
+                nextIds[w] = id;
+                nextScores[w++] = score;
+                placed = true;
+            }
+            nextIds[w] = ids[r];
+            nextScores[w++] = scores[r];
+        }
+        if (!placed) {
+            nextIds[w] = id;
+            nextScores[w++] = score;
+        }
+        if (nextIds.length > k) {
+            nextIds = Arrays.copyOf(nextIds, k);
+            nextScores = Arrays.copyOf(nextScores, k);
+        }
+        return new RankedPolicies(nextIds, nextScores);
+    }
+
+    private static boolean ranksBefore(double score, long id, double otherScore, long otherId) {
+        int byScore = Double.compare(score, otherScore);
+        return byScore > 0 || (byScore == 0 && id < otherId);
+    }
+}
@@ -0,0 +1,198 @@
+package com.insurai.service;
+
+import com.insurai.model.User;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Recommendation Result Cache
+ * Per-user LRU cache of computed recommendations. An entry is valid only for
+ * the profile fields and catalog version it was computed against, so a
+ * profile edit or any policy write makes it miss without a sweep. Values
+ * should be compact (ids and scores), not response DTOs.
+ * Entries registered with a merge function are instead carried forward when a
+ * single policy is added or re-statused, by scoring just that policy. The
+ * change is only recorded when it commits; each stale entry is rolled forward
+ * on its next read, so a policy write costs the same however many users are
+ * cached.
+ */
+@Service
+public class RecommendationCache implements PolicyCatalog.Listener {
+
+    private static final int MAX_USERS = 10_000;
+    private static final int MAX_VARIANTS_PER_USER = 8;
+    // Entries more changes behind than this are recomputed instead of merged
+    private static final int MAX_PENDING_DELTAS = 64;
+
+    private final PolicyCatalog policyCatalog;
+
+    // userId -> (variant -> cached result), access-ordered for LRU eviction
+    private final LinkedHashMap<Long, Map<String, Entry>> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Map<String, Entry>> eldest) {
+            return size() > MAX_USERS;
+        }
+    };
+
+    // previousVersion -> the change that moved the catalog off it, oldest first
+    private final LinkedHashMap<Long, PolicyCatalog.Delta> deltas = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, PolicyCatalog.Delta> eldest) {
+            return size() > MAX_PENDING_DELTAS;
+        }
+    };
+
+    public RecommendationCache(PolicyCatalog policyCatalog) {
+        this.policyCatalog = policyCatalog;
+        policyCatalog.addListener(this);
+    }
+
+    /**
+     * Cached result for this user and variant, computing it on a miss.
+     * The variant distinguishes call shapes, e.g. limit and rejected policy.
+     */
+    public <T> T get(User user, String variant, Function<PolicyCatalog.Snapshot, T> compute) {
+        return get(user, variant, compute, null);
+    }
+
+    /**
+     * Same as {@link #get(User, String, Function)}, with a merge function used to
+     * carry the result across single-policy catalog changes
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(User user, String variant, Function<PolicyCatalog.Snapshot, T> compute, Merge<T> merge) {
+        long userId = user.getId();
+        Profile profile = Profile.of(user);
+        // Compute against the same snapshot the entry is stamped with
+        PolicyCatalog.Snapshot catalog = policyCatalog.snapshot();
+        long catalogVersion = catalog.getVersion();
+
+        Entry hit;
+        synchronized (entries) {
+            Map<String, Entry> forUser = entries.get(userId);
+            hit = forUser != null ? forUser.get(variant) : null;
+        }
+        if (hit != null && hit.profile.equals(profile)) {
+            if (hit.catalogVersion == catalogVersion) {
+                return (T) hit.value;
+            }
+            // Roll a result from an older snapshot forward, outside the lock
+            Object merged = rollForward(hit, catalogVersion);
+            if (merged != null) {
+                store(userId, variant, hit, new Entry(profile, catalogVersion, merged, hit.merge));
+                return (T) merged;
+            }
+        }
+
+        T value = compute.apply(catalog);
+        store(userId, variant, null, new Entry(profile, catalogVersion, value, (Merge<Object>) merge));
+        return value;
+    }
+
+    /**
+     * Apply the recorded changes between the entry's snapshot and the target
+     * version; null when a change is missing (a full reload, or too far behind)
+     * or the merge function cannot fold one in
+     */
+    private Object rollForward(Entry entry, long targetVersion) {
+        if (entry.merge == null || entry.catalogVersion > targetVersion) {
+            return null;
+        }
+        List<PolicyCatalog.Delta> chain = new ArrayList<>();
+        synchronized (deltas) {
+            long version = entry.catalogVersion;
+            while (version != targetVersion) {
+                PolicyCatalog.Delta delta = deltas.get(version);
+                if (delta == null) {
+                    return null;
+                }
+                chain.add(delta);
+                version = delta.getSnapshot().getVersion();
+            }
+        }
+        Object value = entry.value;
+        for (PolicyCatalog.Delta delta : chain) {
+            value = entry.merge.apply(value, delta);
+            if (value == null) {
+                return null;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Install an entry, unless another request replaced the expected one first
+     */
+    private void store(long userId, String variant, Entry expected, Entry entry) {
+        synchronized (entries) {
+            Map<String, Entry> forUser = entries.computeIfAbsent(userId, id -> new HashMap<>());
+            if (expected != null && forUser.get(variant) != expected) {
+                return;
+            }
+            if (forUser.size() >= MAX_VARIANTS_PER_USER && !forUser.containsKey(variant)) {
+                forUser.clear();
+            }
+            forUser.put(variant, entry);
+        }
+    }
+
+    /**
+     * Record a single-policy change; entries computed before it are merged on
+     * their next read
+     */
+    @Override
+    public void onIncrementalChange(PolicyCatalog.Delta delta) {
+        synchronized (deltas) {
+            deltas.put(delta.getPreviousVersion(), delta);
+        }
+    }
+
+    /**
+     * Drop every cached result for a user, e.g. after a profile update
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+    }
+
+    /**
+     * The profile fields that feed eligibility and scoring, compared field by field
+     */
+    record Profile(Integer age, Double income, Integer dependents, Integer healthFlags) {
+        static Profile of(User user) {
+            return new Profile(user.getAge(), user.getIncome(), user.getDependents(), user.getHealthFlags());
+        }
+    }
+
+    /**
+     * Folds one catalog change into a cached result; returns null to force a recompute
+     */
+    @FunctionalInterface
+    public interface Merge<T> {
+        T apply(T current, PolicyCatalog.Delta delta);
+    }
+
+    private static final class Entry {
+        private final Profile profile;
+        private final long catalogVersion;
+        private final Object value;
+        private final Merge<Object> merge;
+
+        private Entry(Profile profile, long catalogVersion, Object value, Merge<Object> merge) {
+            this.profile = profile;
+            this.catalogVersion = catalogVersion;
+            this.value = value;
+            this.merge = merge;
+        }
+    }
+}
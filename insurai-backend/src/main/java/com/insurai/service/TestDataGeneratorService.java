@@ -21,6 +21,7 @@ public class TestDataGeneratorService {
     private final AgentReviewRepository agentReviewRepository;
     private final FeedbackRepository feedbackRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PolicyCatalog policyCatalog;
     private final Random random = new Random();
 
     public TestDataGeneratorService(UserRepository userRepository,
@@ -30,7 +31,8 @@ public class TestDataGeneratorService {
             UserPolicyRepository userPolicyRepository,
             AgentReviewRepository agentReviewRepository,
             FeedbackRepository feedbackRepository,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            PolicyCatalog policyCatalog) {
         this.userRepository = userRepository;
         this.companyRepository = companyRepository;
         this.policyRepository = policyRepository;
@@ -39,6 +41,7 @@ public class TestDataGeneratorService {
         this.agentReviewRepository = agentReviewRepository;
         this.feedbackRepository = feedbackRepository;
         this.passwordEncoder = passwordEncoder;
+        this.policyCatalog = policyCatalog;
     }
 
     @Transactional
@@ -49,6 +52,7 @@ public class TestDataGeneratorService {
         generateAdmins();
         generateWorkflows();
         generateFeedback();
+        policyCatalog.refreshAfterCommit();
     }
 
     private void generateCompaniesAndPolicies() {
@@ -0,0 +1,111 @@
+package com.insurai.service;
+
+/**
+ * Bounded min-heap of (index, score) pairs backed by primitive arrays.
+ * Keeps the K highest scores seen so far; ties are broken in favour of the
+ * lower index so results match a stable descending sort.
+ */
+public final class TopKHeap {
+
+    private final int[] idx;
+    private final double[] score;
+    private int size;
+
+    public TopKHeap(int k) {
+        int capacity = Math.max(0, k);
+        this.idx = new int[capacity];
+        this.score = new double[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Offer a candidate; returns true if it entered the heap
+     */
+    public boolean offer(int index, double value) {
+        if (idx.length == 0) {
+            return false;
+        }
+        if (size < idx.length) {
+            idx[size] = index;
+            score[size] = value;
+            siftUp(size++);
+            return true;
+        }
+        if (!worse(0, index, value)) {
+            return false;
+        }
+        idx[0] = index;
+        score[0] = value;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Drains the heap into arrays ordered best first. The heap is empty afterwards.
+     */
+    public int drainDescending(int[] outIdx, double[] outScore) {
+        int n = size;
+        for (int pos = n - 1; pos >= 0; pos--) {
+            outIdx[pos] = idx[0];
+            outScore[pos] = score[0];
+            size--;
+            if (size > 0) {
+                idx[0] = idx[size];
+                score[0] = score[size];
+                siftDown(0);
+            }
+        }
+        return n;
+    }
+
+    /** Entry at heap slot a ranks below the candidate (i, s) */
+    private boolean worse(int a, int i, double s) {
+        return score[a] < s || (score[a] == s && idx[a] > i);
+    }
+
+    private boolean less(int a, int b) {
+        return worse(a, idx[b], score[b]);
+    }
+
+    private void siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(pos, parent)) {
+                break;
+            }
+            swap(pos, parent);
+            pos = parent;
+        }
+    }
+
+    private void siftDown(int pos) {
+        while (true) {
+            int left = 2 * pos + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && less(right, left)) {
+                smallest = right;
+            }
+            if (!less(smallest, pos)) {
+                break;
+            }
+            swap(pos, smallest);
+            pos = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int ti = idx[a];
+        idx[a] = idx[b];
+        idx[b] = ti;
+        double ts = score[a];
+        score[a] = score[b];
+        score[b] = ts;
+    }
+}
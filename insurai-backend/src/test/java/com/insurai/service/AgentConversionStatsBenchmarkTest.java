@@ -0,0 +1,146 @@
+package com.insurai.service;
+
+import com.insurai.model.Booking;
+import com.insurai.model.User;
+import com.insurai.repository.UserPolicyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression benchmark for the agent conversion-rate path: the hash join must
+ * agree with the old per-policy scan over the agent's bookings and, when run
+ * with -Dbenchmark=true, stay well ahead of it. Plain JUnit, no Spring context
+ * or database.
+ */
+class AgentConversionStatsBenchmarkTest {
+
+    private static final int BOOKINGS = 5_000;
+    private static final int POLICIES = 20_000;
+    private static final int USERS = 40_000;
+    private static final int ROUNDS = 5;
+
+    private final List<Booking> bookings = new ArrayList<>(BOOKINGS);
+    private final List<UserPolicyRepository.CustomerPolicyRow> rows = new ArrayList<>(POLICIES);
+
+    @BeforeEach
+    void generate() {
+        Random random = new Random(42);
+        for (int i = 0; i < BOOKINGS; i++) {
+            User user = new User();
+            user.setId((long) random.nextInt(USERS));
+            Booking booking = new Booking();
+            booking.setId((long) i);
+            booking.setUser(user);
+            booking.setStatus("COMPLETED");
+            bookings.add(booking);
+        }
+
+        String[] statuses = { "ACTIVE", "PENDING", "REJECTED", "CANCELLED" };
+        String[] reasons = { null, "", "Too expensive", "Coverage too low", "Found better offer" };
+        for (int i = 0; i < POLICIES; i++) {
+            rows.add(new Row((long) random.nextInt(USERS), statuses[random.nextInt(statuses.length)],
+                    reasons[random.nextInt(reasons.length)], random.nextInt(3)));
+        }
+    }
+
+    @Test
+    void hashJoinMatchesNestedScan() {
+        AgentConversionStats stats = AgentConversionStats.of(bookings, rows);
+        Legacy legacy = nestedScan(bookings, rows);
+
+        assertEquals(legacy.activePolicies, stats.getActivePolicies());
+        assertEquals(legacy.rejectionReasons, stats.getRejectionReasons());
+        assertEquals(legacy.alternativesRecommended, stats.getAlternativesRecommended());
+    }
+
+    /**
+     * Wall-clock comparison, too noisy for shared CI runners; run with -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void hashJoinIsFasterThanNestedScan() {
+        // Warm up both paths before timing
+        for (int i = 0; i < 2; i++) {
+            AgentConversionStats.of(bookings, rows);
+            nestedScan(bookings, rows.subList(0, POLICIES / 10));
+        }
+
+        long hashNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            AgentConversionStats.of(bookings, rows);
+            hashNanos = Math.min(hashNanos, System.nanoTime() - start);
+        }
+
+        long start = System.nanoTime();
+        nestedScan(bookings, rows);
+        long scanNanos = System.nanoTime() - start;
+
+        long hash = hashNanos;
+        assertTrue(scanNanos > hashNanos * 10, () -> String.format(
+                "hash join should be at least 10x faster than the nested scan: %.2f ms vs %.2f ms",
+                hash / 1e6, scanNanos / 1e6));
+    }
+
+    /**
+     * The previous implementation: one pass over the agent's bookings per policy
+     */
+    private static Legacy nestedScan(List<Booking> bookings, List<UserPolicyRepository.CustomerPolicyRow> rows) {
+        Legacy legacy = new Legacy();
+        for (UserPolicyRepository.CustomerPolicyRow row : rows) {
+            if (bookings.stream().noneMatch(b -> b.getUser().getId().equals(row.getUserId()))) {
+                continue;
+            }
+            if ("ACTIVE".equals(row.getStatus())) {
+                legacy.activePolicies++;
+            }
+            if (row.getRejectionReason() != null && !row.getRejectionReason().isEmpty()) {
+                legacy.rejectionReasons.merge(row.getRejectionReason(), 1, Integer::sum);
+            }
+            if (row.getAlternatives() > 0) {
+                legacy.alternativesRecommended++;
+            }
+        }
+        return legacy;
+    }
+
+    private static final class Legacy {
+        private long activePolicies;
+        private final Map<String, Integer> rejectionReasons = new HashMap<>();
+        private long alternativesRecommended;
+    }
+
+    private record Row(Long userId, String status, String rejectionReason, Integer alternatives)
+            implements UserPolicyRepository.CustomerPolicyRow {
+
+        @Override
+        public Long getUserId() {
+            return userId;
+        }
+
+        @Override
+        public String getStatus() {
+            return status;
+        }
+
+        @Override
+        public String getRejectionReason() {
+            return rejectionReason;
+        }
+
+        @Override
+        public Integer getAlternatives() {
+            return alternatives;
+        }
+    }
+}
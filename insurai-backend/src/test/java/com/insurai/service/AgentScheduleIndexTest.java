@@ -0,0 +1,132 @@
+package com.insurai.service;
+
+import com.insurai.repository.BookingRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Free-slot search on the schedule index against a naive walk over every grid
+ * point, including the jump past busy stretches.
+ */
+class AgentScheduleIndexTest {
+
+    private static final long AGENT = 7L;
+    private static final LocalTime DAY_START = LocalTime.of(9, 0);
+    private static final LocalTime DAY_END = LocalTime.of(18, 0);
+    private static final LocalDate MONDAY = LocalDate.now().plusYears(1).with(java.time.DayOfWeek.MONDAY);
+
+    @Test
+    void skipsBusyStretchToNextGridPoint() {
+        List<BookingRepository.BookingInterval> busy = List.of(
+                interval(1, MONDAY.atTime(9, 0), MONDAY.atTime(10, 10)),
+                interval(2, MONDAY.atTime(10, 30), MONDAY.atTime(11, 0)));
+        AgentScheduleIndex index = index(busy);
+
+        List<LocalDateTime> slots = index.freeSlots(AGENT, MONDAY.atStartOfDay(), MONDAY.plusDays(1).atStartOfDay(),
+                Duration.ofMinutes(30), Duration.ofMinutes(15), DAY_START, DAY_END, 3);
+
+        // 10:15 would run into the 10:30 booking; 11:00 is the first free grid point after it
+        assertEquals(List.of(MONDAY.atTime(11, 0), MONDAY.atTime(11, 15), MONDAY.atTime(11, 30)), slots);
+    }
+
+    @Test
+    void slotMustEndByDayEndAndRangeEnd() {
+        AgentScheduleIndex index = index(List.of());
+
+        List<LocalDateTime> slots = index.freeSlots(AGENT, MONDAY.atTime(16, 50), MONDAY.atTime(17, 45),
+                Duration.ofMinutes(30), Duration.ofMinutes(20), DAY_START, DAY_END, 10);
+
+        // Grid from 09:00 in 20 minute steps; 17:20 would end after the range
+        assertEquals(List.of(MONDAY.atTime(17, 0)), slots);
+    }
+
+    @Test
+    void matchesNaiveGridWalk() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<BookingRepository.BookingInterval> busy = new ArrayList<>();
+            int bookings = random.nextInt(25);
+            for (int i = 0; i < bookings; i++) {
+                LocalDateTime start = MONDAY.atTime(8, 0).plusDays(random.nextInt(4))
+                        .plusMinutes(5L * random.nextInt(130));
+                busy.add(interval(i + 1, start, start.plusMinutes(5 + 5L * random.nextInt(36))));
+            }
+            LocalDateTime from = MONDAY.atTime(random.nextInt(24), 5 * random.nextInt(12));
+            LocalDateTime to = from.plusHours(1 + random.nextInt(96));
+            Duration length = Duration.ofMinutes(15 + 15L * random.nextInt(8));
+            Duration step = Duration.ofMinutes(5 + 5L * random.nextInt(12));
+            int limit = 1 + random.nextInt(60);
+
+            List<LocalDateTime> expected = naive(busy, from, to, length, step, limit);
+            List<LocalDateTime> actual = index(busy).freeSlots(AGENT, from, to, length, step, DAY_START, DAY_END,
+                    limit);
+            assertEquals(expected, actual, "round " + round);
+        }
+    }
+
+    private static List<LocalDateTime> naive(List<BookingRepository.BookingInterval> busy, LocalDateTime from,
+            LocalDateTime to, Duration length, Duration step, int limit) {
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (LocalDate day = from.toLocalDate(); !day.atTime(DAY_START).isAfter(to) && slots.size() < limit;
+                day = day.plusDays(1)) {
+            for (LocalDateTime t = day.atTime(DAY_START); slots.size() < limit; t = t.plus(step)) {
+                LocalDateTime end = t.plus(length);
+                if (end.isAfter(day.atTime(DAY_END)) || end.isAfter(to)) {
+                    break;
+                }
+                if (t.isBefore(from)) {
+                    continue;
+                }
+                boolean free = true;
+                for (BookingRepository.BookingInterval b : busy) {
+                    if (b.getStartTime().isBefore(end) && t.isBefore(b.getEndTime())) {
+                        free = false;
+                    }
+                }
+                if (free) {
+                    slots.add(t);
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static AgentScheduleIndex index(List<BookingRepository.BookingInterval> busy) {
+        BookingRepository repo = mock(BookingRepository.class);
+        when(repo.findScheduleIntervals(eq(AGENT), any())).thenReturn(busy);
+        return new AgentScheduleIndex(repo, mock(EntityManagerFactory.class));
+    }
+
+    private static BookingRepository.BookingInterval interval(long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingRepository.BookingInterval() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return end;
+            }
+        };
+    }
+}
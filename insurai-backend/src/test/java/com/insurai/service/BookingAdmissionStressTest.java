@@ -0,0 +1,237 @@
+package com.insurai.service;
+
+import com.insurai.model.Booking;
+import com.insurai.model.User;
+import com.insurai.repository.BookingRepository;
+import com.insurai.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrency stress test for booking admission: thousands of parallel
+ * requests for overlapping slots of a few hot agents, split across two
+ * admission instances standing in for two nodes that share one database.
+ * The database is an in-memory fake with a little latency per query and
+ * row locks that last until commit. The unlocked check-then-save path runs
+ * first as the baseline for throughput.
+ */
+class BookingAdmissionStressTest {
+
+    private static final int HOT_AGENTS = 4;
+    private static final int REQUESTS = 4_000;
+    private static final int THREADS = 32;
+    private static final int SLOTS = 200; // half-hour grid; one-hour bookings overlap their neighbours
+    private static final long QUERY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    @Test
+    void admissionNeverDoubleBooksHotAgents() throws Exception {
+        FakeDatabase baselineDb = new FakeDatabase();
+        Result baseline = run((agentId, start, end, booking) -> {
+            // Previous createBooking: check, then save, nothing held in between
+            if (!baselineDb.bookings.findConflicts(agentId, start, end).isEmpty()) {
+                return false;
+            }
+            baselineDb.bookings.save(booking);
+            return true;
+        });
+        int baselineOverlaps = baselineDb.overlaps();
+
+        FakeDatabase db = new FakeDatabase();
+        BookingAdmission nodeA = new BookingAdmission(db.bookings, db.users, db.transactions);
+        BookingAdmission nodeB = new BookingAdmission(db.bookings, db.users, db.transactions);
+        Result locked = run((agentId, start, end, booking) -> {
+            BookingAdmission node = booking.getId() % 2 == 0 ? nodeA : nodeB;
+            booking.setId(null);
+            try {
+                node.admit(agentId, start, end, null, () -> booking, "taken");
+                return true;
+            } catch (ResponseStatusException e) {
+                return false;
+            }
+        });
+        int lockedOverlaps = db.overlaps();
+
+        System.out.printf("Booking admission, %d requests on %d agents, %d threads:%n", REQUESTS, HOT_AGENTS, THREADS);
+        System.out.printf("  unlocked baseline: %.0f req/s, %d admitted, %d overlapping pairs%n",
+                baseline.throughput(), baseline.admitted, baselineOverlaps);
+        System.out.printf("  striped + row lock: %.0f req/s, %d admitted, %d overlapping pairs%n",
+                locked.throughput(), locked.admitted, lockedOverlaps);
+
+        assertEquals(0, lockedOverlaps, "admission must never double-book an agent");
+        assertEquals(REQUESTS, locked.admitted + locked.rejected);
+        assertTrue(locked.admitted > 0);
+    }
+
+    private Result run(Attempt attempt) throws Exception {
+        Random random = new Random(7);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            long agentId = 1 + random.nextInt(HOT_AGENTS);
+            LocalDateTime start = BASE.plusMinutes(30L * random.nextInt(SLOTS));
+            LocalDateTime end = start.plusHours(1);
+            long requestId = i;
+            tasks.add(() -> {
+                Booking booking = new Booking();
+                booking.setId(requestId); // routing hint only
+                booking.setAgent(agent(agentId));
+                booking.setStartTime(start);
+                booking.setEndTime(end);
+                booking.setStatus("PENDING");
+                if (attempt.book(agentId, start, end, booking)) {
+                    admitted.incrementAndGet();
+                } else {
+                    rejected.incrementAndGet();
+                }
+            });
+        }
+
+        List<java.util.concurrent.Future<?>> futures = new ArrayList<>();
+        for (Runnable task : tasks) {
+            futures.add(pool.submit(() -> {
+                ready.await();
+                task.run();
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        ready.countDown();
+        for (java.util.concurrent.Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        return new Result(admitted.get(), rejected.get(), elapsed);
+    }
+
+    private static User agent(long id) {
+        User agent = new User();
+        agent.setId(id);
+        agent.setRole("AGENT");
+        return agent;
+    }
+
+    private interface Attempt {
+        boolean book(long agentId, LocalDateTime start, LocalDateTime end, Booking booking);
+    }
+
+    private record Result(int admitted, int rejected, long nanos) {
+        double throughput() {
+            return (admitted + rejected) / (nanos / 1e9);
+        }
+    }
+
+    /**
+     * Bookings table, agent row locks held until commit, and a transaction manager that releases them
+     */
+    private static final class FakeDatabase {
+        private final Map<Long, List<Booking>> byAgent = new ConcurrentHashMap<>();
+        private final Map<Long, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+        private final ThreadLocal<List<ReentrantLock>> held = ThreadLocal.withInitial(ArrayList::new);
+        private final AtomicLong ids = new AtomicLong();
+
+        private final BookingRepository bookings = mock(BookingRepository.class);
+        private final UserRepository users = mock(UserRepository.class);
+        private final PlatformTransactionManager transactions = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                releaseRowLocks();
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                releaseRowLocks();
+            }
+        };
+
+        private FakeDatabase() {
+            when(bookings.findConflicts(anyLong(), any(), any())).thenAnswer(inv -> {
+                long agentId = inv.getArgument(0);
+                LocalDateTime start = inv.getArgument(1);
+                LocalDateTime end = inv.getArgument(2);
+                List<Booking> snapshot;
+                synchronized (this) {
+                    snapshot = new ArrayList<>(byAgent.getOrDefault(agentId, List.of()));
+                }
+                LockSupport.parkNanos(QUERY_NANOS);
+                return snapshot.stream()
+                        .filter(b -> b.getEndTime().isAfter(start) && b.getStartTime().isBefore(end))
+                        .toList();
+            });
+            when(bookings.save(any(Booking.class))).thenAnswer(inv -> {
+                Booking b = inv.getArgument(0);
+                LockSupport.parkNanos(QUERY_NANOS);
+                b.setId(ids.incrementAndGet());
+                synchronized (this) {
+                    byAgent.computeIfAbsent(b.getAgent().getId(), id -> new ArrayList<>()).add(b);
+                }
+                return b;
+            });
+            when(users.lockById(anyLong())).thenAnswer(inv -> {
+                long agentId = inv.getArgument(0);
+                ReentrantLock row = rowLocks.computeIfAbsent(agentId, id -> new ReentrantLock());
+                row.lock();
+                held.get().add(row);
+                return Optional.of(agent(agentId));
+            });
+        }
+
+        private void releaseRowLocks() {
+            List<ReentrantLock> locks = held.get();
+            locks.forEach(ReentrantLock::unlock);
+            locks.clear();
+        }
+
+        private synchronized int overlaps() {
+            int pairs = 0;
+            for (List<Booking> list : byAgent.values()) {
+                List<Booking> sorted = new ArrayList<>(list);
+                sorted.sort(Comparator.comparing(Booking::getStartTime));
+                for (int i = 1; i < sorted.size(); i++) {
+                    if (sorted.get(i).getStartTime().isBefore(sorted.get(i - 1).getEndTime())) {
+                        pairs++;
+                    }
+                }
+            }
+            return pairs;
+        }
+    }
+}
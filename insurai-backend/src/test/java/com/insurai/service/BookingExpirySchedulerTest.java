@@ -0,0 +1,60 @@
+package com.insurai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Expiry deadline per booking state.
+ */
+class BookingExpirySchedulerTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    @Test
+    void pendingExpiresAtStartWhenThatComesFirst() {
+        LocalDateTime start = CREATED.plusHours(30);
+        assertEquals(start, BookingExpiryScheduler.deadline("PENDING", CREATED, start, start.plusHours(1)));
+    }
+
+    @Test
+    void pendingExpiresAtSlaWhenStartIsLater() {
+        LocalDateTime start = CREATED.plusDays(5);
+        assertEquals(CREATED.plusHours(48),
+                BookingExpiryScheduler.deadline("PENDING", CREATED, start, start.plusHours(1)));
+    }
+
+    @Test
+    void pendingWithMissingTimes() {
+        LocalDateTime start = CREATED.plusDays(5);
+        assertEquals(CREATED.plusHours(48), BookingExpiryScheduler.deadline("PENDING", CREATED, null, null));
+        assertEquals(start, BookingExpiryScheduler.deadline("PENDING", null, start, start.plusHours(1)));
+        assertNull(BookingExpiryScheduler.deadline("PENDING", null, null, null));
+    }
+
+    @Test
+    void approvedExpiresAtEnd() {
+        LocalDateTime start = CREATED.plusDays(2);
+        assertEquals(start.plusHours(1),
+                BookingExpiryScheduler.deadline("APPROVED", CREATED, start, start.plusHours(1)));
+    }
+
+    @Test
+    void confirmedExpiresThreeDaysAfterStart() {
+        LocalDateTime start = CREATED.plusDays(2);
+        assertEquals(start.plusHours(72),
+                BookingExpiryScheduler.deadline("CONFIRMED", CREATED, start, start.plusHours(1)));
+        assertNull(BookingExpiryScheduler.deadline("CONFIRMED", CREATED, null, null));
+    }
+
+    @Test
+    void closedStatusesNeverExpire() {
+        LocalDateTime start = CREATED.plusDays(2);
+        for (String status : new String[] { "COMPLETED", "CANCELLED", "REJECTED", "EXPIRED", "POLICY_ISSUED" }) {
+            assertNull(BookingExpiryScheduler.deadline(status, CREATED, start, start.plusHours(1)), status);
+        }
+    }
+}
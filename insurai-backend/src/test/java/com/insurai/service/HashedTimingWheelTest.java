@@ -0,0 +1,148 @@
+package com.insurai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Timing wheel firing rules on a small ring (8 slots of 10 ms), where
+ * revolutions and long pauses are easy to reach, plus a random run against a
+ * map of id -> deadline.
+ */
+class HashedTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int SLOTS = 8; // one revolution = 80 ms
+
+    @Test
+    void firesOnItsTickAndNotBefore() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, SLOTS, 0);
+        wheel.schedule(1, 35);
+
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of(1L), wheel.advance(30)); // tick 3 covers [30, 40)
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void laterRevolutionsStayInTheirSlot() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, SLOTS, 0);
+        wheel.schedule(1, 20); // slot 2, first revolution
+        wheel.schedule(2, 20 + 80); // slot 2, second revolution
+        wheel.schedule(3, 20 + 3 * 80); // slot 2, fourth revolution
+
+        assertEquals(List.of(1L), wheel.advance(20));
+        assertEquals(List.of(), wheel.advance(99));
+        assertEquals(List.of(2L), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(259));
+        assertEquals(List.of(3L), wheel.advance(260));
+    }
+
+    @Test
+    void reschedulingReplacesTheDeadline() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, SLOTS, 0);
+        wheel.schedule(1, 20);
+        wheel.schedule(1, 50);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(40));
+        assertEquals(List.of(1L), wheel.advance(50));
+        assertEquals(List.of(), wheel.advance(1000));
+    }
+
+    @Test
+    void passedDeadlineFiresOnTheNextTick() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, SLOTS, 0);
+        wheel.advance(100);
+        wheel.schedule(1, 5); // long gone
+
+        assertEquals(List.of(), wheel.advance(109));
+        assertEquals(List.of(1L), wheel.advance(110));
+    }
+
+    @Test
+    void longPauseFiresEverythingDueOnce() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, SLOTS, 0);
+        for (long id = 1; id <= 20; id++) {
+            wheel.schedule(id, id * 15);
+        }
+        wheel.schedule(100, 1000);
+
+        // Several revolutions in one call
+        List<Long> due = new ArrayList<>(wheel.advance(500));
+        Collections.sort(due);
+        List<Long> expected = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            expected.add(id);
+        }
+        assertEquals(expected, due);
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(999));
+        assertEquals(List.of(100L), wheel.advance(1000));
+    }
+
+    @Test
+    void cancelAndClear() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, SLOTS, 0);
+        wheel.schedule(1, 20);
+        wheel.schedule(2, 20);
+
+        assertTrue(wheel.cancel(1));
+        assertFalse(wheel.cancel(1));
+        assertEquals(List.of(2L), wheel.advance(20));
+
+        wheel.schedule(3, 40);
+        wheel.clear();
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), wheel.advance(1000));
+    }
+
+    @Test
+    void matchesReferenceModel() {
+        Random random = new Random(25);
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, SLOTS, 0);
+        Map<Long, Long> deadlines = new HashMap<>(); // id -> tick it fires on
+        long now = 0;
+        long lastTick = 0;
+
+        for (int step = 0; step < 20_000; step++) {
+            int op = random.nextInt(10);
+            long id = random.nextInt(200);
+            if (op < 5) {
+                long deadline = now - 50 + random.nextInt(600);
+                wheel.schedule(id, deadline);
+                deadlines.put(id, Math.max(Math.floorDiv(deadline, TICK), lastTick + 1));
+            } else if (op < 7) {
+                assertEquals(deadlines.remove(id) != null, wheel.cancel(id));
+            } else {
+                now += random.nextInt(10) == 0 ? random.nextInt(400) : random.nextInt(25);
+                long target = Math.floorDiv(now, TICK);
+                List<Long> expected = new ArrayList<>();
+                if (target > lastTick) {
+                    deadlines.entrySet().removeIf(e -> {
+                        if (e.getValue() <= target) {
+                            expected.add(e.getKey());
+                            return true;
+                        }
+                        return false;
+                    });
+                    lastTick = target;
+                }
+                List<Long> due = new ArrayList<>(wheel.advance(now));
+                Collections.sort(due);
+                Collections.sort(expected);
+                assertEquals(expected, due, "step " + step);
+            }
+            assertEquals(deadlines.size(), wheel.size());
+        }
+    }
+}
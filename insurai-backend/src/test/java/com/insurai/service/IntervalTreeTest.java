@@ -0,0 +1,94 @@
+package com.insurai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interval tree queries against a brute-force scan of the same intervals,
+ * through random inserts and removals.
+ */
+class IntervalTreeTest {
+
+    @Test
+    void halfOpenBoundsAndExclusion() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(1, 10, 20);
+        tree.insert(2, 20, 30);
+
+        assertFalse(tree.overlaps(0, 10, Long.MIN_VALUE)); // ends where the first starts
+        assertTrue(tree.overlaps(19, 20, Long.MIN_VALUE));
+        assertFalse(tree.overlaps(30, 40, Long.MIN_VALUE));
+        assertFalse(tree.overlaps(12, 18, 1)); // only overlaps itself
+        assertEquals(20, tree.firstEndOverlapping(15, 25));
+        assertEquals(Long.MIN_VALUE, tree.firstEndOverlapping(30, 31));
+
+        assertTrue(tree.remove(1, 10));
+        assertFalse(tree.remove(1, 10));
+        assertFalse(tree.remove(2, 21)); // wrong start
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(10, 20, Long.MIN_VALUE));
+    }
+
+    @Test
+    void matchesBruteForceThroughInsertsAndRemovals() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, long[]> live = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                long id = random.nextInt(2_000);
+                long[] previous = live.get(id);
+                if (previous != null) {
+                    assertTrue(tree.remove(id, previous[0]));
+                }
+                long start = random.nextInt(10_000);
+                long end = start + 1 + random.nextInt(300);
+                tree.insert(id, start, end);
+                live.put(id, new long[] { start, end });
+            } else {
+                Long id = new ArrayList<>(live.keySet()).get(random.nextInt(live.size()));
+                assertTrue(tree.remove(id, live.remove(id)[0]));
+            }
+
+            if (step % 50 == 0) {
+                long start = random.nextInt(10_200);
+                long end = start + 1 + random.nextInt(500);
+                long exclude = random.nextBoolean() ? random.nextInt(2_000) : Long.MIN_VALUE;
+
+                List<Long> expected = new ArrayList<>();
+                long expectedFirstEnd = Long.MIN_VALUE;
+                boolean expectedOverlap = false;
+                List<Map.Entry<Long, long[]>> inOrder = new ArrayList<>(live.entrySet());
+                inOrder.sort((a, b) -> a.getValue()[0] != b.getValue()[0]
+                        ? Long.compare(a.getValue()[0], b.getValue()[0])
+                        : Long.compare(a.getKey(), b.getKey()));
+                for (Map.Entry<Long, long[]> e : inOrder) {
+                    long[] iv = e.getValue();
+                    if (iv[0] < end && start < iv[1]) {
+                        expected.add(e.getKey());
+                        expectedFirstEnd = expectedFirstEnd == Long.MIN_VALUE ? iv[1]
+                                : Math.min(expectedFirstEnd, iv[1]);
+                        expectedOverlap |= e.getKey() != exclude;
+                    }
+                }
+
+                List<Long> actual = new ArrayList<>();
+                tree.forEachOverlapping(start, end, actual::add);
+                assertEquals(expected, actual);
+                assertEquals(expectedFirstEnd, tree.firstEndOverlapping(start, end));
+                assertEquals(expectedOverlap, tree.overlaps(start, end, exclude));
+                assertEquals(live.size(), tree.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.insurai.service;
+
+import com.insurai.dto.PolicyFilterRequest;
+import com.insurai.dto.PolicyRecommendationDTO;
+import com.insurai.dto.PolicySearchResultDTO;
+import com.insurai.model.Company;
+import com.insurai.model.Policy;
+import com.insurai.model.User;
+import com.insurai.repository.PolicyRepository;
+import com.insurai.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Index matches, facet counts and paged search against a naive filter over
+ * every policy.
+ */
+class PolicySearchIndexTest {
+
+    private static final long USER_ID = 1L;
+    private static final String[] TYPES = { "Life", "Health", "Auto", "life", null };
+    private static final String[] CATEGORIES = { "Personal", "Business", "Family", null };
+
+    private final Random random = new Random(5);
+    private final List<Policy> policies = new ArrayList<>();
+    private final User user = new User();
+
+    @Test
+    void matchesAndFacetsAgreeWithNaiveFilter() {
+        PolicySearchIndex searchIndex = new PolicySearchIndex(catalog(generate(300)));
+        PolicySearchIndex.Index index = searchIndex.current();
+        PolicyCatalog.Snapshot catalog = index.getCatalog();
+
+        for (int round = 0; round < 500; round++) {
+            PolicyFilterRequest filter = randomFilter();
+
+            BitSet expected = new BitSet();
+            Map<String, Long> expectedTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            Map<String, Long> expectedCategories = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Policy p : policies) {
+                if (!listed(p)) {
+                    continue;
+                }
+                boolean ranges = inRange(p.getPremium(), filter.getMinPremium(), filter.getMaxPremium())
+                        && inRange(p.getCoverage(), filter.getMinCoverage(), filter.getMaxCoverage());
+                boolean type = sameKey(filter.getType(), p.getType());
+                boolean category = sameKey(filter.getCategory(), p.getCategory());
+                if (ranges && type && category) {
+                    expected.set(catalog.indexOf(p.getId()));
+                }
+                if (p.getType() != null) {
+                    expectedTypes.merge(p.getType(), ranges && category ? 1L : 0L, Long::sum);
+                }
+                if (p.getCategory() != null) {
+                    expectedCategories.merge(p.getCategory(), ranges && type ? 1L : 0L, Long::sum);
+                }
+            }
+
+            assertEquals(expected, index.match(filter));
+            assertEquals(expectedTypes, byKey(index.typeFacets(filter)));
+            assertEquals(expectedCategories, byKey(index.categoryFacets(filter)));
+        }
+    }
+
+    @Test
+    void pagesConcatenateToNaiveRanking() {
+        PolicyCatalog policyCatalog = catalog(generate(250));
+        PolicyService service = policyService(policyCatalog);
+        PolicyCatalog.Snapshot catalog = policyCatalog.snapshot();
+
+        for (int round = 0; round < 50; round++) {
+            PolicyFilterRequest filter = randomFilter();
+            int size = 1 + random.nextInt(30);
+
+            // Stable sort by score over id order, the order the search promises
+            List<Policy> expected = new ArrayList<>();
+            for (Policy p : policies) {
+                if (listed(p) && inRange(p.getPremium(), filter.getMinPremium(), filter.getMaxPremium())
+                        && inRange(p.getCoverage(), filter.getMinCoverage(), filter.getMaxCoverage())
+                        && sameKey(filter.getType(), p.getType()) && sameKey(filter.getCategory(), p.getCategory())) {
+                    expected.add(p);
+                }
+            }
+            expected.sort(Comparator.comparingDouble(
+                    (Policy p) -> -service.calculateMatchScore(user, catalog, catalog.indexOf(p.getId()))));
+
+            List<Long> paged = new ArrayList<>();
+            PolicySearchResultDTO first = service.searchPolicies(USER_ID, filter, 0, size);
+            for (int page = 0; page < first.getTotalPages(); page++) {
+                PolicySearchResultDTO result = service.searchPolicies(USER_ID, filter, page, size);
+                assertEquals(expected.size(), result.getTotalElements());
+                assertTrue(result.getContent().size() <= size);
+                for (PolicyRecommendationDTO dto : result.getContent()) {
+                    paged.add(dto.getPolicyId());
+                }
+            }
+            assertEquals(expected.stream().map(Policy::getId).toList(), paged);
+            assertEquals((expected.size() + size - 1) / size, first.getTotalPages());
+
+            PolicySearchResultDTO past = service.searchPolicies(USER_ID, filter, first.getTotalPages(), size);
+            assertTrue(past.getContent().isEmpty());
+        }
+    }
+
+    @Test
+    void hugePageNumbersReturnAnEmptyPage() {
+        PolicyService service = policyService(catalog(generate(40)));
+        PolicyFilterRequest filter = new PolicyFilterRequest();
+
+        for (int size : new int[] { 1, 2, 7, 100 }) {
+            PolicySearchResultDTO result = service.searchPolicies(USER_ID, filter, Integer.MAX_VALUE, size);
+            assertTrue(result.getContent().isEmpty());
+            assertEquals(policies.stream().filter(PolicySearchIndexTest::listed).count(), result.getTotalElements());
+        }
+    }
+
+    private List<Policy> generate(int n) {
+        Company approved = new Company();
+        approved.setStatus("APPROVED");
+        Company pending = new Company();
+        pending.setStatus("PENDING_APPROVAL");
+        for (long id = 1; id <= n; id++) {
+            Policy p = new Policy();
+            p.setId(id);
+            p.setName("Policy " + id);
+            p.setType(TYPES[random.nextInt(TYPES.length)]);
+            p.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            p.setStatus(random.nextInt(6) == 0 ? "SUSPENDED" : "ACTIVE");
+            p.setCompany(random.nextInt(8) == 0 ? pending : approved);
+            p.setPremium(random.nextInt(10) == 0 ? null : 100.0 * random.nextInt(40));
+            p.setCoverage(random.nextInt(10) == 0 ? null : 50_000.0 * random.nextInt(20));
+            p.setMinAge(18 + random.nextInt(10));
+            p.setMaxAge(50 + random.nextInt(20));
+            p.setMinIncome(random.nextBoolean() ? null : 10_000.0 * random.nextInt(8));
+            p.setClaimSettlementRatio(90.0 + random.nextInt(10));
+            policies.add(p);
+        }
+        user.setId(USER_ID);
+        user.setAge(35);
+        user.setIncome(60_000.0);
+        return policies;
+    }
+
+    private PolicyFilterRequest randomFilter() {
+        PolicyFilterRequest filter = new PolicyFilterRequest();
+        if (random.nextBoolean()) {
+            filter.setType(random.nextInt(6) == 0 ? "Travel"
+                    : TYPES[random.nextInt(TYPES.length - 1)].toUpperCase(Locale.ROOT));
+        }
+        if (random.nextBoolean()) {
+            filter.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length - 1)]);
+        }
+        if (random.nextBoolean()) {
+            filter.setMinPremium(100.0 * random.nextInt(40));
+        }
+        if (random.nextBoolean()) {
+            filter.setMaxPremium(100.0 * random.nextInt(40));
+        }
+        if (random.nextBoolean()) {
+            filter.setMinCoverage(50_000.0 * random.nextInt(20));
+        }
+        if (random.nextBoolean()) {
+            filter.setMaxCoverage(50_000.0 * random.nextInt(20));
+        }
+        return filter;
+    }
+
+    // Facets are keyed case-insensitively and labelled with one of the spellings
+    private static Map<String, Long> byKey(Map<String, Long> facets) {
+        Map<String, Long> keyed = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        keyed.putAll(facets);
+        return keyed;
+    }
+
+    private static boolean listed(Policy p) {
+        return "ACTIVE".equals(p.getStatus()) && "APPROVED".equals(p.getCompany().getStatus());
+    }
+
+    private static boolean inRange(Double value, Double min, Double max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private static boolean sameKey(String wanted, String value) {
+        return wanted == null || (value != null && wanted.equalsIgnoreCase(value));
+    }
+
+    private static PolicyCatalog catalog(List<Policy> policies) {
+        PolicyRepository repository = mock(PolicyRepository.class);
+        when(repository.findAll()).thenAnswer(inv -> new ArrayList<>(policies));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        return new PolicyCatalog(repository, transactionManager);
+    }
+
+    private PolicyService policyService(PolicyCatalog catalog) {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        return new PolicyService(mock(PolicyRepository.class), null, userRepository, null, catalog,
+                new PolicySearchIndex(catalog), new RecommendationCache(catalog), mock(FraudFeatureStore.class));
+    }
+}
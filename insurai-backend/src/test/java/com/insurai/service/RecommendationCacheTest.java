@@ -0,0 +1,205 @@
+package com.insurai.service;
+
+import com.insurai.model.Company;
+import com.insurai.model.Policy;
+import com.insurai.model.User;
+import com.insurai.repository.PolicyRepository;
+import com.insurai.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cached recommendations rolled forward through policy adds and status
+ * changes against a full rescore of the same catalog.
+ */
+class RecommendationCacheTest {
+
+    private static final String[] TYPES = { "Life", "Health", "Auto", "Corporate" };
+    private static final String[] STATUSES = { "ACTIVE", "ACTIVE", "ACTIVE", "SUSPENDED" };
+
+    private final Map<Long, Policy> db = new TreeMap<>();
+    private final Random random = new Random(11);
+
+    @Test
+    void mergesOnReadInsteadOfRecomputing() {
+        Company approved = company(1L, "APPROVED");
+        for (long id = 1; id <= 20; id++) {
+            db.put(id, policy(id, approved));
+        }
+        PolicyCatalog catalog = catalog();
+        RecommendationCache cache = new RecommendationCache(catalog);
+        User user = user(1L);
+        AtomicInteger computes = new AtomicInteger();
+        AtomicInteger merges = new AtomicInteger();
+
+        cache.get(user, "v", c -> computes.incrementAndGet(), (current, delta) -> {
+            merges.incrementAndGet();
+            return current;
+        });
+        db.put(21L, policy(21L, approved));
+        catalog.policyAddedAfterCommit(21L);
+        db.put(3L, withStatus(db.get(3L), "SUSPENDED"));
+        catalog.policyStatusChangedAfterCommit(3L);
+        // Nothing is merged until the entry is read
+        assertEquals(0, merges.get());
+
+        cache.get(user, "v", c -> computes.incrementAndGet(), (current, delta) -> {
+            merges.incrementAndGet();
+            return current;
+        });
+        assertEquals(1, computes.get());
+        assertEquals(2, merges.get());
+
+        // A full reload breaks the chain of changes
+        catalog.refresh();
+        cache.get(user, "v", c -> computes.incrementAndGet(), (current, delta) -> current);
+        assertEquals(2, computes.get());
+    }
+
+    @Test
+    void incrementalResultsMatchFullRescore() {
+        Company approved = company(1L, "APPROVED");
+        Company pending = company(2L, "PENDING_APPROVAL");
+        long nextId = 1;
+        for (; nextId <= 60; nextId++) {
+            db.put(nextId, policy(nextId, random.nextInt(5) == 0 ? pending : approved));
+        }
+
+        PolicyCatalog catalog = catalog();
+        RecommendationCache cache = new RecommendationCache(catalog);
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            users.add(user(id));
+        }
+        PolicyService policies = policyService(catalog, cache, users);
+        AIRecommendationEngine engine = new AIRecommendationEngine(catalog, cache);
+
+        for (int step = 0; step < 300; step++) {
+            // One to three writes between reads, so entries roll over several changes
+            int writes = 1 + random.nextInt(3);
+            for (int w = 0; w < writes; w++) {
+                if (random.nextBoolean()) {
+                    db.put(nextId, policy(nextId, random.nextInt(5) == 0 ? pending : approved));
+                    catalog.policyAddedAfterCommit(nextId++);
+                } else {
+                    Policy changed = db.get(1 + (long) random.nextInt((int) nextId - 1));
+                    db.put(changed.getId(),
+                            withStatus(changed, "ACTIVE".equals(changed.getStatus()) ? "SUSPENDED" : "ACTIVE"));
+                    catalog.policyStatusChangedAfterCommit(changed.getId());
+                }
+            }
+
+            PolicyCatalog freshCatalog = catalog();
+            RecommendationCache freshCache = new RecommendationCache(freshCatalog);
+            PolicyService reference = policyService(freshCatalog, freshCache, users);
+            AIRecommendationEngine referenceEngine = new AIRecommendationEngine(freshCatalog, freshCache);
+            for (User user : users) {
+                assertEquals(ranking(reference.getRecommendedPolicies(user.getId())),
+                        ranking(policies.getRecommendedPolicies(user.getId())), "step " + step);
+                for (int limit : new int[] { 3, 10 }) {
+                    assertEquals(engineRanking(referenceEngine.getRecommendations(user, null, limit, true)),
+                            engineRanking(engine.getRecommendations(user, null, limit, true)), "step " + step);
+                }
+            }
+        }
+    }
+
+    private PolicyCatalog catalog() {
+        PolicyRepository repository = mock(PolicyRepository.class);
+        when(repository.findAll()).thenAnswer(inv -> new ArrayList<>(db.values()));
+        when(repository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(db.get(inv.<Long>getArgument(0))));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        return new PolicyCatalog(repository, transactionManager);
+    }
+
+    private static PolicyService policyService(PolicyCatalog catalog, RecommendationCache cache, List<User> users) {
+        UserRepository userRepository = mock(UserRepository.class);
+        for (User user : users) {
+            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        }
+        return new PolicyService(mock(PolicyRepository.class), null, userRepository, null, catalog,
+                mock(PolicySearchIndex.class), cache, mock(FraudFeatureStore.class));
+    }
+
+    private static List<String> ranking(List<com.insurai.dto.PolicyRecommendationDTO> recommendations) {
+        List<String> ranking = new ArrayList<>();
+        for (com.insurai.dto.PolicyRecommendationDTO dto : recommendations) {
+            ranking.add(dto.getPolicyId() + ":" + dto.getMatchScore());
+        }
+        return ranking;
+    }
+
+    private static List<String> engineRanking(List<AIRecommendationEngine.PolicyRecommendation> recommendations) {
+        List<String> ranking = new ArrayList<>();
+        for (AIRecommendationEngine.PolicyRecommendation rec : recommendations) {
+            ranking.add(rec.getPolicy().getId() + ":" + rec.getPolicy().getStatus() + ":" + rec.getConfidenceScore());
+        }
+        return ranking;
+    }
+
+    private Policy policy(long id, Company company) {
+        Policy policy = new Policy();
+        policy.setId(id);
+        policy.setName("Policy " + id);
+        policy.setType(TYPES[random.nextInt(TYPES.length)]);
+        policy.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        // Coarse values so that equal scores, and the id tie-break, come up often
+        policy.setPremium(500.0 * (1 + random.nextInt(6)));
+        policy.setCoverage(100_000.0 * (1 + random.nextInt(10)));
+        policy.setMinAge(18 + 5 * random.nextInt(4));
+        policy.setMaxAge(50 + 5 * random.nextInt(4));
+        policy.setMinIncome(random.nextBoolean() ? null : 20_000.0 * (1 + random.nextInt(4)));
+        policy.setClaimSettlementRatio(90.0 + random.nextInt(3) * 4);
+        policy.setCompany(company);
+        return policy;
+    }
+
+    // Each load sees a fresh entity, as it would from the database
+    private static Policy withStatus(Policy source, String status) {
+        Policy policy = new Policy();
+        policy.setId(source.getId());
+        policy.setName(source.getName());
+        policy.setType(source.getType());
+        policy.setStatus(status);
+        policy.setPremium(source.getPremium());
+        policy.setCoverage(source.getCoverage());
+        policy.setMinAge(source.getMinAge());
+        policy.setMaxAge(source.getMaxAge());
+        policy.setMinIncome(source.getMinIncome());
+        policy.setClaimSettlementRatio(source.getClaimSettlementRatio());
+        policy.setCompany(source.getCompany());
+        return policy;
+    }
+
+    private static Company company(long id, String status) {
+        Company company = new Company();
+        company.setId(id);
+        company.setStatus(status);
+        return company;
+    }
+
+    private User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setAge(25 + random.nextInt(30));
+        user.setIncome(30_000.0 + 10_000 * random.nextInt(8));
+        user.setDependents(random.nextInt(3));
+        return user;
+    }
+}